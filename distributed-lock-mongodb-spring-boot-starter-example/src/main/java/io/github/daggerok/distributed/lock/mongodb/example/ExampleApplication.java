@@ -4,10 +4,13 @@ import io.github.daggerok.distributed.lock.mongodb.DistributedLock;
 import io.github.daggerok.distributed.lock.mongodb.Lock;
 import java.time.Instant;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.Value;
+import lombok.With;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.annotation.Id;
@@ -26,12 +29,14 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @SpringBootApplication
+@RegisterReflectionForBinding(LastMessage.class)
 public class ExampleApplication {
     public static void main(String[] args) {
         SpringApplication.run(ExampleApplication.class, args);
     }
 }
 
+@With
 @Value
 @Document
 class LastMessage {
@@ -102,6 +107,16 @@ class ExampleResource {
         return toResponseEntity(maybeLastMessages);
     }
 
+    @PostMapping("/post-state-optimistically/{username}/{content}")
+    ResponseEntity<Optional<LastMessage>> compareAndSet(@PathVariable String username, @PathVariable String content) {
+        Optional<LastMessage> maybeLastMessage = distributedLock.compareAndSet(LastMessage.class,
+                Query.query(Criteria.where("fromUser").is(username)),
+                current -> (Objects.isNull(current) ? LastMessage.of(username, content) : current.withContent(content))
+                        .withLastModifiedAt(Instant.now())
+        );
+        return toResponseEntity(maybeLastMessage);
+    }
+
     private <T> ResponseEntity<Optional<T>> toResponseEntity(Optional<T> optional) {
         return optional.isPresent() ? ResponseEntity.ok(optional) : ResponseEntity.noContent().build();
     }
@@ -0,0 +1,41 @@
+package io.github.daggerok.distributed.lock.mongodb.autoconfigure;
+
+import io.github.daggerok.distributed.lock.mongodb.DistributedLock;
+import io.github.daggerok.distributed.lock.mongodb.HotLocks;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.autoconfigure.health.ConditionalOnEnabledHealthIndicator;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+@ConditionalOnClass(Endpoint.class)
+@ConditionalOnBean(DistributedLock.class)
+@AutoConfiguration(after = DistributedLockAutoConfiguration.class)
+public class DistributedLockActuatorAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnAvailableEndpoint
+    public DistributedLockEndpoint distributedLockEndpoint(DistributedLock distributedLock) {
+        return new DistributedLockEndpoint(distributedLock);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(name = "distributedLockHealthIndicator")
+    @ConditionalOnEnabledHealthIndicator("distributedLock")
+    public DistributedLockHealthIndicator distributedLockHealthIndicator(DistributedLock distributedLock) {
+        return new DistributedLockHealthIndicator(distributedLock);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnAvailableEndpoint
+    @ConditionalOnProperty(prefix = "io.github.daggerok.distributed.lock.mongodb", name = "hot-locks.enabled", havingValue = "true")
+    public HotLocksEndpoint hotLocksEndpoint(HotLocks hotLocks) {
+        return new HotLocksEndpoint(hotLocks);
+    }
+}
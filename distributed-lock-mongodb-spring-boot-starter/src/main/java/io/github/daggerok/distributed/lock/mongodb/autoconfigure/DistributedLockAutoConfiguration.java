@@ -1,16 +1,39 @@
 package io.github.daggerok.distributed.lock.mongodb.autoconfigure;
 
+import io.github.daggerok.distributed.lock.mongodb.AdaptiveLease;
+import io.github.daggerok.distributed.lock.mongodb.CircuitBreaker;
+import io.github.daggerok.distributed.lock.mongodb.DeadlockDetector;
 import io.github.daggerok.distributed.lock.mongodb.DistributedLock;
+import io.github.daggerok.distributed.lock.mongodb.HeldLockCache;
+import io.github.daggerok.distributed.lock.mongodb.HotLocks;
+import io.github.daggerok.distributed.lock.mongodb.LockAuditLog;
+import io.github.daggerok.distributed.lock.mongodb.LockBatcher;
+import io.github.daggerok.distributed.lock.mongodb.LockEventListener;
+import io.github.daggerok.distributed.lock.mongodb.LockEvents;
+import io.github.daggerok.distributed.lock.mongodb.PartitionAssignor;
+import io.github.daggerok.distributed.lock.mongodb.QuorumDistributedLock;
+import io.github.daggerok.distributed.lock.mongodb.scheduling.ClusterScheduledTasks;
+import io.micrometer.observation.ObservationRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoConnectionDetails;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.ComponentScan;
-import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.util.StringUtils;
 import org.springframework.data.mongodb.core.MongoTemplate;
 
 @ConditionalOnProperty(
@@ -18,17 +41,229 @@ import org.springframework.data.mongodb.core.MongoTemplate;
         name = "enabled", havingValue = "true", matchIfMissing = true
 )
 @Log4j2
-@Configuration
 @ConditionalOnClass(DistributedLock.class)
-@ComponentScan(basePackageClasses = DistributedLock.class)
 @AutoConfiguration(after = MongoDataAutoConfiguration.class)
 @EnableConfigurationProperties(DistributedLockProperties.class)
 public class DistributedLockAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public DistributedLock distributedLock(MongoTemplate mongoTemplate, DistributedLockProperties props) {
-        log.info("Initializing DistributedLock(mongoTemplate={}, props={})", mongoTemplate, props);
-        return new DistributedLock(props.getLockCollectionName(), props.getLockPeriod(), mongoTemplate);
+    @ConditionalOnProperty(prefix = "io.github.daggerok.distributed.lock.mongodb", name = "client.enabled", havingValue = "true")
+    public DistributedLockMongoClient distributedLockMongoClient(MongoConnectionDetails connectionDetails,
+                                                                DistributedLockProperties props) {
+        log.info("Initializing DistributedLockMongoClient(client={})", props.getClient());
+        return DistributedLockMongoClient.of(props.getClient(), connectionDetails.getConnectionString());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "io.github.daggerok.distributed.lock.mongodb", name = "events.application-events", havingValue = "true")
+    public LockApplicationEventPublisher lockApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+        return new LockApplicationEventPublisher(applicationEventPublisher);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "io.github.daggerok.distributed.lock.mongodb", name = "audit.enabled", havingValue = "true")
+    public LockAuditLog lockAuditLog(MongoTemplate mongoTemplate, ObjectProvider<DistributedLockMongoClient> lockMongoClient,
+                                     DistributedLockProperties props) {
+        DistributedLockProperties.Audit audit = props.getAudit();
+        log.info("Initializing LockAuditLog(audit={})", audit);
+        return new LockAuditLog(lockMongoTemplate(mongoTemplate, lockMongoClient), audit.getCollectionName(),
+                audit.getMaxSize().toBytes(), audit.getBufferSize(), audit.getMaxBatchSize(), audit.getFlushInterval(),
+                audit.getTypes());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public LockEvents lockEvents(ObjectProvider<LockEventListener> listeners, DistributedLockProperties props) {
+        List<LockEventListener> lockEventListeners = listeners.orderedStream().toList();
+        log.info("Initializing LockEvents(listeners={}, events={})", lockEventListeners, props.getEvents());
+        return new LockEvents(props.getEvents().getBufferSize(), lockEventListeners);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "io.github.daggerok.distributed.lock.mongodb", name = "scheduling.enabled", havingValue = "true", matchIfMissing = true)
+    public static ClusterScheduledTasks clusterScheduledTasks(ObjectProvider<DistributedLock> distributedLock) {
+        return new ClusterScheduledTasks(distributedLock);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public HeldLockCache heldLockCache(DistributedLockProperties props) {
+        DistributedLockProperties.NegativeCache negativeCache = props.getNegativeCache();
+        if (!negativeCache.getEnabled()) return HeldLockCache.NONE;
+
+        log.info("Initializing HeldLockCache(negativeCache={})", negativeCache);
+        return new HeldLockCache(negativeCache.getMaxSize(), negativeCache.getMaxTtl());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public HotLocks hotLocks(DistributedLockProperties props) {
+        DistributedLockProperties.HotLocks hotLocks = props.getHotLocks();
+        if (!hotLocks.getEnabled()) return HotLocks.NONE;
+
+        log.info("Initializing HotLocks(hotLocks={})", hotLocks);
+        return new HotLocks(hotLocks.getCapacity());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public AdaptiveLease adaptiveLease(DistributedLockProperties props) {
+        AdaptiveLease adaptiveLease = newAdaptiveLease(props);
+        if (adaptiveLease != AdaptiveLease.NONE) log.info("Initializing AdaptiveLease(adaptiveLease={})", props.getAdaptiveLease());
+        return adaptiveLease;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CircuitBreaker circuitBreaker(DistributedLockProperties props) {
+        CircuitBreaker circuitBreaker = newCircuitBreaker(props);
+        if (circuitBreaker.isEnabled()) log.info("Initializing CircuitBreaker(circuitBreaker={})", props.getCircuitBreaker());
+        return circuitBreaker;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnExpression("${io.github.daggerok.distributed.lock.mongodb.negative-cache.enabled:false} "
+            + "and ${io.github.daggerok.distributed.lock.mongodb.negative-cache.watch-releases:true}")
+    public HeldLockCacheInvalidator heldLockCacheInvalidator(HeldLockCache heldLockCache, MongoTemplate mongoTemplate,
+                                                             ObjectProvider<DistributedLockMongoClient> lockMongoClient,
+                                                             DistributedLockProperties props) {
+        return new HeldLockCacheInvalidator(heldLockCache, lockMongoTemplate(mongoTemplate, lockMongoClient), props.getLockCollectionName());
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnMissingBean
+    public DistributedLock distributedLock(MongoTemplate mongoTemplate, DistributedLockProperties props,
+                                           ObjectProvider<DistributedLockMongoClient> lockMongoClient, LockEvents lockEvents,
+                                           HeldLockCache heldLockCache, HotLocks hotLocks, AdaptiveLease adaptiveLease,
+                                           CircuitBreaker circuitBreaker, ObjectProvider<ObservationRegistry> observationRegistry) {
+        MongoTemplate lockMongoTemplate = lockMongoTemplate(mongoTemplate, lockMongoClient);
+        log.info("Initializing DistributedLock(mongoTemplate={}, props={})", lockMongoTemplate, props);
+        return new DistributedLock(props.getLockCollectionName(), props.getLockPeriod(), lockMongoTemplate)
+                .withEvents(lockEvents)
+                .withHeldLockCache(heldLockCache)
+                .withHotLocks(hotLocks)
+                .withAdaptiveLease(adaptiveLease)
+                .withCircuitBreaker(circuitBreaker)
+                .withObservationRegistry(observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public DistributedLockGroups distributedLockGroups(MongoTemplate mongoTemplate, DistributedLockProperties props,
+                                                       ObjectProvider<DistributedLockMongoClient> lockMongoClient,
+                                                       ObjectProvider<MongoConnectionDetails> connectionDetails,
+                                                       LockEvents lockEvents, HotLocks hotLocks,
+                                                       ObjectProvider<ObservationRegistry> observationRegistry) {
+        if (!props.getGroups().isEmpty() && props.getNegativeCache().getEnabled())
+            log.warn("Negative cache isn't supported by lock groups, locks of {} groups are not cached", props.getGroups().keySet());
+
+        Map<String, DistributedLock> distributedLocks = new LinkedHashMap<>();
+        List<DistributedLockMongoClient> clients = new ArrayList<>();
+        props.getGroups().forEach((group, config) -> {
+            MongoTemplate groupMongoTemplate = lockMongoTemplate(mongoTemplate, lockMongoClient);
+            if (config.getClient().getEnabled()) {
+                DistributedLockMongoClient client = DistributedLockMongoClient.of(config.getClient(),
+                        connectionDetails.getObject().getConnectionString());
+                clients.add(client);
+                groupMongoTemplate = client.getMongoTemplate();
+            }
+            String lockCollectionName = Optional.ofNullable(config.getLockCollectionName())
+                    .orElseGet(() -> props.getLockCollectionName() + StringUtils.capitalize(group));
+            Duration lockPeriod = Optional.ofNullable(config.getLockPeriod()).orElse(props.getLockPeriod());
+            log.info("Initializing {} lock group(lockCollectionName={}, lockPeriod={}, group={})", group, lockCollectionName, lockPeriod, config);
+            distributedLocks.put(group, new DistributedLock(lockCollectionName, lockPeriod, groupMongoTemplate)
+                    .withGroup(group)
+                    .withIndexStrategy(config.getIndexStrategy())
+                    .withEvents(lockEvents)
+                    .withHotLocks(hotLocks) // reported together with default locks
+                    .withAdaptiveLease(newAdaptiveLease(props)) // every group adapts to its own executions
+                    .withCircuitBreaker(newCircuitBreaker(props))
+                    .withObservationRegistry(observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP)));
+        });
+        return new DistributedLockGroups(distributedLocks, clients);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public static DistributedLockGroupsRegistrar distributedLockGroupsRegistrar() {
+        return new DistributedLockGroupsRegistrar();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "io.github.daggerok.distributed.lock.mongodb", name = "batching.enabled", havingValue = "true")
+    public LockBatcher lockBatcher(DistributedLock distributedLock, DistributedLockProperties props) {
+        log.info("Initializing LockBatcher(batching={})", props.getBatching());
+        return distributedLock.batcher(props.getBatching().getWindow(), props.getBatching().getMaxBatchSize());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "io.github.daggerok.distributed.lock.mongodb", name = "deadlock-detection.enabled", havingValue = "true")
+    public DeadlockDetector deadlockDetector(DistributedLock distributedLock, DistributedLockProperties props) {
+        log.info("Initializing DeadlockDetector(deadlockDetection={})", props.getDeadlockDetection());
+        return distributedLock.deadlockDetector(props.getDeadlockDetection().getInterval());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "io.github.daggerok.distributed.lock.mongodb", name = "partition-assignment.enabled", havingValue = "true")
+    public PartitionAssignor partitionAssignor(DistributedLock distributedLock, DistributedLockProperties props) {
+        DistributedLockProperties.PartitionAssignment partitionAssignment = props.getPartitionAssignment();
+        log.info("Initializing PartitionAssignor(partitionAssignment={})", partitionAssignment);
+        return distributedLock.partitionAssignor(partitionAssignment.getGroup(), partitionAssignment.getPartitions(),
+                partitionAssignment.getHeartbeat());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "io.github.daggerok.distributed.lock.mongodb", name = "quorum.enabled", havingValue = "true")
+    public DistributedLockQuorumClients distributedLockQuorumClients(DistributedLockProperties props) {
+        log.info("Initializing DistributedLockQuorumClients(quorum={})", props.getQuorum());
+        return DistributedLockQuorumClients.of(props.getClient(), props.getQuorum().getUris());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "io.github.daggerok.distributed.lock.mongodb", name = "quorum.enabled", havingValue = "true")
+    public QuorumDistributedLock quorumDistributedLock(DistributedLockQuorumClients quorumClients,
+                                                       DistributedLockProperties props, LockEvents lockEvents,
+                                                       ObjectProvider<ObservationRegistry> observationRegistry) {
+        DistributedLockProperties.Quorum quorum = props.getQuorum();
+        List<DistributedLock> nodes = quorumClients.getMongoTemplates().stream()
+                .map(mongoTemplate -> new DistributedLock(props.getLockCollectionName(), props.getLockPeriod(), mongoTemplate)
+                        .withEvents(lockEvents)
+                        .withCircuitBreaker(newCircuitBreaker(props)) // every node fails fast on its own
+                        .withObservationRegistry(observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP)))
+                .toList();
+        log.info("Initializing QuorumDistributedLock(nodes={}, quorum={})", nodes.size(), quorum);
+        return new QuorumDistributedLock(nodes, props.getLockPeriod(), quorum.getNodeTimeout(), quorum.getClockDriftFactor());
+    }
+
+    private static AdaptiveLease newAdaptiveLease(DistributedLockProperties props) {
+        DistributedLockProperties.AdaptiveLease adaptiveLease = props.getAdaptiveLease();
+        if (!adaptiveLease.getEnabled()) return AdaptiveLease.NONE;
+        return new AdaptiveLease(adaptiveLease.getCapacity(), adaptiveLease.getSafetyFactor(),
+                adaptiveLease.getMinPeriod(), adaptiveLease.getMaxPeriod());
+    }
+
+    private static CircuitBreaker newCircuitBreaker(DistributedLockProperties props) {
+        DistributedLockProperties.CircuitBreaker circuitBreaker = props.getCircuitBreaker();
+        if (!circuitBreaker.getEnabled()) return CircuitBreaker.NONE;
+        return new CircuitBreaker(circuitBreaker.getFailureThreshold(), circuitBreaker.getOpenDuration(),
+                circuitBreaker.getSlowCallDuration());
+    }
+
+    private static MongoTemplate lockMongoTemplate(MongoTemplate mongoTemplate,
+                                                   ObjectProvider<DistributedLockMongoClient> lockMongoClient) {
+        return Optional.ofNullable(lockMongoClient.getIfAvailable())
+                .map(DistributedLockMongoClient::getMongoTemplate)
+                .orElse(mongoTemplate);
     }
 }
@@ -0,0 +1,82 @@
+package io.github.daggerok.distributed.lock.mongodb.autoconfigure;
+
+import io.github.daggerok.distributed.lock.mongodb.DistributedLock;
+import io.github.daggerok.distributed.lock.mongodb.Lock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+
+/**
+ * Actuator endpoint to inspect currently held locks and force release stuck ones.
+ * <p>
+ * Usage:
+ * <pre>
+ *     http get :8080/actuator/distributedlocks prefix==order- page==0 size==20
+ *     http delete :8080/actuator/distributedlocks/642b52e873d0ec7cd4463f05 owner=="12345@node-1#42"
+ * </pre>
+ */
+@RequiredArgsConstructor
+@Endpoint(id = "distributedlocks")
+public class DistributedLockEndpoint {
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private final DistributedLock distributedLock;
+
+    @ReadOperation
+    public HeldLocks locks(@Nullable String prefix, @Nullable Integer page, @Nullable Integer size) {
+        int aPage = Optional.ofNullable(page).filter(it -> it >= 0).orElse(0);
+        int aSize = Optional.ofNullable(size).filter(it -> it > 0).map(it -> Math.min(it, MAX_PAGE_SIZE)).orElse(DEFAULT_PAGE_SIZE);
+        Instant now = Instant.now();
+        try (Stream<Lock> locks = distributedLock.streamHeldLocks(prefix, (long) aPage * aSize, aSize)) {
+            return new HeldLocks(aPage, aSize, locks.map(lock -> HeldLock.of(lock, now)).toList());
+        }
+    }
+
+    @DeleteOperation
+    public HeldLock release(@Selector String lockId, String owner) {
+        return distributedLock.release(lockId, owner).map(lock -> HeldLock.of(lock, Instant.now())).orElse(null);
+    }
+
+    @Value
+    public static class HeldLocks {
+        int page;
+        int size;
+        List<HeldLock> locks;
+    }
+
+    @Value
+    public static class HeldLock {
+        String id;
+        String lockedBy;
+        String owner;
+        String description;
+        Lock.State state;
+        Instant lockedAt;
+        Instant lastModifiedAt;
+        Duration age;
+        Duration remainingLease;
+        boolean expired;
+
+        static HeldLock of(Lock lock, Instant now) {
+            Duration age = Optional.ofNullable(lock.getLockedAt()).map(lockedAt -> Duration.between(lockedAt, now)).orElse(null);
+            Duration remainingLease = Optional.ofNullable(lock.getLastModifiedAt())
+                    .flatMap(lastModifiedAt -> Optional.ofNullable(lock.getLockPeriod()).map(lastModifiedAt::plus))
+                    .map(expiresAt -> Duration.between(now, expiresAt))
+                    .orElse(null);
+            boolean expired = Optional.ofNullable(remainingLease).map(Duration::isNegative).orElse(false);
+            return new HeldLock(lock.getId(), lock.getLockedBy(), lock.getOwner(), lock.getDescription(), lock.getState(),
+                    lock.getLockedAt(), lock.getLastModifiedAt(), age, remainingLease, expired);
+        }
+    }
+}
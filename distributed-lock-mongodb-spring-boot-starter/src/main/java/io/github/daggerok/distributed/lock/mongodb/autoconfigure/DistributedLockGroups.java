@@ -0,0 +1,52 @@
+package io.github.daggerok.distributed.lock.mongodb.autoconfigure;
+
+import io.github.daggerok.distributed.lock.mongodb.DistributedLock;
+import java.io.Closeable;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * {@link DistributedLock} instances of named lock groups, configured by
+ * {@code io.github.daggerok.distributed.lock.mongodb.groups.*} properties, together with their own dedicated lock
+ * store clients. Every group is also registered as {@code <group>DistributedLock} bean qualified by group name:
+ * <pre>
+ *     public BatchService(&#64;Qualifier("batch") DistributedLock batchLock) {
+ *         this.batchLock = batchLock;
+ *     }
+ * </pre>
+ */
+@Log4j2
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public class DistributedLockGroups implements Closeable {
+
+    private final Map<String, DistributedLock> distributedLocks;
+    private final List<DistributedLockMongoClient> clients;
+
+    /**
+     * @param group - lock group name
+     * @return {@link DistributedLock} of given lock group
+     */
+    public DistributedLock get(String group) {
+        return Optional.ofNullable(distributedLocks.get(group))
+                .orElseThrow(() -> new IllegalArgumentException("Unknown lock group: " + group));
+    }
+
+    /**
+     * @return names of configured lock groups
+     */
+    public Set<String> getGroups() {
+        return distributedLocks.keySet();
+    }
+
+    @Override
+    public void close() {
+        if (clients.isEmpty()) return;
+        log.info("Closing lock groups lock store clients");
+        clients.forEach(DistributedLockMongoClient::close);
+    }
+}
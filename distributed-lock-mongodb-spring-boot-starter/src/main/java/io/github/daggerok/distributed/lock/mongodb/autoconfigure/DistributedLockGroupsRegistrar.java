@@ -0,0 +1,52 @@
+package io.github.daggerok.distributed.lock.mongodb.autoconfigure;
+
+import io.github.daggerok.distributed.lock.mongodb.DistributedLock;
+import java.util.Map;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.AutowireCandidateQualifier;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+/**
+ * Registers {@code <group>DistributedLock} bean qualified by group name for every configured lock group, each of
+ * them is supplied by {@link DistributedLockGroups} bean, so group locks are injectable like the default one.
+ */
+@Log4j2
+public class DistributedLockGroupsRegistrar implements BeanDefinitionRegistryPostProcessor, EnvironmentAware {
+
+    static final String GROUPS = "io.github.daggerok.distributed.lock.mongodb.groups";
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+        Map<String, DistributedLockProperties.Group> groups = Binder.get(environment)
+                .bind(GROUPS, Bindable.mapOf(String.class, DistributedLockProperties.Group.class))
+                .orElse(Map.of());
+        groups.keySet().forEach(group -> {
+            RootBeanDefinition definition = new RootBeanDefinition(DistributedLock.class);
+            definition.setFactoryBeanName("distributedLockGroups");
+            definition.setFactoryMethodName("get");
+            definition.getConstructorArgumentValues().addIndexedArgumentValue(0, group);
+            definition.addQualifier(new AutowireCandidateQualifier(Qualifier.class, group));
+            log.info("Registering {}DistributedLock bean", group);
+            registry.registerBeanDefinition(group + "DistributedLock", definition);
+        });
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.daggerok.distributed.lock.mongodb.autoconfigure;
+
+import io.github.daggerok.distributed.lock.mongodb.DistributedLock;
+import java.time.Duration;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+
+/**
+ * Reports lock store availability and its query latency.
+ */
+@RequiredArgsConstructor
+public class DistributedLockHealthIndicator extends AbstractHealthIndicator {
+
+    private final DistributedLock distributedLock;
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        Duration latency = distributedLock.ping();
+        builder.up().withDetail("latencyMillis", latency.toNanos() / 1_000_000.0);
+    }
+}
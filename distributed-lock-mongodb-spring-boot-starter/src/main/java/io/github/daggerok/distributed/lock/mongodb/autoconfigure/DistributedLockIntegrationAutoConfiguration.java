@@ -0,0 +1,27 @@
+package io.github.daggerok.distributed.lock.mongodb.autoconfigure;
+
+import io.github.daggerok.distributed.lock.mongodb.DistributedLock;
+import io.github.daggerok.distributed.lock.mongodb.integration.DistributedLockRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.integration.support.locks.LockRegistry;
+
+@Log4j2
+@ConditionalOnClass(LockRegistry.class)
+@ConditionalOnBean(DistributedLock.class)
+@AutoConfiguration(after = DistributedLockAutoConfiguration.class)
+@ConditionalOnProperty(prefix = "io.github.daggerok.distributed.lock.mongodb", name = "integration.enabled", havingValue = "true", matchIfMissing = true)
+public class DistributedLockIntegrationAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(LockRegistry.class)
+    public DistributedLockRegistry distributedLockRegistry(DistributedLock distributedLock, DistributedLockProperties props) {
+        log.info("Initializing DistributedLockRegistry(integration={})", props.getIntegration());
+        return new DistributedLockRegistry(distributedLock, props.getIntegration().getRegion(), props.getLockPeriod());
+    }
+}
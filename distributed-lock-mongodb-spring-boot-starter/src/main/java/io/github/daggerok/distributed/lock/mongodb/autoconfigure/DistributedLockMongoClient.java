@@ -0,0 +1,81 @@
+package io.github.daggerok.distributed.lock.mongodb.autoconfigure;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import java.io.Closeable;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+
+/**
+ * Dedicated {@link MongoClient} and {@link MongoTemplate} pair used only for lock operations.
+ * <p>
+ * Intentionally is not a {@link MongoTemplate} or {@link MongoClient} bean itself, so it never competes with
+ * application beans of these types during autowiring.
+ */
+@Log4j2
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public class DistributedLockMongoClient implements Closeable {
+
+    private static final String DEFAULT_DATABASE = "test";
+
+    private final MongoClient mongoClient;
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Creates dedicated lock store client according to given config.
+     *
+     * @param client           - {@link DistributedLockProperties.Client} configuration
+     * @param fallbackUri      - connection string to be used if {@link DistributedLockProperties.Client} {@code uri} is
+     *                         not configured, for example application {@code spring.data.mongodb.uri}
+     * @return {@link DistributedLockMongoClient} instance
+     */
+    public static DistributedLockMongoClient of(DistributedLockProperties.Client client, ConnectionString fallbackUri) {
+        ConnectionString connectionString = Optional.ofNullable(client.getUri()).map(ConnectionString::new)
+                .orElse(fallbackUri);
+        WriteConcern writeConcern = Optional.ofNullable(WriteConcern.valueOf(client.getWriteConcern()))
+                .orElseThrow(() -> new IllegalArgumentException("Unknown write concern: " + client.getWriteConcern()));
+        ReadPreference readPreference = ReadPreference.valueOf(client.getReadPreference());
+
+        MongoClientSettings settings = MongoClientSettings.builder()
+                .applyConnectionString(connectionString)
+                .applyToConnectionPoolSettings(pool -> pool
+                        .minSize(client.getMinPoolSize())
+                        .maxSize(client.getMaxPoolSize())
+                        .maxWaitTime(client.getMaxWaitTime().toMillis(), TimeUnit.MILLISECONDS))
+                .applyToSocketSettings(socket -> socket
+                        .connectTimeout(client.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                        .readTimeout(client.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS))
+                .applyToClusterSettings(cluster -> cluster
+                        .serverSelectionTimeout(client.getServerSelectionTimeout().toMillis(), TimeUnit.MILLISECONDS))
+                .writeConcern(writeConcern)
+                .readPreference(readPreference)
+                .build();
+
+        String database = Optional.ofNullable(connectionString.getDatabase()).orElse(DEFAULT_DATABASE);
+        MongoClient mongoClient = MongoClients.create(settings);
+        MongoTemplate mongoTemplate = new MongoTemplate(new SimpleMongoClientDatabaseFactory(mongoClient, database));
+        mongoTemplate.setWriteConcern(writeConcern);
+        mongoTemplate.setReadPreference(readPreference);
+
+        log.info("Created dedicated lock store client(database={}, writeConcern={}, readPreference={}, pool={}..{})",
+                database, writeConcern, readPreference, client.getMinPoolSize(), client.getMaxPoolSize());
+        return new DistributedLockMongoClient(mongoClient, mongoTemplate);
+    }
+
+    @Override
+    public void close() {
+        log.info("Closing dedicated lock store client");
+        mongoClient.close();
+    }
+}
@@ -1,9 +1,15 @@
 package io.github.daggerok.distributed.lock.mongodb.autoconfigure;
 
+import io.github.daggerok.distributed.lock.mongodb.IndexStrategy;
+import io.github.daggerok.distributed.lock.mongodb.LockEvent;
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import lombok.Value;
+import lombok.With;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
 
 @Value
 @ConfigurationProperties("io.github.daggerok.distributed.lock.mongodb")
@@ -12,12 +18,366 @@ public class DistributedLockProperties {
     Boolean enabled;
     Duration lockPeriod;
     String lockCollectionName;
+    Client client;
+    Events events;
+    Scheduling scheduling;
+    Batching batching;
+    NegativeCache negativeCache;
+    DeadlockDetection deadlockDetection;
+    Integration integration;
+    HotLocks hotLocks;
+    PartitionAssignment partitionAssignment;
+    AdaptiveLease adaptiveLease;
+    Quorum quorum;
+    Audit audit;
+    CircuitBreaker circuitBreaker;
+    Map<String, Group> groups;
 
     public DistributedLockProperties(@DefaultValue("true") Boolean enabled,
                                      @DefaultValue("15000ms") Duration lockPeriod,
-                                     @DefaultValue("distributedLock") String lockCollectionName) {
+                                     @DefaultValue("distributedLock") String lockCollectionName,
+                                     @DefaultValue Client client,
+                                     @DefaultValue Events events,
+                                     @DefaultValue Scheduling scheduling,
+                                     @DefaultValue Batching batching,
+                                     @DefaultValue NegativeCache negativeCache,
+                                     @DefaultValue DeadlockDetection deadlockDetection,
+                                     @DefaultValue Integration integration,
+                                     @DefaultValue HotLocks hotLocks,
+                                     @DefaultValue PartitionAssignment partitionAssignment,
+                                     @DefaultValue AdaptiveLease adaptiveLease,
+                                     @DefaultValue Quorum quorum,
+                                     @DefaultValue Audit audit,
+                                     @DefaultValue CircuitBreaker circuitBreaker,
+                                     @DefaultValue Map<String, Group> groups) {
         this.enabled = enabled;
         this.lockPeriod = lockPeriod;
         this.lockCollectionName = lockCollectionName;
+        this.client = client;
+        this.events = events;
+        this.scheduling = scheduling;
+        this.batching = batching;
+        this.negativeCache = negativeCache;
+        this.deadlockDetection = deadlockDetection;
+        this.integration = integration;
+        this.hotLocks = hotLocks;
+        this.partitionAssignment = partitionAssignment;
+        this.adaptiveLease = adaptiveLease;
+        this.quorum = quorum;
+        this.audit = audit;
+        this.circuitBreaker = circuitBreaker;
+        this.groups = groups;
+    }
+
+    /**
+     * Dedicated lock store client configuration.
+     * <p>
+     * When enabled, locks are going to be stored using their own {@code MongoClient} with separate connection pool,
+     * timeouts, write concern and read preference instead of application {@code MongoTemplate}, so lock operations
+     * are not competing for pooled connections with application queries.
+     */
+    @With
+    @Value
+    public static class Client {
+
+        Boolean enabled;
+        String uri;
+        Integer minPoolSize;
+        Integer maxPoolSize;
+        Duration maxWaitTime;
+        Duration connectTimeout;
+        Duration readTimeout;
+        Duration serverSelectionTimeout;
+        String writeConcern;
+        String readPreference;
+
+        public Client(@DefaultValue("false") Boolean enabled,
+                      String uri,
+                      @DefaultValue("1") Integer minPoolSize,
+                      @DefaultValue("10") Integer maxPoolSize,
+                      @DefaultValue("2s") Duration maxWaitTime,
+                      @DefaultValue("2s") Duration connectTimeout,
+                      @DefaultValue("5s") Duration readTimeout,
+                      @DefaultValue("5s") Duration serverSelectionTimeout,
+                      @DefaultValue("majority") String writeConcern,
+                      @DefaultValue("primary") String readPreference) {
+            this.enabled = enabled;
+            this.uri = uri;
+            this.minPoolSize = minPoolSize;
+            this.maxPoolSize = maxPoolSize;
+            this.maxWaitTime = maxWaitTime;
+            this.connectTimeout = connectTimeout;
+            this.readTimeout = readTimeout;
+            this.serverSelectionTimeout = serverSelectionTimeout;
+            this.writeConcern = writeConcern;
+            this.readPreference = readPreference;
+        }
+    }
+
+    /**
+     * Lock lifecycle events configuration.
+     */
+    @Value
+    public static class Events {
+
+        Integer bufferSize;
+        Boolean applicationEvents;
+
+        public Events(@DefaultValue("1024") Integer bufferSize,
+                      @DefaultValue("false") Boolean applicationEvents) {
+            this.bufferSize = bufferSize;
+            this.applicationEvents = applicationEvents;
+        }
+    }
+
+    /**
+     * Cluster scheduling configuration of {@code @ClusterScheduled} methods, requires {@code @EnableScheduling}.
+     */
+    @Value
+    public static class Scheduling {
+
+        Boolean enabled;
+
+        public Scheduling(@DefaultValue("true") Boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    /**
+     * Opt-in group-commit batching of concurrent acquire and release requests into single bulk write.
+     */
+    @Value
+    public static class Batching {
+
+        Boolean enabled;
+        Duration window;
+        Integer maxBatchSize;
+
+        public Batching(@DefaultValue("false") Boolean enabled,
+                        @DefaultValue("200us") Duration window,
+                        @DefaultValue("64") Integer maxBatchSize) {
+            this.enabled = enabled;
+            this.window = window;
+            this.maxBatchSize = maxBatchSize;
+        }
+    }
+
+    /**
+     * Opt-in local negative cache of locks known to be held by someone else, so contended acquisitions fail fast
+     * without network I/O.
+     */
+    @Value
+    public static class NegativeCache {
+
+        Boolean enabled;
+        Integer maxSize;
+        Duration maxTtl;
+        Boolean watchReleases;
+
+        public NegativeCache(@DefaultValue("false") Boolean enabled,
+                             @DefaultValue("10000") Integer maxSize,
+                             @DefaultValue("5s") Duration maxTtl,
+                             @DefaultValue("true") Boolean watchReleases) {
+            this.enabled = enabled;
+            this.maxSize = maxSize;
+            this.maxTtl = maxTtl;
+            this.watchReleases = watchReleases;
+        }
+    }
+
+    /**
+     * Opt-in background detection of deadlocks between owners waiting for locks held by each other.
+     */
+    @Value
+    public static class DeadlockDetection {
+
+        Boolean enabled;
+        Duration interval;
+
+        public DeadlockDetection(@DefaultValue("false") Boolean enabled,
+                                 @DefaultValue("50ms") Duration interval) {
+            this.enabled = enabled;
+            this.interval = interval;
+        }
+    }
+
+    /**
+     * Spring Integration {@code LockRegistry} adapter configuration, requires {@code spring-integration-core}.
+     */
+    @Value
+    public static class Integration {
+
+        Boolean enabled;
+        String region;
+
+        public Integration(@DefaultValue("true") Boolean enabled,
+                           @DefaultValue("lockRegistry") String region) {
+            this.enabled = enabled;
+            this.region = region;
+        }
+    }
+
+    /**
+     * Opt-in bounded memory analytics of most contended locks, exposed by {@code hotlocks} actuator endpoint.
+     */
+    @Value
+    public static class HotLocks {
+
+        Boolean enabled;
+        Integer capacity;
+
+        public HotLocks(@DefaultValue("false") Boolean enabled,
+                        @DefaultValue("100") Integer capacity) {
+            this.enabled = enabled;
+            this.capacity = capacity;
+        }
+    }
+
+    /**
+     * Opt-in lease based assignment of partitions between live application instances.
+     */
+    @Value
+    public static class PartitionAssignment {
+
+        Boolean enabled;
+        String group;
+        Integer partitions;
+        Duration heartbeat;
+
+        public PartitionAssignment(@DefaultValue("false") Boolean enabled,
+                                   @DefaultValue("partitions") String group,
+                                   @DefaultValue("256") Integer partitions,
+                                   @DefaultValue("5s") Duration heartbeat) {
+            this.enabled = enabled;
+            this.group = group;
+            this.partitions = partitions;
+            this.heartbeat = heartbeat;
+        }
+    }
+
+    /**
+     * Opt-in lock period of locks without explicit period, adapted to their observed execution durations.
+     */
+    @Value
+    public static class AdaptiveLease {
+
+        Boolean enabled;
+        Integer capacity;
+        Double safetyFactor;
+        Duration minPeriod;
+        Duration maxPeriod;
+
+        public AdaptiveLease(@DefaultValue("false") Boolean enabled,
+                             @DefaultValue("1000") Integer capacity,
+                             @DefaultValue("3") Double safetyFactor,
+                             @DefaultValue("1s") Duration minPeriod,
+                             @DefaultValue("5m") Duration maxPeriod) {
+            this.enabled = enabled;
+            this.capacity = capacity;
+            this.safetyFactor = safetyFactor;
+            this.minPeriod = minPeriod;
+            this.maxPeriod = maxPeriod;
+        }
+    }
+
+    /**
+     * Opt-in quorum lock over several independent Mongo deployments, each of them is connected by its own client
+     * configured as dedicated lock store {@link Client}, but with its own connection string.
+     */
+    @Value
+    public static class Quorum {
+
+        Boolean enabled;
+        List<String> uris;
+        Duration nodeTimeout;
+        Double clockDriftFactor;
+
+        public Quorum(@DefaultValue("false") Boolean enabled,
+                      @DefaultValue List<String> uris,
+                      @DefaultValue("500ms") Duration nodeTimeout,
+                      @DefaultValue("0.01") Double clockDriftFactor) {
+            this.enabled = enabled;
+            this.uris = uris;
+            this.nodeTimeout = nodeTimeout;
+            this.clockDriftFactor = clockDriftFactor;
+        }
+    }
+
+    /**
+     * Opt-in asynchronous audit log of lock events, stored in capped collection of lock store.
+     */
+    @Value
+    public static class Audit {
+
+        Boolean enabled;
+        String collectionName;
+        DataSize maxSize;
+        Integer bufferSize;
+        Integer maxBatchSize;
+        Duration flushInterval;
+        List<LockEvent.Type> types;
+
+        public Audit(@DefaultValue("false") Boolean enabled,
+                     @DefaultValue("distributedLockAudit") String collectionName,
+                     @DefaultValue("64MB") DataSize maxSize,
+                     @DefaultValue("8192") Integer bufferSize,
+                     @DefaultValue("500") Integer maxBatchSize,
+                     @DefaultValue("1s") Duration flushInterval,
+                     @DefaultValue({"ACQUIRED", "RELEASED", "RENEWED", "EXPIRED_TAKEOVER", "ERROR"}) List<LockEvent.Type> types) {
+            this.enabled = enabled;
+            this.collectionName = collectionName;
+            this.maxSize = maxSize;
+            this.bufferSize = bufferSize;
+            this.maxBatchSize = maxBatchSize;
+            this.flushInterval = flushInterval;
+            this.types = types;
+        }
+    }
+
+    /**
+     * Opt-in circuit breaker around lock store calls, so degraded lock store fails fast. Use dedicated lock store
+     * {@link Client} with short timeouts to bound how long a single call may block.
+     */
+    @Value
+    public static class CircuitBreaker {
+
+        Boolean enabled;
+        Integer failureThreshold;
+        Duration openDuration;
+        Duration slowCallDuration;
+
+        public CircuitBreaker(@DefaultValue("false") Boolean enabled,
+                              @DefaultValue("5") Integer failureThreshold,
+                              @DefaultValue("5s") Duration openDuration,
+                              @DefaultValue("2s") Duration slowCallDuration) {
+            this.enabled = enabled;
+            this.failureThreshold = failureThreshold;
+            this.openDuration = openDuration;
+            this.slowCallDuration = slowCallDuration;
+        }
+    }
+
+    /**
+     * Named lock group with its own {@code DistributedLock} bean, lock collection, default lock period, index strategy
+     * and observations tag, and optionally its own dedicated lock store {@link Client}, so for example slow batch
+     * locks don't compete with high volume locks.
+     */
+    @Value
+    public static class Group {
+
+        Duration lockPeriod;
+        String lockCollectionName;
+        IndexStrategy indexStrategy;
+        Client client;
+
+        public Group(Duration lockPeriod,
+                     String lockCollectionName,
+                     @DefaultValue("ALWAYS") IndexStrategy indexStrategy,
+                     @DefaultValue Client client) {
+            this.lockPeriod = lockPeriod;
+            this.lockCollectionName = lockCollectionName;
+            this.indexStrategy = indexStrategy;
+            this.client = client;
+        }
     }
 }
@@ -0,0 +1,46 @@
+package io.github.daggerok.distributed.lock.mongodb.autoconfigure;
+
+import com.mongodb.ConnectionString;
+import java.io.Closeable;
+import java.util.List;
+import java.util.Optional;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Dedicated lock store clients of independent Mongo deployments of
+ * {@link io.github.daggerok.distributed.lock.mongodb.QuorumDistributedLock}.
+ */
+@Log4j2
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public class DistributedLockQuorumClients implements Closeable {
+
+    private final List<DistributedLockMongoClient> clients;
+
+    /**
+     * Creates dedicated lock store client of every given connection string.
+     *
+     * @param client - {@link DistributedLockProperties.Client} configuration of pool, timeouts and concerns
+     * @param uris   - connection strings of independent Mongo deployments, including database
+     * @return {@link DistributedLockQuorumClients} instance
+     */
+    public static DistributedLockQuorumClients of(DistributedLockProperties.Client client, List<String> uris) {
+        List<String> anUris = Optional.ofNullable(uris).filter(list -> !list.isEmpty())
+                .orElseThrow(() -> new IllegalArgumentException("Quorum uris are required"));
+        return new DistributedLockQuorumClients(anUris.stream()
+                .map(uri -> DistributedLockMongoClient.of(client.withUri(uri), new ConnectionString(uri)))
+                .toList());
+    }
+
+    public List<MongoTemplate> getMongoTemplates() {
+        return clients.stream().map(DistributedLockMongoClient::getMongoTemplate).toList();
+    }
+
+    @Override
+    public void close() {
+        log.info("Closing quorum lock store clients");
+        clients.forEach(DistributedLockMongoClient::close);
+    }
+}
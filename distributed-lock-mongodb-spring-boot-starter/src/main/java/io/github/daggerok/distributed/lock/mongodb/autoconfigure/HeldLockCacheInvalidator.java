@@ -0,0 +1,82 @@
+package io.github.daggerok.distributed.lock.mongodb.autoconfigure;
+
+import io.github.daggerok.distributed.lock.mongodb.HeldLockCache;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import lombok.extern.log4j.Log4j2;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+
+/**
+ * Invalidates {@link HeldLockCache} entries on remote lock release, takeover or removal using lock collection change
+ * stream, so locally cached held locks are forgotten as soon as they become available. Requires replica set.
+ * <p>
+ * Only state changes and deletions are watched, so lease renewals are not invalidating cached locks. Change stream is
+ * watched from dedicated daemon thread, so neither application context start nor shutdown waits for it.
+ */
+@Log4j2
+public class HeldLockCacheInvalidator implements SmartLifecycle {
+
+    private final HeldLockCache heldLockCache;
+    private final MessageListenerContainer container;
+
+    public HeldLockCacheInvalidator(HeldLockCache heldLockCache, MongoTemplate mongoTemplate, String lockCollectionName) {
+        this.heldLockCache = heldLockCache;
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("distributed-lock-invalidator-");
+        executor.setDaemon(true);
+        this.container = new DefaultMessageListenerContainer(mongoTemplate, executor, this::onError);
+        Document stateChangedOrDeleted = new Document("$match", new Document("$or", List.of(
+                new Document("operationType", new Document("$in", List.of("delete", "replace"))),
+                new Document("updateDescription.updatedFields.state", new Document("$exists", true))
+        )));
+        ChangeStreamRequest<Document> request = ChangeStreamRequest.<Document>builder()
+                .collection(lockCollectionName)
+                .filter(stateChangedOrDeleted)
+                .publishTo(this::onChange)
+                .build();
+        this.container.register(request, Document.class);
+    }
+
+    @Override
+    public void start() {
+        container.start();
+        log.info("Watching lock releases to invalidate held lock cache");
+    }
+
+    @Override
+    public void stop() {
+        container.stop();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return container.isRunning();
+    }
+
+    private void onChange(Message<ChangeStreamDocument<Document>, Document> message) {
+        Optional.ofNullable(message.getRaw())
+                .map(ChangeStreamDocument::getDocumentKey)
+                .map(documentKey -> documentKey.get("_id"))
+                .map(HeldLockCacheInvalidator::toId)
+                .ifPresent(heldLockCache::invalidateId);
+    }
+
+    private void onError(Throwable throwable) {
+        log.warn("Lock releases change stream error, clearing held lock cache: {}", throwable.getMessage());
+        heldLockCache.clear();
+    }
+
+    private static String toId(BsonValue id) {
+        if (Objects.isNull(id)) return null;
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.isString() ? id.asString().getValue() : id.toString();
+    }
+}
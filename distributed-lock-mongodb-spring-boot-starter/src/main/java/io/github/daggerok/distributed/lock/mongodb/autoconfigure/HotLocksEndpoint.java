@@ -0,0 +1,46 @@
+package io.github.daggerok.distributed.lock.mongodb.autoconfigure;
+
+import io.github.daggerok.distributed.lock.mongodb.HotLocks;
+import java.util.List;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+/**
+ * Actuator endpoint to find most contended locks, so hot locks could be split.
+ * <p>
+ * Usage:
+ * <pre>
+ *     http get :8080/actuator/hotlocks limit==10
+ *     http delete :8080/actuator/hotlocks
+ * </pre>
+ */
+@RequiredArgsConstructor
+@Endpoint(id = "hotlocks")
+public class HotLocksEndpoint {
+
+    static final int DEFAULT_LIMIT = 10;
+
+    private final HotLocks hotLocks;
+
+    @ReadOperation
+    public Report hotLocks(@Nullable Integer limit) {
+        int aLimit = Optional.ofNullable(limit).filter(it -> it > 0).orElse(DEFAULT_LIMIT);
+        return new Report(hotLocks.total(), hotLocks.top(aLimit));
+    }
+
+    @DeleteOperation
+    public void clear() {
+        hotLocks.clear();
+    }
+
+    @Value
+    public static class Report {
+        long total;
+        List<HotLocks.HotLock> locks;
+    }
+}
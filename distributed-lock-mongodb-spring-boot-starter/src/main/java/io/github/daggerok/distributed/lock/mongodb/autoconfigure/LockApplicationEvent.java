@@ -0,0 +1,26 @@
+package io.github.daggerok.distributed.lock.mongodb.autoconfigure;
+
+import io.github.daggerok.distributed.lock.mongodb.LockEvent;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Spring {@link ApplicationEvent} of lock lifecycle {@link LockEvent}.
+ * <p>
+ * Usage:
+ * <pre>
+ *     &#64;EventListener
+ *     public void on(LockApplicationEvent event) {
+ *         log.info("Lock event: {}", event.getLockEvent());
+ *     }
+ * </pre>
+ */
+public class LockApplicationEvent extends ApplicationEvent {
+
+    public LockApplicationEvent(LockEvent lockEvent) {
+        super(lockEvent);
+    }
+
+    public LockEvent getLockEvent() {
+        return (LockEvent) getSource();
+    }
+}
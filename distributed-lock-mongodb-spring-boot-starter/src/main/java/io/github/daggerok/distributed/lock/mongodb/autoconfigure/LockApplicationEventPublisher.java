@@ -0,0 +1,20 @@
+package io.github.daggerok.distributed.lock.mongodb.autoconfigure;
+
+import io.github.daggerok.distributed.lock.mongodb.LockEvent;
+import io.github.daggerok.distributed.lock.mongodb.LockEventListener;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * {@link LockEventListener} bridging lock lifecycle events into Spring {@link LockApplicationEvent}s.
+ */
+@RequiredArgsConstructor
+public class LockApplicationEventPublisher implements LockEventListener {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Override
+    public void onLockEvent(LockEvent event) {
+        applicationEventPublisher.publishEvent(new LockApplicationEvent(event));
+    }
+}
@@ -0,0 +1,202 @@
+package io.github.daggerok.distributed.lock.mongodb.integration;
+
+import io.github.daggerok.distributed.lock.mongodb.DistributedLock;
+import io.github.daggerok.distributed.lock.mongodb.Lock;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ConcurrentModificationException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.integration.support.locks.RenewableLockRegistry;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Spring Integration {@link RenewableLockRegistry} on top of {@link DistributedLock}, so components written against
+ * {@link org.springframework.integration.support.locks.LockRegistry} and {@link java.util.concurrent.locks.Lock} can
+ * use distributed locks.
+ * <p>
+ * Obtained lock objects are cached per key using weak references, so repeated {@link #obtain(Object)} calls of the
+ * same key return the same object without any allocation while it's in use. Locked objects are also referenced
+ * strongly until their outermost unlock, so they are never collected while held, even if caller obtains them again
+ * instead of keeping a reference. Every lock object gates local threads
+ * with its own {@link ReentrantLock} at first, so only one thread per JVM and key ever reaches Mongo, and reentrant
+ * holds are counted locally. Every lock object has its own unique owner, so mutual exclusion never depends on cache.
+ * <p>
+ * Usage:
+ * <pre>
+ *     var lockRegistry = new DistributedLockRegistry(distributedLock, "orders", Duration.ofSeconds(30));
+ *
+ *     java.util.concurrent.locks.Lock lock = lockRegistry.obtain(orderId);
+ *     if (lock.tryLock(1, TimeUnit.SECONDS)) {
+ *         try {
+ *             orderService.process(orderId);
+ *         } finally {
+ *             lock.unlock();
+ *         }
+ *     }
+ * </pre>
+ */
+public class DistributedLockRegistry implements RenewableLockRegistry {
+
+    private static final Duration LOCK_WAIT = Duration.ofSeconds(1);
+
+    private final DistributedLock distributedLock;
+    private final String region;
+    private final Duration lockPeriod;
+    private final ConcurrentReferenceHashMap<String, MongoLock> locks =
+            new ConcurrentReferenceHashMap<>(16, ConcurrentReferenceHashMap.ReferenceType.WEAK);
+    private final Map<String, MongoLock> heldLocks = new ConcurrentHashMap<>();
+
+    /**
+     * @param distributedLock - {@link DistributedLock}
+     * @param region          - prefix of all lock identifiers of this registry
+     * @param lockPeriod      - optional lock period, if null default lock period is going to be used instead
+     */
+    public DistributedLockRegistry(DistributedLock distributedLock, String region, Duration lockPeriod) {
+        this.distributedLock = Objects.requireNonNull(distributedLock, "distributedLock may not be null");
+        this.region = Objects.requireNonNull(region, "region may not be null");
+        this.lockPeriod = lockPeriod;
+    }
+
+    @Override
+    public java.util.concurrent.locks.Lock obtain(Object lockKey) {
+        String key = Objects.requireNonNull(lockKey, "lockKey may not be null").toString();
+        MongoLock held = heldLocks.get(key);
+        return Objects.nonNull(held) ? held : locks.computeIfAbsent(key, MongoLock::new);
+    }
+
+    @Override
+    public void renewLock(Object lockKey) {
+        String key = Objects.requireNonNull(lockKey, "lockKey may not be null").toString();
+        MongoLock lock = heldLocks.get(key);
+        if (Objects.isNull(lock) || !lock.localLock.isHeldByCurrentThread())
+            throw new IllegalMonitorStateException("The current thread doesn't own lock at '" + key + "'");
+
+        Optional<Lock> maybeRenewed = distributedLock.renew(lock.acquired);
+        if (maybeRenewed.isEmpty())
+            throw new IllegalStateException("Lock at '" + key + "' was not renewed, it's not held by its owner anymore");
+    }
+
+    /**
+     * {@link java.util.concurrent.locks.Lock} of a single key, backed by local {@link ReentrantLock} and remote
+     * {@link DistributedLock} lock, which is only acquired by outermost local hold.
+     */
+    class MongoLock implements java.util.concurrent.locks.Lock {
+
+        private final ReentrantLock localLock = new ReentrantLock();
+        private final String key;
+        private final Lock config;
+        private volatile Lock acquired;
+
+        MongoLock(String key) {
+            this.key = key;
+            String owner = String.format("%s#%s", ManagementFactory.getRuntimeMXBean().getName(), UUID.randomUUID());
+            this.config = Lock.of(lockPeriod, region, key).withOwner(owner);
+        }
+
+        @Override
+        public void lock() {
+            localLock.lock();
+            boolean isInterrupted = false;
+            try {
+                while (!acquireRemotely(LOCK_WAIT)) {
+                    if (Thread.interrupted()) isInterrupted = true;
+                }
+            } catch (RuntimeException e) {
+                localLock.unlock();
+                throw e;
+            } finally {
+                if (isInterrupted) Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            localLock.lockInterruptibly();
+            try {
+                while (!acquireRemotely(LOCK_WAIT)) {
+                    if (Thread.interrupted()) throw new InterruptedException();
+                }
+            } catch (RuntimeException | InterruptedException e) {
+                localLock.unlock();
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean tryLock() {
+            if (!localLock.tryLock()) return false;
+            return acquireOrUnlock(Duration.ZERO);
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            Instant deadline = Instant.now().plusNanos(unit.toNanos(time));
+            if (!localLock.tryLock(time, unit)) return false;
+
+            Duration remaining = Duration.between(Instant.now(), deadline);
+            boolean isLocked = acquireOrUnlock(remaining.isNegative() ? Duration.ZERO : remaining);
+            if (!isLocked && Thread.interrupted()) throw new InterruptedException();
+            return isLocked;
+        }
+
+        @Override
+        public void unlock() {
+            if (!localLock.isHeldByCurrentThread())
+                throw new IllegalMonitorStateException("The current thread doesn't own lock at '" + config.getLockedBy() + "'");
+
+            try {
+                if (localLock.getHoldCount() > 1) return;
+
+                Lock held = acquired;
+                acquired = null;
+                heldLocks.remove(key, this);
+                Optional<Lock> maybeReleased = distributedLock.release(held.getId(), held.getOwner());
+                if (maybeReleased.isEmpty())
+                    throw new ConcurrentModificationException("Lock at '" + config.getLockedBy() + "' was expired and taken over before release");
+            } finally {
+                localLock.unlock();
+            }
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException("Conditions are not supported by distributed lock");
+        }
+
+        /**
+         * @param waitTimeout - how long to wait for remote lock
+         * @return true if outermost local hold has acquired remote lock or if it's re-entered locally
+         */
+        private boolean acquireRemotely(Duration waitTimeout) {
+            if (localLock.getHoldCount() > 1) return true;
+
+            Optional<Lock> maybeAcquired = distributedLock.tryAcquire(config, waitTimeout);
+            maybeAcquired.ifPresent(lock -> acquired = lock);
+            maybeAcquired.ifPresent(lock -> heldLocks.put(key, this));
+            return maybeAcquired.isPresent();
+        }
+
+        private boolean acquireOrUnlock(Duration waitTimeout) {
+            boolean isAcquired = false;
+            try {
+                isAcquired = acquireRemotely(waitTimeout);
+                return isAcquired;
+            } finally {
+                if (!isAcquired) localLock.unlock();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("MongoLock[%s, %s]", config.getLockedBy(), Objects.isNull(acquired) ? "unlocked" : "locked");
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.daggerok.distributed.lock.mongodb.scheduling;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks no-arguments method to be run on schedule by exactly one node of the cluster at a time.
+ * <p>
+ * All jobs sharing the same schedule are triggered together: on each tick every node tries to acquire all due jobs
+ * with a single batched update, runs only jobs it won and then releases them with a single update, so cluster
+ * scheduling costs two round trips per schedule tick instead of a lock round trip pair per job.
+ * <p>
+ * Requires {@code @EnableScheduling}.
+ * <p>
+ * Usage:
+ * <pre>
+ *     &#64;ClusterScheduled(cron = "0 0 * * * *", lockPeriod = "PT10M")
+ *     public void hourlyReport() {
+ *         // executed by only one node every hour
+ *     }
+ *
+ *     &#64;ClusterScheduled(fixedRate = "30s", name = "cleanup")
+ *     public void cleanup() {
+ *         // executed by only one node every 30 seconds
+ *     }
+ * </pre>
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ClusterScheduled {
+
+    /**
+     * @return cron expression, see {@link org.springframework.scheduling.support.CronExpression}
+     */
+    String cron() default "";
+
+    /**
+     * @return cron expression time zone, server time zone by default
+     */
+    String zone() default "";
+
+    /**
+     * @return fixed rate duration, for example {@code 30s} or {@code PT30S}
+     */
+    String fixedRate() default "";
+
+    /**
+     * @return lock name, {@code ClassName.methodName} by default
+     */
+    String name() default "";
+
+    /**
+     * @return lock period duration, default lock period is used if empty
+     */
+    String lockPeriod() default "";
+}
@@ -0,0 +1,183 @@
+package io.github.daggerok.distributed.lock.mongodb.scheduling;
+
+import io.github.daggerok.distributed.lock.mongodb.DistributedLock;
+import io.github.daggerok.distributed.lock.mongodb.Lock;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TimeZone;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.EmbeddedValueResolverAware;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.scheduling.config.TriggerTask;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.scheduling.support.PeriodicTrigger;
+import org.springframework.scheduling.support.ScheduledMethodRunnable;
+import org.springframework.util.StringUtils;
+import org.springframework.util.StringValueResolver;
+
+/**
+ * Collects {@link ClusterScheduled} methods and registers single trigger per distinct schedule.
+ * <p>
+ * On each tick all jobs of schedule are acquired using {@link DistributedLock#acquireDue}: jobs which were already run
+ * by any node during last half of schedule interval are skipped, so the same tick is never run twice even if nodes
+ * clocks or triggers are slightly shifted.
+ */
+@Log4j2
+@RequiredArgsConstructor
+public class ClusterScheduledTasks implements BeanPostProcessor, SchedulingConfigurer, EmbeddedValueResolverAware {
+
+    private final ObjectProvider<DistributedLock> distributedLock;
+    private final Map<Schedule, List<Job>> jobs = new LinkedHashMap<>();
+    private final Map<String, Method> methodsByName = new HashMap<>();
+    private StringValueResolver resolver = value -> value;
+
+    @Override
+    public void setEmbeddedValueResolver(StringValueResolver resolver) {
+        this.resolver = resolver;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> targetClass = AopUtils.getTargetClass(bean);
+        Map<Method, ClusterScheduled> annotatedMethods = MethodIntrospector.selectMethods(targetClass,
+                (MethodIntrospector.MetadataLookup<ClusterScheduled>) method ->
+                        AnnotatedElementUtils.findMergedAnnotation(method, ClusterScheduled.class));
+        annotatedMethods.forEach((method, annotation) -> register(bean, targetClass, method, annotation));
+        return bean;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        jobs.forEach((schedule, scheduleJobs) -> {
+            log.info("Scheduling {} cluster jobs with {}", scheduleJobs.size(), schedule);
+            registrar.addTriggerTask(new TriggerTask(() -> run(schedule, scheduleJobs), schedule.trigger()));
+        });
+    }
+
+    /**
+     * Run all won jobs of schedule tick sequentially.
+     *
+     * @param schedule     - jobs schedule
+     * @param scheduleJobs - jobs to be run
+     */
+    void run(Schedule schedule, List<Job> scheduleJobs) {
+        DistributedLock lock = distributedLock.getObject();
+        Instant ranBefore = Instant.now().minus(schedule.interval().dividedBy(2));
+        Map<String, Job> jobsByLockedBy = scheduleJobs.stream()
+                .collect(Collectors.toMap(job -> job.getLock().getLockedBy(), job -> job));
+        List<Lock> acquired = lock.acquireDue(scheduleJobs.stream().map(Job::getLock).toList(), ranBefore);
+        if (acquired.isEmpty()) return;
+
+        try {
+            acquired.stream()
+                    .map(Lock::getLockedBy)
+                    .map(jobsByLockedBy::get)
+                    .filter(Objects::nonNull)
+                    .forEach(Job::run);
+        } finally {
+            lock.releaseAll(acquired);
+        }
+    }
+
+    private void register(Object bean, Class<?> targetClass, Method method, ClusterScheduled annotation) {
+        if (method.getParameterCount() > 0)
+            throw new IllegalStateException("@ClusterScheduled method must not have arguments: " + method);
+
+        String name = Optional.of(resolver.resolveStringValue(annotation.name()))
+                .filter(StringUtils::hasText)
+                .orElseGet(() -> targetClass.getName() + "." + method.getName());
+        Method registered = methodsByName.putIfAbsent(name, method);
+        if (Objects.nonNull(registered))
+            throw new IllegalStateException("@ClusterScheduled name '" + name + "' is already used by " + registered + ": " + method);
+
+        Duration lockPeriod = Optional.of(resolver.resolveStringValue(annotation.lockPeriod()))
+                .filter(StringUtils::hasText)
+                .map(DurationStyle::detectAndParse)
+                .orElse(null);
+        Method invocableMethod = AopUtils.selectInvocableMethod(method, bean.getClass());
+        Job job = new Job(Lock.of(lockPeriod, name), new ScheduledMethodRunnable(bean, invocableMethod));
+        jobs.computeIfAbsent(Schedule.of(annotation, resolver), schedule -> new ArrayList<>()).add(job);
+    }
+
+    @Value
+    static class Job {
+
+        Lock lock;
+        Runnable task;
+
+        void run() {
+            try {
+                task.run();
+            } catch (Throwable throwable) {
+                log.error("Cluster scheduled job {} failed: {}", lock.getLockedBy(), throwable.getMessage(), throwable);
+            }
+        }
+    }
+
+    @Value
+    static class Schedule {
+
+        String cron;
+        String zone;
+        Duration fixedRate;
+
+        static Schedule of(ClusterScheduled annotation, StringValueResolver resolver) {
+            String cron = resolver.resolveStringValue(annotation.cron());
+            String zone = resolver.resolveStringValue(annotation.zone());
+            String fixedRate = resolver.resolveStringValue(annotation.fixedRate());
+            if (StringUtils.hasText(cron) == StringUtils.hasText(fixedRate))
+                throw new IllegalStateException("Exactly one of @ClusterScheduled cron or fixedRate is required");
+
+            return StringUtils.hasText(cron)
+                    ? new Schedule(cron, Optional.ofNullable(zone).filter(StringUtils::hasText).orElse(null), null)
+                    : new Schedule(null, null, DurationStyle.detectAndParse(fixedRate));
+        }
+
+        Trigger trigger() {
+            if (Objects.nonNull(fixedRate)) {
+                PeriodicTrigger trigger = new PeriodicTrigger(fixedRate);
+                trigger.setFixedRate(true);
+                return trigger;
+            }
+            return new CronTrigger(cron, zoneId());
+        }
+
+        /**
+         * @return interval between two next executions
+         */
+        Duration interval() {
+            if (Objects.nonNull(fixedRate)) return fixedRate;
+
+            CronExpression expression = CronExpression.parse(cron);
+            ZonedDateTime next = expression.next(ZonedDateTime.now(zoneId()));
+            ZonedDateTime nextAfter = Objects.isNull(next) ? null : expression.next(next);
+            return Objects.isNull(nextAfter) ? Duration.ZERO : Duration.between(next, nextAfter);
+        }
+
+        private ZoneId zoneId() {
+            return Optional.ofNullable(zone).map(ZoneId::of).orElseGet(() -> TimeZone.getDefault().toZoneId());
+        }
+    }
+}
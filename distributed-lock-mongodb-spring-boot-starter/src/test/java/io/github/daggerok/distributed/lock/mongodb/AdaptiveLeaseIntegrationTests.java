@@ -0,0 +1,64 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import io.github.daggerok.distributed.lock.mongodb.autoconfigure.DistributedLockProperties;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import lombok.AllArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@AllArgsConstructor(onConstructor_ = @Autowired)
+@DisplayName("AdaptiveLease integration tests")
+@SpringBootTest(properties = {
+        "io.github.daggerok.distributed.lock.mongodb.lock-period=5m",
+        "io.github.daggerok.distributed.lock.mongodb.adaptive-lease.enabled=true",
+        "io.github.daggerok.distributed.lock.mongodb.adaptive-lease.min-period=2s",
+})
+class AdaptiveLeaseIntegrationTests extends AbstractTestcontainersTests {
+
+    MongoTemplate mongoTemplate;
+    AdaptiveLease adaptiveLease;
+    DistributedLock distributedLock;
+    DistributedLockProperties props;
+
+    @BeforeEach
+    void before_each() {
+        if (mongoTemplate.collectionExists(props.getLockCollectionName())) {
+            mongoTemplate.remove(new Query(), props.getLockCollectionName());
+        }
+        adaptiveLease.clear();
+    }
+
+    @Test
+    void should_persist_adaptive_lock_period_of_existing_lock() {
+        // given
+        IntStream.range(0, AdaptiveLease.MIN_SAMPLES)
+                .forEach(i -> assertThat(distributedLock.acquireAndRun(Lock.of("adaptive"), () -> { })).hasValue(true));
+        assertThat(adaptiveLease.period("adaptive")).isEqualTo(Duration.ofSeconds(2));
+
+        // when
+        AtomicReference<Lock> persisted = new AtomicReference<>();
+        distributedLock.acquireAndRun(Lock.of("adaptive"), () -> persisted.set(
+                mongoTemplate.findOne(Query.query(Criteria.where("lockedBy").is("adaptive")), Lock.class, props.getLockCollectionName())
+        ));
+
+        // then
+        assertThat(persisted.get()).isNotNull();
+        assertThat(persisted.get().getState()).isEqualTo(Lock.State.LOCKED);
+        assertThat(persisted.get().getLockPeriod()).isEqualTo(Duration.ofSeconds(2));
+    }
+
+    @SpringBootApplication
+    static class SpringBootTestApplication {
+    }
+}
@@ -0,0 +1,129 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import io.github.daggerok.distributed.lock.mongodb.autoconfigure.DistributedLockProperties;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import lombok.AllArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@AllArgsConstructor(onConstructor_ = @Autowired)
+@DisplayName("DeadlockDetector integration tests")
+@SpringBootTest(properties = "io.github.daggerok.distributed.lock.mongodb.deadlock-detection.enabled=true")
+class DeadlockDetectorIntegrationTests extends AbstractTestcontainersTests {
+
+    MongoTemplate mongoTemplate;
+    DistributedLock distributedLock;
+    DistributedLockProperties props;
+
+    @BeforeEach
+    void before_each() {
+        if (mongoTemplate.collectionExists(props.getLockCollectionName())) {
+            mongoTemplate.remove(new Query(), props.getLockCollectionName());
+        }
+        if (mongoTemplate.collectionExists(props.getLockCollectionName() + "Waits")) {
+            mongoTemplate.remove(new Query(), props.getLockCollectionName() + "Waits");
+        }
+    }
+
+    @Test
+    void should_abort_youngest_waiter_of_deadlock() {
+        // given
+        Lock first = distributedLock.acquire(Lock.of("deadlock-1").withOwner("owner-1")).orElseThrow();
+        Lock second = distributedLock.acquire(Lock.of("deadlock-2").withOwner("owner-2")).orElseThrow();
+        Instant started = Instant.now();
+
+        // when
+        CompletableFuture<Boolean> firstWaiter = CompletableFuture.supplyAsync(() -> waitFor(first, "deadlock-2"));
+        sleep(Duration.ofMillis(200));
+        CompletableFuture<Boolean> secondWaiter = CompletableFuture.supplyAsync(() -> waitFor(second, "deadlock-1"));
+
+        // then
+        assertThat(List.of(firstWaiter.join(), secondWaiter.join())).containsExactly(true, false);
+        assertThat(Duration.between(started, Instant.now())).isLessThan(props.getLockPeriod());
+    }
+
+    @Test
+    void should_abort_youngest_waiter_of_deadlock_between_hierarchical_lock_holders() {
+        // given
+        Lock first = distributedLock.acquire(Lock.path(Lock.Mode.X, "tree-1", "node-1").withOwner("owner-1")).orElseThrow();
+        Lock second = distributedLock.acquire(Lock.path(Lock.Mode.S, "tree-2").withOwner("owner-2")).orElseThrow();
+        Instant started = Instant.now();
+
+        // when first waits for descendant of shared ancestor and second waits for ancestor of exclusive descendant
+        CompletableFuture<Boolean> firstWaiter = CompletableFuture.supplyAsync(() ->
+                waitFor(first, Lock.path(Lock.Mode.X, "tree-2", "node-2")));
+        sleep(Duration.ofMillis(200));
+        CompletableFuture<Boolean> secondWaiter = CompletableFuture.supplyAsync(() ->
+                waitFor(second, Lock.path(Lock.Mode.S, "tree-1")));
+
+        // then deadlock is detected long before wait timeout
+        assertThat(List.of(firstWaiter.join(), secondWaiter.join())).containsExactly(true, false);
+        assertThat(Duration.between(started, Instant.now())).isLessThan(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void should_wait_for_released_lock_without_deadlock() {
+        // given
+        Lock held = distributedLock.acquire(Lock.of("no-deadlock").withOwner("owner-1")).orElseThrow();
+
+        // when
+        CompletableFuture<Optional<Lock>> waiter = CompletableFuture.supplyAsync(() ->
+                distributedLock.tryAcquire(Lock.of("no-deadlock").withOwner("owner-2"), Duration.ofSeconds(5))
+        );
+        sleep(Duration.ofMillis(300));
+        distributedLock.release(held.getId());
+
+        // then
+        assertThat(waiter.join()).isPresent().get().extracting(Lock::getOwner).isEqualTo("owner-2");
+    }
+
+    @Test
+    void should_not_acquire_held_lock_within_wait_timeout() {
+        // given
+        assertThat(distributedLock.acquire(Lock.of("timed-out").withOwner("owner-1"))).isPresent();
+
+        // when
+        Optional<Lock> maybeLock = distributedLock.tryAcquire(Lock.of("timed-out").withOwner("owner-2"), Duration.ofMillis(300));
+
+        // then
+        assertThat(maybeLock).isEmpty();
+    }
+
+    private boolean waitFor(Lock held, String lockedBy) {
+        return waitFor(held, Lock.of(lockedBy));
+    }
+
+    private boolean waitFor(Lock held, Lock config) {
+        try {
+            return distributedLock.tryAcquire(config.withOwner(held.getOwner()), Duration.ofSeconds(10)).isPresent();
+        } catch (LockException e) {
+            return false;
+        } finally {
+            distributedLock.release(held.getId());
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @SpringBootApplication
+    static class SpringBootTestApplication {
+    }
+}
@@ -0,0 +1,145 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import io.github.daggerok.distributed.lock.mongodb.autoconfigure.DistributedLockProperties;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import lombok.AllArgsConstructor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@AllArgsConstructor(onConstructor_ = @Autowired)
+@DisplayName("DistributedLock circuit breaker integration tests")
+@SpringBootTest(properties = "io.github.daggerok.distributed.lock.mongodb.circuit-breaker.enabled=true")
+class DistributedLockCircuitBreakerIntegrationTests extends AbstractTestcontainersTests {
+
+    /**
+     * Unreachable lock store, which doesn't answer until server selection timeout.
+     */
+    static final MongoClient deadMongoClient =
+            MongoClients.create("mongodb://127.0.0.1:1/?serverSelectionTimeoutMS=200&connectTimeoutMS=100");
+
+    CircuitBreaker circuitBreaker;
+    DistributedLock distributedLock;
+    DistributedLockProperties props;
+
+    @AfterAll
+    static void after_all() {
+        deadMongoClient.close();
+    }
+
+    @Test
+    void should_let_healthy_lock_store_calls_through() {
+        // given
+        assertThat(circuitBreaker.isEnabled()).isTrue();
+
+        // when
+        Optional<Boolean> maybeRun = distributedLock.acquireAndRun(Lock.of("healthy"), () -> {});
+
+        // then
+        assertThat(maybeRun).hasValue(true);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void should_fail_fast_when_lock_store_is_degraded() {
+        // given
+        DistributedLock degradedLock = degradedLock(new CircuitBreaker(2, Duration.ofMinutes(1), Duration.ofSeconds(1)));
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> degradedLock.acquire(Lock.of("degraded")))
+                    .isInstanceOf(LockStoreUnavailableException.class)
+                    .hasMessage("lock store is unavailable");
+        }
+
+        // when
+        long startedAt = System.nanoTime();
+        Throwable error = catchThrowable(() -> degradedLock.acquire(Lock.of("degraded")));
+
+        // then
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isLessThan(Duration.ofMillis(50));
+        assertThat(error).isInstanceOf(LockStoreUnavailableException.class).hasMessage("lock store circuit is open");
+    }
+
+    @Test
+    void should_fail_fast_on_every_lock_store_call_when_circuit_is_open() {
+        // given
+        CircuitBreaker openCircuitBreaker = new CircuitBreaker(1, Duration.ofMinutes(1), Duration.ofSeconds(1));
+        DistributedLock degradedLock = degradedLock(openCircuitBreaker);
+        assertThatThrownBy(() -> degradedLock.acquire(Lock.of("open"))).isInstanceOf(LockStoreUnavailableException.class);
+        Lock held = Lock.of("open").withId("open").withOwner("owner").withState(Lock.State.LOCKED);
+
+        // when
+        long startedAt = System.nanoTime();
+        List<Throwable> errors = List.of(
+                catchThrowable(() -> degradedLock.renew(held)),
+                catchThrowable(() -> degradedLock.releaseAll(List.of(held))),
+                catchThrowable(() -> degradedLock.acquireDue(List.of(Lock.of("due")), Instant.now())),
+                catchThrowable(() -> degradedLock.streamHeldLocks("open", 0, 10))
+        );
+
+        // then
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isLessThan(Duration.ofMillis(100));
+        assertThat(errors).allSatisfy(error ->
+                assertThat(error).isInstanceOf(LockStoreUnavailableException.class).hasMessage("lock store circuit is open"));
+        assertThat(openCircuitBreaker.getRejected()).isEqualTo(4);
+    }
+
+    @Test
+    void should_classify_batched_lock_store_failures_like_direct_ones() {
+        // given
+        DistributedLock degradedLock = degradedLock(new CircuitBreaker(1, Duration.ofMinutes(1), Duration.ofSeconds(1)))
+                .withIndexStrategy(IndexStrategy.NONE);
+        try (LockBatcher batcher = degradedLock.batcher(Duration.ofMillis(1), 10)) {
+
+            // when
+            Throwable error = catchThrowable(() -> batcher.acquire(Lock.of("batched")));
+            Optional<Lock> maybeFailOpen = batcher.acquire(Lock.of("batched").withFailurePolicy(Lock.FailurePolicy.FAIL_OPEN));
+
+            // then
+            assertThat(error).isInstanceOf(LockStoreUnavailableException.class).hasMessage("lock store is unavailable");
+            assertThat(maybeFailOpen).hasValueSatisfying(lock -> {
+                assertThat(lock.getId()).isNull();
+                assertThat(lock.getState()).isEqualTo(Lock.State.LOCKED);
+            });
+        }
+    }
+
+    @Test
+    void should_run_fail_open_lock_without_lock_store() {
+        // given
+        DistributedLock degradedLock = degradedLock(new CircuitBreaker(1, Duration.ofMinutes(1), Duration.ofSeconds(1)));
+        Lock failOpen = Lock.of("fail-open").withFailurePolicy(Lock.FailurePolicy.FAIL_OPEN);
+
+        // when
+        Optional<Boolean> maybeRun = degradedLock.acquireAndRun(failOpen, () -> {});
+        Optional<Lock> maybeLock = degradedLock.acquire(failOpen);
+
+        // then
+        assertThat(maybeRun).hasValue(true);
+        assertThat(maybeLock).hasValueSatisfying(lock -> {
+            assertThat(lock.getId()).isNull();
+            assertThat(lock.getState()).isEqualTo(Lock.State.LOCKED);
+        });
+    }
+
+    DistributedLock degradedLock(CircuitBreaker circuitBreaker) {
+        return new DistributedLock(props.getLockCollectionName(), props.getLockPeriod(), new MongoTemplate(deadMongoClient, "dead"))
+                .withCircuitBreaker(circuitBreaker);
+    }
+
+    @SpringBootApplication
+    static class SpringBootTestApplication {
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import io.github.daggerok.distributed.lock.mongodb.autoconfigure.DistributedLockProperties;
+import io.github.daggerok.distributed.lock.mongodb.scheduling.ClusterScheduled;
+import io.github.daggerok.distributed.lock.mongodb.scheduling.ClusterScheduledTasks;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(classes = DistributedLockClusterScheduledIntegrationTests.ClusterNode.class)
+@AllArgsConstructor(onConstructor_ = @Autowired)
+@DisplayName("DistributedLock @ClusterScheduled integration tests")
+class DistributedLockClusterScheduledIntegrationTests extends AbstractTestcontainersTests {
+
+    MongoTemplate mongoTemplate;
+    DistributedLock distributedLock;
+    DistributedLockProperties props;
+    Environment environment;
+
+    @BeforeEach
+    void before_each() {
+        mongoTemplate.remove(Query.query(Criteria.where("lockedBy").regex("^due-")),
+                props.getLockCollectionName());
+    }
+
+    @Test
+    void should_acquire_due_locks_in_batch() {
+        // given
+        List<Lock> configs = List.of(Lock.of("due-1"), Lock.of("due-2"));
+
+        // when
+        List<Lock> acquired = distributedLock.acquireDue(configs, Instant.now().minusSeconds(60));
+
+        // then
+        assertThat(acquired).extracting(Lock::getLockedBy).containsExactlyInAnyOrder("due-1", "due-2");
+        assertThat(acquired).extracting(Lock::getState).containsOnly(Lock.State.LOCKED);
+        assertThat(acquired).extracting(Lock::getOwner).hasSize(2).doesNotContainNull();
+
+        // and held locks are not acquired again
+        assertThat(distributedLock.acquireDue(configs, null)).isEmpty();
+
+        // when
+        long released = distributedLock.releaseAll(acquired);
+
+        // then
+        assertThat(released).isEqualTo(2);
+
+        // and already run locks are not acquired again
+        assertThat(distributedLock.acquireDue(configs, Instant.now().minusSeconds(60))).isEmpty();
+
+        // but are acquired when they are due again
+        assertThat(distributedLock.acquireDue(configs, Instant.now().plusSeconds(1))).hasSize(2);
+    }
+
+    @Test
+    void should_run_each_cluster_scheduled_tick_on_single_node_only() throws InterruptedException {
+        // given another cluster node
+        try (ConfigurableApplicationContext anotherNode = new SpringApplicationBuilder(ClusterNode.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.data.mongodb.uri=" + environment.getProperty("spring.data.mongodb.uri"))) {
+
+            // when
+            Thread.sleep(Duration.ofSeconds(1).toMillis());
+        }
+
+        // then job was run
+        List<Execution> executions = ScheduledJobs.executions.stream()
+                .sorted(Comparator.comparingLong(Execution::getStartedAt))
+                .toList();
+        assertThat(executions).hasSizeGreaterThan(2);
+
+        // and executions of different nodes never overlap
+        for (int i = 1; i < executions.size(); i++) {
+            assertThat(executions.get(i).getStartedAt()).isGreaterThanOrEqualTo(executions.get(i - 1).getFinishedAt());
+        }
+    }
+
+    @Test
+    void should_reject_cluster_scheduled_methods_sharing_lock_name() {
+        // given
+        ClusterScheduledTasks clusterScheduledTasks = new ClusterScheduledTasks(null);
+
+        // then
+        assertThatThrownBy(() -> clusterScheduledTasks.postProcessAfterInitialization(new DuplicateJobs(), "duplicateJobs"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("@ClusterScheduled name 'duplicate' is already used by");
+    }
+
+    static class DuplicateJobs {
+
+        @ClusterScheduled(fixedRate = "1m", name = "duplicate")
+        public void first() {
+        }
+
+        @ClusterScheduled(fixedRate = "1m", name = "duplicate")
+        public void second() {
+        }
+    }
+
+    static class ScheduledJobs {
+
+        static final List<Execution> executions = new CopyOnWriteArrayList<>();
+
+        @ClusterScheduled(fixedRate = "100ms", name = "cluster-scheduled-execution")
+        public void execute() throws InterruptedException {
+            long startedAt = System.nanoTime();
+            try {
+                Thread.sleep(30);
+            } finally {
+                executions.add(new Execution(startedAt, System.nanoTime()));
+            }
+        }
+    }
+
+    @Value
+    static class Execution {
+
+        long startedAt;
+        long finishedAt;
+    }
+
+    /**
+     * Cluster node application, which isn't annotated as component, so other tests contexts don't scan it.
+     */
+    @EnableScheduling
+    @EnableAutoConfiguration
+    @Import(ScheduledJobs.class)
+    static class ClusterNode {
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import lombok.With;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@AllArgsConstructor(onConstructor_ = @Autowired)
+@DisplayName("DistributedLock compare and set integration tests")
+class DistributedLockCompareAndSetIntegrationTests extends AbstractTestcontainersTests {
+
+    MongoTemplate mongoTemplate;
+    DistributedLock distributedLock;
+
+    @BeforeEach
+    void before_each() {
+        mongoTemplate.remove(new Query(), Counter.class);
+    }
+
+    @Test
+    void should_not_lose_concurrent_updates() throws Exception {
+        // given
+        Query counter = Query.query(Criteria.where("_id").is("cas-counter"));
+
+        // when
+        List<CompletableFuture<Void>> writers = IntStream.range(0, 4)
+                .mapToObj(i -> CompletableFuture.runAsync(() -> IntStream.range(0, 10).forEach(increment ->
+                        assertThat(distributedLock.compareAndSet(Counter.class, counter, current -> Objects.isNull(current)
+                                ? new Counter("cas-counter", null, 1)
+                                : current.withCount(current.getCount() + 1), 1_000)).isPresent()
+                )))
+                .toList();
+        for (CompletableFuture<Void> writer : writers) writer.get(30, TimeUnit.SECONDS);
+
+        // then
+        Counter result = mongoTemplate.findOne(counter, Counter.class);
+        assertThat(result.getCount()).isEqualTo(40);
+        assertThat(result.getVersion()).isEqualTo(39);
+    }
+
+    @Test
+    void should_skip_update_if_modification_returns_null() {
+        // given
+        Query counter = Query.query(Criteria.where("_id").is("skipped-counter"));
+
+        // when
+        Optional<Counter> maybeCounter = distributedLock.compareAndSet(Counter.class, counter, current -> null);
+
+        // then
+        assertThat(maybeCounter).isEmpty();
+        assertThat(mongoTemplate.exists(counter, Counter.class)).isFalse();
+    }
+
+    @Test
+    void should_require_versioned_document() {
+        // given
+        Query query = Query.query(Criteria.where("_id").is("unversioned"));
+
+        // when
+        // then
+        assertThatThrownBy(() -> distributedLock.compareAndSet(Unversioned.class, query, current -> current))
+                .isInstanceOf(LockException.class)
+                .hasMessage("document must have @Version property");
+    }
+
+    @With
+    @Value
+    static class Counter {
+
+        @Id
+        String id;
+
+        @Version
+        Long version;
+
+        long count;
+    }
+
+    @Value
+    static class Unversioned {
+
+        @Id
+        String id;
+    }
+
+    @SpringBootApplication
+    static class SpringBootTestApplication {
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import io.github.daggerok.distributed.lock.mongodb.autoconfigure.DistributedLockEndpoint;
+import io.github.daggerok.distributed.lock.mongodb.autoconfigure.DistributedLockHealthIndicator;
+import io.github.daggerok.distributed.lock.mongodb.autoconfigure.DistributedLockProperties;
+import java.util.stream.IntStream;
+import lombok.AllArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@AllArgsConstructor(onConstructor_ = @Autowired)
+@DisplayName("DistributedLock actuator integration tests")
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=distributedlocks,health")
+class DistributedLockEndpointIntegrationTests extends AbstractTestcontainersTests {
+
+    MongoTemplate mongoTemplate;
+    DistributedLock distributedLock;
+    DistributedLockProperties props;
+    DistributedLockEndpoint distributedLockEndpoint;
+    DistributedLockHealthIndicator distributedLockHealthIndicator;
+
+    @BeforeEach
+    void before_each() {
+        if (mongoTemplate.collectionExists(props.getLockCollectionName())) {
+            mongoTemplate.remove(new Query(), props.getLockCollectionName());
+        }
+    }
+
+    @Test
+    void should_list_held_locks_by_prefix_and_page() {
+        // given
+        IntStream.range(0, 5).forEach(i -> distributedLock.acquire("endpoint", i));
+        distributedLock.acquire("other").map(Lock::getId).ifPresent(distributedLock::release);
+
+        // when
+        DistributedLockEndpoint.HeldLocks firstPage = distributedLockEndpoint.locks("endpoint-", 0, 3);
+        DistributedLockEndpoint.HeldLocks secondPage = distributedLockEndpoint.locks("endpoint-", 1, 3);
+
+        // then
+        assertThat(firstPage.getLocks()).extracting(DistributedLockEndpoint.HeldLock::getLockedBy)
+                .containsExactly("endpoint-0", "endpoint-1", "endpoint-2");
+        assertThat(secondPage.getLocks()).extracting(DistributedLockEndpoint.HeldLock::getLockedBy)
+                .containsExactly("endpoint-3", "endpoint-4");
+
+        // and
+        assertThat(firstPage.getLocks()).allSatisfy(lock -> {
+            assertThat(lock.getOwner()).isNotNull();
+            assertThat(lock.getAge().isNegative()).isFalse();
+            assertThat(lock.getRemainingLease()).isPositive();
+            assertThat(lock.isExpired()).isFalse();
+        });
+    }
+
+    @Test
+    void should_force_release_lock_only_by_its_owner() {
+        // given
+        Lock lock = distributedLock.acquire("should_force_release_lock_only_by_its_owner").orElseThrow();
+
+        // when
+        DistributedLockEndpoint.HeldLock notReleased = distributedLockEndpoint.release(lock.getId(), "unknown-owner");
+
+        // then
+        assertThat(notReleased).isNull();
+
+        // and when
+        DistributedLockEndpoint.HeldLock released = distributedLockEndpoint.release(lock.getId(), lock.getOwner());
+
+        // then
+        assertThat(released).isNotNull();
+        assertThat(released.getState()).isEqualTo(Lock.State.NONE);
+        assertThat(distributedLockEndpoint.locks("should_force_release_lock_only_by_its_owner", null, null).getLocks()).isEmpty();
+    }
+
+    @Test
+    void should_report_lock_store_latency() {
+        // when
+        var health = distributedLockHealthIndicator.health();
+
+        // then
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).containsKey("latencyMillis");
+    }
+
+    @SpringBootApplication
+    static class SpringBootTestApplication {
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import io.github.daggerok.distributed.lock.mongodb.autoconfigure.DistributedLockGroups;
+import io.github.daggerok.distributed.lock.mongodb.autoconfigure.DistributedLockProperties;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.BeanFactoryAnnotationUtils;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@AllArgsConstructor(onConstructor_ = @Autowired)
+@DisplayName("DistributedLock groups integration tests")
+@SpringBootTest(properties = {
+        "io.github.daggerok.distributed.lock.mongodb.groups.batch.lock-period=1m",
+        "io.github.daggerok.distributed.lock.mongodb.groups.batch.index-strategy=ONCE",
+        "io.github.daggerok.distributed.lock.mongodb.groups.hot.lock-collection-name=hotPathLocks",
+})
+class DistributedLockGroupsIntegrationTests extends AbstractTestcontainersTests {
+
+    ApplicationContext context;
+    MongoTemplate mongoTemplate;
+    DistributedLock distributedLock;
+    DistributedLockGroups distributedLockGroups;
+    DistributedLockProperties props;
+
+    @Test
+    void should_register_qualified_group_locks_next_to_primary_default_lock() {
+        // when
+        DistributedLock batchLock = BeanFactoryAnnotationUtils.qualifiedBeanOfType(context.getAutowireCapableBeanFactory(),
+                DistributedLock.class, "batch");
+
+        // then
+        assertThat(distributedLockGroups.getGroups()).containsExactlyInAnyOrder("batch", "hot");
+        assertThat(batchLock).isSameAs(distributedLockGroups.get("batch"));
+        assertThat(context.getBean("hotDistributedLock")).isSameAs(distributedLockGroups.get("hot"));
+        assertThat(context.getBean(DistributedLock.class)).isSameAs(distributedLock);
+    }
+
+    @Test
+    void should_store_group_locks_in_their_own_collections_with_their_own_lease() {
+        // given
+        String lockedBy = "grouped-" + UUID.randomUUID();
+
+        // when
+        Optional<Lock> defaultLock = distributedLock.acquire(Lock.of(lockedBy));
+        Optional<Lock> batchLock = distributedLockGroups.get("batch").acquire(Lock.of(lockedBy));
+        Optional<Lock> hotLock = distributedLockGroups.get("hot").acquire(Lock.of(lockedBy));
+
+        // then
+        assertThat(defaultLock).isPresent();
+        assertThat(batchLock).hasValueSatisfying(lock -> assertThat(lock.getLockPeriod()).isEqualTo(Duration.ofMinutes(1)));
+        assertThat(hotLock).hasValueSatisfying(lock -> assertThat(lock.getLockPeriod()).isEqualTo(props.getLockPeriod()));
+        Query query = Query.query(Criteria.where("lockedBy").is(lockedBy));
+        assertThat(mongoTemplate.count(query, props.getLockCollectionName())).isEqualTo(1);
+        assertThat(mongoTemplate.count(query, props.getLockCollectionName() + "Batch")).isEqualTo(1);
+        assertThat(mongoTemplate.count(query, "hotPathLocks")).isEqualTo(1);
+
+        // and
+        assertThat(distributedLockGroups.get("batch").acquire(Lock.of(lockedBy).withOwner("another-owner"))).isEmpty();
+    }
+
+    @SpringBootApplication
+    static class SpringBootTestApplication {
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import io.github.daggerok.distributed.lock.mongodb.autoconfigure.DistributedLockProperties;
+import java.util.Optional;
+import lombok.AllArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AllArgsConstructor(onConstructor_ = @Autowired)
+@DisplayName("DistributedLock hierarchical locks integration tests")
+class DistributedLockHierarchyIntegrationTests extends AbstractTestcontainersTests {
+
+    MongoTemplate mongoTemplate;
+    DistributedLock distributedLock;
+    DistributedLockProperties props;
+
+    @BeforeEach
+    void before_each() {
+        if (mongoTemplate.collectionExists(props.getLockCollectionName())) {
+            mongoTemplate.remove(new Query(), props.getLockCollectionName());
+        }
+    }
+
+    @Test
+    void should_acquire_fine_grained_locks_in_parallel_but_exclude_subtree_lock() {
+        // given
+        Optional<Lock> order1 = distributedLock.acquire(Lock.path(Lock.Mode.X, "tenant-1", "account-1", "order-1"));
+        Optional<Lock> order2 = distributedLock.acquire(Lock.path(Lock.Mode.X, "tenant-1", "account-1", "order-2"));
+        Optional<Lock> account2 = distributedLock.acquire(Lock.path(Lock.Mode.IX, "tenant-1", "account-2"));
+        Optional<Lock> anotherAccount2 = distributedLock.acquire(Lock.path(Lock.Mode.IX, "tenant-1", "account-2"));
+
+        // then
+        assertThat(order1).isPresent();
+        assertThat(order2).isPresent();
+        assertThat(account2).isPresent();
+        assertThat(anotherAccount2).isPresent();
+
+        // and when
+        Optional<Lock> tenant = distributedLock.acquire(Lock.path(Lock.Mode.X, "tenant-1"));
+
+        // then
+        assertThat(tenant).isEmpty();
+
+        // and when all fine-grained locks are released
+        distributedLock.release(order1.get().getId());
+        distributedLock.release(order2.get().getId());
+        distributedLock.release(account2.get().getId());
+        distributedLock.release(anotherAccount2.get().getId());
+
+        // then
+        Optional<Lock> releasedTenant = distributedLock.acquire(Lock.path(Lock.Mode.X, "tenant-1"));
+        assertThat(releasedTenant).isPresent();
+
+        // and subtree is excluded by tenant lock
+        assertThat(distributedLock.acquire(Lock.path(Lock.Mode.X, "tenant-1", "account-1", "order-1"))).isEmpty();
+        assertThat(distributedLock.acquire(Lock.path(Lock.Mode.IS, "tenant-1", "account-3"))).isEmpty();
+    }
+
+    @Test
+    void should_share_subtree_lock_for_readers_only() {
+        // given
+        Optional<Lock> reader = distributedLock.acquire(Lock.path(Lock.Mode.S, "tenant-2", "account-1"));
+        assertThat(reader).isPresent();
+
+        // when
+        Optional<Lock> anotherReader = distributedLock.acquire(Lock.path(Lock.Mode.S, "tenant-2", "account-1"));
+        Optional<Lock> orderReader = distributedLock.acquire(Lock.path(Lock.Mode.S, "tenant-2", "account-1", "order-1"));
+        Optional<Lock> orderWriter = distributedLock.acquire(Lock.path(Lock.Mode.X, "tenant-2", "account-1", "order-1"));
+        Optional<Lock> tenantWriter = distributedLock.acquire(Lock.path(Lock.Mode.IX, "tenant-2"));
+        Optional<Lock> siblingWriter = distributedLock.acquire(Lock.path(Lock.Mode.X, "tenant-2", "account-2"));
+
+        // then
+        assertThat(anotherReader).isPresent();
+        assertThat(orderReader).isPresent();
+        assertThat(orderWriter).isEmpty();
+        assertThat(tenantWriter).isPresent();
+        assertThat(siblingWriter).isPresent();
+    }
+
+    @Test
+    void should_remove_shared_lock_document_on_release() {
+        // given
+        Optional<Lock> reader = distributedLock.acquire(Lock.path(Lock.Mode.S, "tenant-3"));
+        assertThat(reader).isPresent();
+
+        // when
+        Optional<Lock> released = distributedLock.release(reader.get().getId());
+
+        // then
+        assertThat(released).isPresent();
+        assertThat(released.get().getState()).isEqualTo(Lock.State.NONE);
+        assertThat(mongoTemplate.exists(Query.query(Criteria.where("lockedBy").regex("^tenant-3")),
+                Lock.class, props.getLockCollectionName())).isFalse();
+    }
+
+    @Test
+    void should_not_place_ordinary_locks_into_hierarchy_but_exclude_path_below_single_identifier_lock() {
+        // given
+        assertThat(distributedLock.acquire(Lock.of("tenant-4", "account-1"))).isPresent();
+        assertThat(distributedLock.acquire(Lock.of("tenant-5"))).isPresent();
+
+        // when
+        Optional<Lock> account = distributedLock.acquire(Lock.path(Lock.Mode.X, "tenant-4", "account-1"));
+        Optional<Lock> underRoot = distributedLock.acquire(Lock.path(Lock.Mode.X, "tenant-5", "account-1"));
+
+        // then
+        assertThat(account).isPresent();
+        assertThat(account.get().getLockedBy()).isEqualTo("tenant-4/account-1");
+        assertThat(underRoot).isEmpty();
+    }
+
+    @SpringBootApplication
+    static class SpringBootTestApplication {
+    }
+}
@@ -5,6 +5,7 @@ import java.io.Serializable;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import lombok.AllArgsConstructor;
 import lombok.extern.log4j.Log4j2;
@@ -16,7 +17,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
@@ -126,8 +129,9 @@ class DistributedLockIntegrationTests extends AbstractTestcontainersTests {
         // given
         distributedLock.acquire("should_not_acquire_lock_if_lock_by_identifier_is_already_exists");
 
-        // when
-        Optional<Lock> maybeLock = distributedLock.acquire("should_not_acquire_lock_if_lock_by_identifier_is_already_exists");
+        // when other thread tries to acquire it
+        Optional<Lock> maybeLock = CompletableFuture.supplyAsync(() ->
+                distributedLock.acquire("should_not_acquire_lock_if_lock_by_identifier_is_already_exists")).join();
 
         // then
         assertThat(maybeLock).isEmpty();
@@ -413,6 +417,134 @@ class DistributedLockIntegrationTests extends AbstractTestcontainersTests {
         result.ifPresent(successfulAcquireAndRun -> assertThat(successfulAcquireAndRun).isTrue());
     }
 
+    @Test
+    void should_reenter_lock_acquired_by_same_owner() {
+        // given
+        Optional<Lock> maybeLock = distributedLock.acquire(Lock.of("should_reenter_lock_acquired_by_same_owner").withOwner("task-1"));
+        assertThat(maybeLock).isPresent();
+
+        // when
+        Optional<Lock> maybeReentered = distributedLock.acquire(Lock.of("should_reenter_lock_acquired_by_same_owner").withOwner("task-1"));
+
+        // then
+        assertThat(maybeReentered).isPresent();
+        maybeReentered.ifPresent(lock -> {
+            assertThat(lock.id).isEqualTo(maybeLock.get().id);
+            assertThat(lock.owner).isEqualTo("task-1");
+            assertThat(lock.holdCount).isEqualTo(2);
+        });
+
+        // and other owner can't acquire it
+        assertThat(distributedLock.acquire(Lock.of("should_reenter_lock_acquired_by_same_owner").withOwner("task-2"))).isEmpty();
+    }
+
+    @Test
+    void should_release_reentered_lock_by_outermost_release_only() {
+        // given
+        String lockId = distributedLock.acquire(Lock.of("should_release_reentered_lock_by_outermost_release_only").withOwner("task-1"))
+                .map(Lock::getId).orElseThrow();
+        distributedLock.acquire(Lock.of("should_release_reentered_lock_by_outermost_release_only").withOwner("task-1"));
+
+        // when
+        Optional<Lock> maybeLeft = distributedLock.release(lockId);
+
+        // then lock is still held
+        assertThat(maybeLeft).isPresent();
+        maybeLeft.ifPresent(lock -> assertThat(lock.holdCount).isEqualTo(1));
+        assertThat(mongoTemplate.findById(lockId, Lock.class, props.getLockCollectionName()).state).isEqualTo(Lock.State.LOCKED);
+
+        // and when
+        Optional<Lock> maybeReleased = distributedLock.release(lockId);
+
+        // then lock is released
+        assertThat(maybeReleased).isPresent();
+        maybeReleased.ifPresent(lock -> {
+            assertThat(lock.state).isEqualTo(Lock.State.NONE);
+            assertThat(lock.owner).isNull();
+        });
+    }
+
+    @Test
+    void should_reenter_lock_within_nested_execution() {
+        // when
+        Optional<Optional<Boolean>> result = distributedLock.acquireAndGet(
+                Lock.of("should_reenter_lock_within_nested_execution"),
+                () -> distributedLock.acquireAndGet(Lock.of("should_reenter_lock_within_nested_execution"), () -> true)
+        );
+
+        // then
+        assertThat(result).isPresent();
+        result.ifPresent(nested -> assertThat(nested).contains(true));
+    }
+
+    @Test
+    void should_reenter_and_release_nested_lock_acquired_by_default_owner() {
+        // given
+        Optional<Lock> maybeLock = distributedLock.acquire(Lock.of("should_reenter_and_release_nested_lock_acquired_by_default_owner"));
+        assertThat(maybeLock).isPresent();
+        String lockId = maybeLock.get().id;
+
+        // when
+        Optional<Lock> maybeReentered = distributedLock.acquire(Lock.of("should_reenter_and_release_nested_lock_acquired_by_default_owner"));
+
+        // then
+        assertThat(maybeReentered).isPresent();
+        maybeReentered.ifPresent(lock -> {
+            assertThat(lock.id).isEqualTo(lockId);
+            assertThat(lock.holdCount).isEqualTo(2);
+        });
+
+        // when
+        distributedLock.release(lockId);
+
+        // then lock is still held
+        assertThat(mongoTemplate.findById(lockId, Lock.class, props.getLockCollectionName()).state).isEqualTo(Lock.State.LOCKED);
+
+        // and when
+        Optional<Lock> maybeReleased = distributedLock.release(lockId);
+
+        // then lock is released
+        assertThat(maybeReleased).isPresent();
+        assertThat(mongoTemplate.findById(lockId, Lock.class, props.getLockCollectionName()).state).isEqualTo(Lock.State.NONE);
+    }
+
+    @Test
+    void should_not_reenter_lock_which_lease_has_ended() throws InterruptedException {
+        // given
+        String lockedBy = "should_not_reenter_lock_which_lease_has_ended";
+        assertThat(distributedLock.acquire(Lock.of(Duration.ofMillis(300), lockedBy).withOwner("task-1"))).isPresent();
+        Thread.sleep(500);
+
+        // and lock is taken over by another node
+        DistributedLock anotherNode = new DistributedLock(props.getLockCollectionName(), props.getLockPeriod(), mongoTemplate);
+        assertThat(anotherNode.acquire(Lock.of(lockedBy).withOwner("task-2"))).isPresent();
+
+        // when
+        Optional<Lock> maybeReentered = distributedLock.acquire(Lock.of(lockedBy).withOwner("task-1"));
+
+        // then
+        assertThat(maybeReentered).isEmpty();
+    }
+
+    @Test
+    void should_not_reenter_lock_which_renewal_has_failed() {
+        // given
+        String lockedBy = "should_not_reenter_lock_which_renewal_has_failed";
+        Lock lock = distributedLock.acquire(Lock.of(lockedBy).withOwner("task-1")).orElseThrow();
+
+        // and lock is taken over by another node
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(lock.id)), Update.update("owner", "task-2"),
+                Lock.class, props.getLockCollectionName());
+
+        // when
+        Optional<Lock> maybeRenewed = distributedLock.renew(lock);
+        Optional<Lock> maybeReentered = distributedLock.acquire(Lock.of(lockedBy).withOwner("task-1"));
+
+        // then
+        assertThat(maybeRenewed).isEmpty();
+        assertThat(maybeReentered).isEmpty();
+    }
+
     @SpringBootApplication
     static class SpringBootTestApplication {
     }
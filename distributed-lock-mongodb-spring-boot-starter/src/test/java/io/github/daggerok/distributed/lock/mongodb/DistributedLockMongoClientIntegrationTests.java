@@ -0,0 +1,61 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import io.github.daggerok.distributed.lock.mongodb.autoconfigure.DistributedLockMongoClient;
+import io.github.daggerok.distributed.lock.mongodb.autoconfigure.DistributedLockProperties;
+import java.util.Optional;
+import lombok.AllArgsConstructor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+@AllArgsConstructor(onConstructor_ = @Autowired)
+@DisplayName("DistributedLock dedicated MongoClient integration tests")
+@SpringBootTest(properties = {
+        "io.github.daggerok.distributed.lock.mongodb.client.enabled=true",
+        "io.github.daggerok.distributed.lock.mongodb.client.max-pool-size=3",
+})
+class DistributedLockMongoClientIntegrationTests extends AbstractTestcontainersTests {
+
+    MongoTemplate mongoTemplate;
+    DistributedLock distributedLock;
+    DistributedLockProperties props;
+    DistributedLockMongoClient lockMongoClient;
+
+    @Test
+    void should_use_dedicated_lock_mongo_template() {
+        // then
+        assertThat(lockMongoClient.getMongoTemplate()).isNotSameAs(mongoTemplate);
+        assertThat(lockMongoClient.getMongoClient().getDatabase("test").getWriteConcern()).isEqualTo(WriteConcern.MAJORITY);
+        assertThat(lockMongoClient.getMongoClient().getDatabase("test").getReadPreference()).isEqualTo(ReadPreference.primary());
+    }
+
+    @Test
+    void should_acquire_lock_using_dedicated_client() {
+        // when
+        Optional<Lock> maybeLock = distributedLock.acquire("should_acquire_lock_using_dedicated_client");
+
+        // then
+        assertThat(maybeLock).isPresent();
+
+        // and lock is visible for application MongoTemplate within the same database
+        Lock persisted = mongoTemplate.findOne(
+                Query.query(Criteria.where("lockedBy").is("should_acquire_lock_using_dedicated_client")),
+                Lock.class, props.getLockCollectionName()
+        );
+        assertThat(persisted).isNotNull();
+        assertThat(persisted.state).isEqualTo(Lock.State.LOCKED);
+    }
+
+    @SpringBootApplication
+    static class SpringBootTestApplication {
+    }
+}
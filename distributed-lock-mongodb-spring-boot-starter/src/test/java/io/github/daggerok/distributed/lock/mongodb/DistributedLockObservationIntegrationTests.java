@@ -0,0 +1,124 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import io.github.daggerok.distributed.lock.mongodb.autoconfigure.DistributedLockProperties;
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.AllArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AllArgsConstructor(onConstructor_ = @Autowired)
+@DisplayName("DistributedLock observation integration tests")
+class DistributedLockObservationIntegrationTests extends AbstractTestcontainersTests {
+
+    static final RecordingObservationHandler observations = new RecordingObservationHandler();
+
+    MongoTemplate mongoTemplate;
+    DistributedLock distributedLock;
+    DistributedLockProperties props;
+
+    @BeforeEach
+    void before_each() {
+        if (mongoTemplate.collectionExists(props.getLockCollectionName())) {
+            mongoTemplate.remove(new Query(), props.getLockCollectionName());
+        }
+        observations.stopped.clear();
+    }
+
+    @Test
+    void should_observe_acquire_with_child_observation_of_every_round_trip() {
+        // when
+        distributedLock.acquire(Lock.of("observed").withOwner("owner-1"));
+
+        // then
+        Observation.Context acquire = observations.only(DistributedLock.OBSERVATION);
+        assertThat(acquire.getLowCardinalityKeyValues()).contains(KeyValue.of("operation", "acquire"), KeyValue.of("outcome", "acquired"));
+        assertThat(acquire.getHighCardinalityKeyValue("lock").getValue()).isEqualTo("observed");
+        assertThat(observations.children(acquire)).extracting(context -> context.getLowCardinalityKeyValue("command").getValue())
+                .containsExactly("find", "insert", "readBack");
+
+        // when
+        observations.stopped.clear();
+        distributedLock.acquire(Lock.of("observed").withOwner("owner-2"));
+
+        // then
+        Observation.Context contended = observations.only(DistributedLock.OBSERVATION);
+        assertThat(contended.getLowCardinalityKeyValue("outcome").getValue()).isEqualTo("contended");
+        assertThat(observations.children(contended)).extracting(context -> context.getLowCardinalityKeyValue("command").getValue())
+                .containsExactly("find", "findAndModify");
+    }
+
+    @Test
+    void should_observe_failed_execution() {
+        // when
+        distributedLock.acquireAndGet(Lock.of("observed-execution"), () -> {
+            throw new IllegalStateException("execution has failed");
+        });
+
+        // then
+        List<Observation.Context> stopped = observations.named(DistributedLock.OBSERVATION);
+        assertThat(stopped).extracting(context -> context.getLowCardinalityKeyValue("operation").getValue())
+                .containsExactly("release", "acquireAndGet");
+        Observation.Context acquireAndGet = stopped.get(1);
+        assertThat(acquireAndGet.getLowCardinalityKeyValue("outcome").getValue()).isEqualTo("failed");
+        assertThat(acquireAndGet.getError()).isInstanceOf(IllegalStateException.class);
+        assertThat(stopped.get(0).getParentObservation().getContextView()).isSameAs(acquireAndGet);
+    }
+
+    static class RecordingObservationHandler implements ObservationHandler<Observation.Context> {
+
+        final List<Observation.Context> stopped = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onStop(Observation.Context context) {
+            stopped.add(context);
+        }
+
+        @Override
+        public boolean supportsContext(Observation.Context context) {
+            return true;
+        }
+
+        List<Observation.Context> named(String name) {
+            return stopped.stream().filter(context -> name.equals(context.getName())).toList();
+        }
+
+        Observation.Context only(String name) {
+            assertThat(named(name)).hasSize(1);
+            return named(name).get(0);
+        }
+
+        List<Observation.Context> children(Observation.Context parent) {
+            return stopped.stream()
+                    .filter(context -> Objects.nonNull(context.getParentObservation()))
+                    .filter(context -> context.getParentObservation().getContextView() == parent)
+                    .toList();
+        }
+    }
+
+    @SpringBootApplication
+    static class SpringBootTestApplication {
+
+        @Bean
+        ObservationRegistry observationRegistry() {
+            ObservationRegistry observationRegistry = ObservationRegistry.create();
+            observationRegistry.observationConfig().observationHandler(observations);
+            return observationRegistry;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import io.github.daggerok.distributed.lock.mongodb.autoconfigure.DistributedLockProperties;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.AllArgsConstructor;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AllArgsConstructor(onConstructor_ = @Autowired)
+@DisplayName("DistributedLock priority integration tests")
+class DistributedLockPriorityIntegrationTests extends AbstractTestcontainersTests {
+
+    MongoTemplate mongoTemplate;
+    DistributedLock distributedLock;
+    DistributedLockProperties props;
+
+    @BeforeEach
+    void before_each() {
+        if (mongoTemplate.collectionExists(props.getLockCollectionName())) {
+            mongoTemplate.remove(new Query(), props.getLockCollectionName());
+        }
+        mongoTemplate.remove(new Query(), props.getLockCollectionName() + "Waits");
+    }
+
+    @Test
+    void should_yield_to_higher_priority_waiter() throws Exception {
+        // given
+        Optional<Lock> maybeBatch = distributedLock.acquire(Lock.of("report").withOwner("batch").withPriority(0));
+        assertThat(maybeBatch).isPresent();
+        Lock batch = maybeBatch.get();
+        CompletableFuture<Optional<Lock>> interactive = CompletableFuture.supplyAsync(() ->
+                distributedLock.tryAcquire(Lock.of("report").withOwner("interactive").withPriority(10), Duration.ofSeconds(5))
+        );
+
+        // when
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!distributedLock.shouldYield(batch) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            distributedLock.renew(batch);
+        }
+
+        // then
+        assertThat(distributedLock.shouldYield(batch)).isTrue();
+
+        // when
+        distributedLock.release(batch.getId(), batch.getOwner());
+
+        // then
+        Optional<Lock> acquired = interactive.get(5, TimeUnit.SECONDS);
+        assertThat(acquired).isPresent();
+        assertThat(acquired.get().getOwner()).isEqualTo("interactive");
+        assertThat(acquired.get().getPriority()).isEqualTo(10);
+        assertThat(distributedLock.shouldYield(batch)).isFalse();
+    }
+
+    @Test
+    void should_not_yield_to_waiter_of_the_same_priority() throws Exception {
+        // given
+        Lock holder = distributedLock.acquire(Lock.of("same-priority").withOwner("holder").withPriority(1)).orElseThrow();
+        CompletableFuture<Optional<Lock>> waiter = CompletableFuture.supplyAsync(() ->
+                distributedLock.tryAcquire(Lock.of("same-priority").withOwner("waiter").withPriority(1), Duration.ofMillis(500))
+        );
+        Thread.sleep(100);
+
+        // when
+        distributedLock.renew(holder);
+
+        // then
+        assertThat(distributedLock.shouldYield(holder)).isFalse();
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isEmpty();
+    }
+
+    @Test
+    void should_ignore_expired_wait_of_crashed_higher_priority_waiter() throws Exception {
+        // given
+        Date expired = Date.from(Instant.now().minusSeconds(1));
+        mongoTemplate.save(new Document("_id", "crashed").append("waitingFor", Lock.of("crashed-waiter").getLockedBy())
+                .append("priority", 10).append("since", expired).append("expireAt", expired), props.getLockCollectionName() + "Waits");
+        Lock holder = distributedLock.acquire(Lock.of("crashed-waiter").withOwner("holder").withPriority(0)).orElseThrow();
+        CompletableFuture<Optional<Lock>> waiter = CompletableFuture.supplyAsync(() ->
+                distributedLock.tryAcquire(Lock.of("crashed-waiter").withOwner("waiter").withPriority(0), Duration.ofSeconds(5))
+        );
+
+        // when
+        distributedLock.renew(holder);
+
+        // then
+        assertThat(distributedLock.shouldYield(holder)).isFalse();
+
+        // when
+        distributedLock.release(holder.getId(), holder.getOwner());
+
+        // then
+        assertThat(waiter.get(2, TimeUnit.SECONDS)).hasValueSatisfying(lock -> assertThat(lock.getOwner()).isEqualTo("waiter"));
+        assertThat(mongoTemplate.indexOps(props.getLockCollectionName() + "Waits").getIndexInfo())
+                .anySatisfy(index -> assertThat(index.getName()).isEqualTo("Wait_expireAt"));
+    }
+
+    @SpringBootApplication
+    static class SpringBootTestApplication {
+    }
+}
@@ -0,0 +1,132 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import io.github.daggerok.distributed.lock.mongodb.autoconfigure.DistributedLockProperties;
+import io.github.daggerok.distributed.lock.mongodb.integration.DistributedLockRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.AllArgsConstructor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.integration.support.locks.LockRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AllArgsConstructor(onConstructor_ = @Autowired)
+@DisplayName("DistributedLockRegistry integration tests")
+class DistributedLockRegistryIntegrationTests extends AbstractTestcontainersTests {
+
+    MongoTemplate mongoTemplate;
+    LockRegistry lockRegistry;
+    DistributedLock distributedLock;
+    DistributedLockProperties props;
+
+    @BeforeEach
+    void before_each() {
+        if (mongoTemplate.collectionExists(props.getLockCollectionName())) {
+            mongoTemplate.remove(new Query(), props.getLockCollectionName());
+        }
+    }
+
+    @Test
+    void should_obtain_the_same_lock_object_per_key() {
+        // when
+        java.util.concurrent.locks.Lock lock = lockRegistry.obtain("registry-key");
+
+        // then
+        assertThat(lockRegistry).isInstanceOf(DistributedLockRegistry.class);
+        assertThat(lockRegistry.obtain("registry-key")).isSameAs(lock);
+        assertThat(lockRegistry.obtain("another-registry-key")).isNotSameAs(lock);
+    }
+
+    @Test
+    void should_keep_locked_object_obtainable_without_caller_reference() {
+        // given
+        lockRegistry.obtain("registry-unreferenced").lock();
+
+        // when
+        for (int i = 0; i < 5; i++) System.gc();
+        java.util.concurrent.locks.Lock lock = lockRegistry.obtain("registry-unreferenced");
+
+        // then
+        assertThat(lock.toString()).endsWith(", locked]");
+        lock.unlock();
+        assertThat(distributedLock.acquire(Lock.of(props.getIntegration().getRegion(), "registry-unreferenced").withOwner("another"))).isPresent();
+    }
+
+    @Test
+    @SneakyThrows
+    void should_lock_reentrantly_and_exclude_other_registries() {
+        // given
+        LockRegistry anotherNode = new DistributedLockRegistry(distributedLock, props.getIntegration().getRegion(), props.getLockPeriod());
+        java.util.concurrent.locks.Lock lock = lockRegistry.obtain("registry-lock");
+
+        // when
+        lock.lock();
+        boolean isReentered = lock.tryLock();
+
+        // then
+        assertThat(isReentered).isTrue();
+        assertThat(anotherNode.obtain("registry-lock").tryLock(100, TimeUnit.MILLISECONDS)).isFalse();
+
+        // when
+        lock.unlock();
+
+        // then
+        assertThat(anotherNode.obtain("registry-lock").tryLock()).isFalse();
+
+        // when
+        lock.unlock();
+
+        // then
+        java.util.concurrent.locks.Lock anotherLock = anotherNode.obtain("registry-lock");
+        assertThat(anotherLock.tryLock()).isTrue();
+        anotherLock.unlock();
+    }
+
+    @Test
+    @SneakyThrows
+    void should_gate_local_threads_before_reaching_mongo() {
+        // given
+        java.util.concurrent.locks.Lock lock = lockRegistry.obtain("registry-local");
+        lock.lock();
+
+        // when
+        boolean isLockedByAnotherThread = CompletableFuture.supplyAsync(() -> lockRegistry.obtain("registry-local").tryLock()).join();
+
+        // then
+        assertThat(isLockedByAnotherThread).isFalse();
+        lock.unlock();
+        assertThat(CompletableFuture.supplyAsync(() -> {
+            java.util.concurrent.locks.Lock acquired = lockRegistry.obtain("registry-local");
+            boolean isLocked = acquired.tryLock();
+            if (isLocked) acquired.unlock();
+            return isLocked;
+        }).join()).isTrue();
+    }
+
+    @Test
+    @SneakyThrows
+    void should_execute_locked() {
+        // when
+        String result = lockRegistry.executeLocked("registry-execute", () -> {
+            assertThat(distributedLock.acquire(Lock.of(props.getIntegration().getRegion(), "registry-execute").withOwner("another-owner"))).isEmpty();
+            return "executed";
+        });
+
+        // then
+        assertThat(result).isEqualTo("executed");
+        assertThat(distributedLock.acquire(Lock.of(props.getIntegration().getRegion(), "registry-execute"))).isPresent();
+    }
+
+    @SpringBootApplication
+    static class SpringBootTestApplication {
+    }
+}
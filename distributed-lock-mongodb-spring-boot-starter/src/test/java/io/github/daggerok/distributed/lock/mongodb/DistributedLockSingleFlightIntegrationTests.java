@@ -0,0 +1,105 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import io.github.daggerok.distributed.lock.mongodb.autoconfigure.DistributedLockProperties;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AllArgsConstructor(onConstructor_ = @Autowired)
+@DisplayName("DistributedLock single-flight integration tests")
+class DistributedLockSingleFlightIntegrationTests extends AbstractTestcontainersTests {
+
+    MongoTemplate mongoTemplate;
+    DistributedLock distributedLock;
+    DistributedLockProperties props;
+
+    @BeforeEach
+    void before_each() {
+        if (mongoTemplate.collectionExists(props.getLockCollectionName())) {
+            mongoTemplate.remove(new Query(), props.getLockCollectionName());
+        }
+    }
+
+    @Test
+    void should_share_winner_result_with_losers() throws Exception {
+        // given
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Optional<Stats>> winner = CompletableFuture.supplyAsync(() ->
+                distributedLock.acquireAndShare(Lock.of("rebuild-cache"), Stats.class, Duration.ofSeconds(5), () -> {
+                    executions.incrementAndGet();
+                    started.countDown();
+                    Thread.sleep(500);
+                    return new Stats("rebuilt", 42);
+                })
+        );
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // when
+        List<CompletableFuture<Optional<Stats>>> losers = IntStream.range(0, 3)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() ->
+                        distributedLock.acquireAndShare(Lock.of("rebuild-cache"), Stats.class, Duration.ofSeconds(5), () -> {
+                            executions.incrementAndGet();
+                            return new Stats("loser", i);
+                        })
+                ))
+                .toList();
+
+        // then
+        assertThat(winner.get(10, TimeUnit.SECONDS)).hasValue(new Stats("rebuilt", 42));
+        for (CompletableFuture<Optional<Stats>> loser : losers) {
+            assertThat(loser.get(10, TimeUnit.SECONDS)).hasValue(new Stats("rebuilt", 42));
+        }
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void should_not_share_result_if_wait_timeout_elapsed() throws Exception {
+        // given
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Optional<String>> winner = CompletableFuture.supplyAsync(() ->
+                distributedLock.acquireAndShare(Lock.of("slow-cache"), String.class, null, () -> {
+                    started.countDown();
+                    Thread.sleep(500);
+                    return "rebuilt";
+                })
+        );
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // when
+        Optional<String> loser = distributedLock.acquireAndShare(Lock.of("slow-cache"), String.class,
+                Duration.ofMillis(50), () -> "loser");
+
+        // then
+        assertThat(loser).isEmpty();
+        assertThat(winner.get(10, TimeUnit.SECONDS)).hasValue("rebuilt");
+    }
+
+    @Value
+    static class Stats {
+        String status;
+        Integer entries;
+    }
+
+    @SpringBootApplication
+    static class SpringBootTestApplication {
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import io.github.daggerok.distributed.lock.mongodb.autoconfigure.DistributedLockProperties;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.AllArgsConstructor;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AllArgsConstructor(onConstructor_ = @Autowired)
+@DisplayName("DistributedLock transaction integration tests")
+class DistributedLockTransactionIntegrationTests extends AbstractTestcontainersTests {
+
+    private static final String PAYMENTS = "payments";
+
+    MongoTemplate mongoTemplate;
+    DistributedLock distributedLock;
+    DistributedLockProperties props;
+
+    @BeforeEach
+    void before_each() {
+        if (mongoTemplate.collectionExists(props.getLockCollectionName())) {
+            mongoTemplate.remove(new Query(), props.getLockCollectionName());
+        }
+        if (!mongoTemplate.collectionExists(PAYMENTS)) {
+            mongoTemplate.createCollection(PAYMENTS);
+        }
+        mongoTemplate.remove(new Query(), PAYMENTS);
+    }
+
+    @Test
+    void should_commit_execution_together_with_lock() {
+        // when
+        Optional<String> maybeResult = distributedLock.acquireAndGetInTransaction(Lock.of("tx", "order-1"), operations -> {
+            operations.insert(new Document("orderId", "order-1"), PAYMENTS);
+            return "paid";
+        });
+
+        // then
+        assertThat(maybeResult).hasValue("paid");
+        assertThat(mongoTemplate.count(new Query(), PAYMENTS)).isEqualTo(1);
+
+        // and
+        assertThat(distributedLock.acquire(Lock.of("tx", "order-1"))).isPresent();
+    }
+
+    @Test
+    void should_roll_back_execution_if_it_has_failed() {
+        // when
+        Optional<String> maybeResult = distributedLock.acquireAndGetInTransaction(Lock.of("tx", "order-2"), operations -> {
+            operations.insert(new Document("orderId", "order-2"), PAYMENTS);
+            throw new IllegalStateException("payment has failed");
+        });
+
+        // then
+        assertThat(maybeResult).isEmpty();
+        assertThat(mongoTemplate.count(new Query(), PAYMENTS)).isZero();
+
+        // and
+        assertThat(distributedLock.acquire(Lock.of("tx", "order-2"))).isPresent();
+    }
+
+    @Test
+    void should_not_execute_if_lock_is_held() {
+        // given
+        assertThat(distributedLock.acquire(Lock.of("tx", "order-3"))).isPresent();
+
+        // when
+        Optional<String> maybeResult = distributedLock.acquireAndGetInTransaction(Lock.of("tx", "order-3"), operations -> {
+            operations.insert(new Document("orderId", "order-3"), PAYMENTS);
+            return "paid";
+        });
+
+        // then
+        assertThat(maybeResult).isEmpty();
+        assertThat(mongoTemplate.count(new Query(), PAYMENTS)).isZero();
+    }
+
+    @Test
+    void should_report_committed_lock_as_acquired_and_released() {
+        // given
+        List<LockEvent> published = new CopyOnWriteArrayList<>();
+        LockEvents events = new LockEvents(16, List.of(published::add));
+
+        // when
+        distributedLock.withEvents(events).acquireAndGetInTransaction(Lock.of("tx", "order-4"), operations -> "paid");
+        events.close();
+
+        // then
+        assertThat(published).extracting(LockEvent::getType).containsExactly(LockEvent.Type.ACQUIRED, LockEvent.Type.RELEASED);
+    }
+
+    @Test
+    void should_report_rolled_back_execution_as_error() {
+        // given
+        List<LockEvent> published = new CopyOnWriteArrayList<>();
+        LockEvents events = new LockEvents(16, List.of(published::add));
+
+        // when
+        distributedLock.withEvents(events).acquireAndGetInTransaction(Lock.of("tx", "order-5"), operations -> {
+            throw new IllegalStateException("payment has failed");
+        });
+        events.close();
+
+        // then
+        assertThat(published).extracting(LockEvent::getType).containsExactly(LockEvent.Type.ERROR);
+    }
+
+    @SpringBootApplication
+    static class SpringBootTestApplication {
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import java.util.stream.IntStream;
+import lombok.AllArgsConstructor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@AllArgsConstructor(onConstructor_ = @Autowired)
+@DisplayName("DistributedRateLimiter integration tests")
+class DistributedRateLimiterIntegrationTests extends AbstractTestcontainersTests {
+
+    DistributedLock distributedLock;
+
+    @Test
+    void should_not_exceed_bucket_capacity() {
+        // given
+        DistributedRateLimiter rateLimiter = distributedLock.rateLimiter("should_not_exceed_bucket_capacity", 10)
+                .withPrefetch(1);
+
+        // when
+        long acquired = IntStream.range(0, 20).filter(i -> rateLimiter.tryAcquire()).count();
+
+        // then
+        assertThat(acquired).isBetween(10L, 12L);
+    }
+
+    @Test
+    void should_prefetch_permits_locally() {
+        // given
+        DistributedRateLimiter rateLimiter = distributedLock.rateLimiter("should_prefetch_permits_locally", 100)
+                .withPrefetch(5);
+
+        // when
+        boolean acquired = rateLimiter.tryAcquire();
+
+        // then
+        assertThat(acquired).isTrue();
+        assertThat(rateLimiter.getLocalPermits()).isEqualTo(4);
+    }
+
+    @Test
+    void should_not_create_rate_limiter_without_name_or_rate() {
+        // when name is missing
+        assertThatThrownBy(() -> distributedLock.rateLimiter(null, 10))
+                // then
+                .isInstanceOf(LockException.class)
+                .hasMessage("rate limiter name is required");
+
+        // and when rate is not positive
+        assertThatThrownBy(() -> distributedLock.rateLimiter("name", 0))
+                // then
+                .isInstanceOf(LockException.class)
+                .hasMessage("permits must be positive");
+    }
+
+    @SpringBootApplication
+    static class SpringBootTestApplication {
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import io.github.daggerok.distributed.lock.mongodb.autoconfigure.DistributedLockProperties;
+import io.github.daggerok.distributed.lock.mongodb.autoconfigure.HeldLockCacheInvalidator;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import lombok.AllArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@AllArgsConstructor(onConstructor_ = @Autowired)
+@DisplayName("HeldLockCache integration tests")
+@SpringBootTest(properties = {
+        "io.github.daggerok.distributed.lock.mongodb.negative-cache.enabled=true",
+        "io.github.daggerok.distributed.lock.mongodb.negative-cache.max-ttl=1m",
+})
+class HeldLockCacheIntegrationTests extends AbstractTestcontainersTests {
+
+    MongoTemplate mongoTemplate;
+    HeldLockCache heldLockCache;
+    HeldLockCacheInvalidator heldLockCacheInvalidator;
+    DistributedLock distributedLock;
+    DistributedLockProperties props;
+
+    @BeforeEach
+    void before_each() {
+        if (mongoTemplate.collectionExists(props.getLockCollectionName())) {
+            mongoTemplate.remove(new Query(), props.getLockCollectionName());
+        }
+        heldLockCache.clear();
+    }
+
+    @Test
+    void should_fail_fast_on_known_held_lock_until_it_is_released_locally() {
+        // given
+        Optional<Lock> held = distributedLock.acquire(Lock.of("known-held").withOwner("owner-1"));
+        assertThat(held).isPresent();
+
+        // when
+        Optional<Lock> contended = distributedLock.acquire(Lock.of("known-held").withOwner("owner-2"));
+
+        // then
+        assertThat(contended).isEmpty();
+        assertThat(heldLockCache.isHeld("known-held", Instant.now())).isTrue();
+        assertThat(distributedLock.acquire(Lock.of("known-held").withOwner("owner-2"))).isEmpty();
+
+        // when
+        distributedLock.release(held.get().getId());
+
+        // then
+        assertThat(heldLockCache.isHeld("known-held", Instant.now())).isFalse();
+        assertThat(distributedLock.acquire(Lock.of("known-held").withOwner("owner-2"))).isPresent();
+    }
+
+    @Test
+    void should_forget_known_held_lock_released_by_another_node() throws InterruptedException {
+        // given
+        assertThat(heldLockCacheInvalidator.isRunning()).isTrue();
+        DistributedLock anotherNode = new DistributedLock(props.getLockCollectionName(), props.getLockPeriod(), mongoTemplate);
+        Optional<Lock> held = anotherNode.acquire(Lock.of("remotely-held").withOwner("owner-1"));
+        assertThat(held).isPresent();
+        assertThat(distributedLock.acquire(Lock.of("remotely-held").withOwner("owner-2"))).isEmpty();
+        assertThat(heldLockCache.isHeld("remotely-held", Instant.now())).isTrue();
+
+        // when
+        anotherNode.release(held.get().getId());
+
+        // then cached entry is evicted long before its max ttl
+        Instant deadline = Instant.now().plus(Duration.ofSeconds(3));
+        while (heldLockCache.isHeld("remotely-held", Instant.now()) && Instant.now().isBefore(deadline)) Thread.sleep(50);
+        assertThat(heldLockCache.isHeld("remotely-held", Instant.now())).isFalse();
+        assertThat(distributedLock.acquire(Lock.of("remotely-held").withOwner("owner-2"))).isPresent();
+    }
+
+    @SpringBootApplication
+    static class SpringBootTestApplication {
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import io.github.daggerok.distributed.lock.mongodb.autoconfigure.DistributedLockGroups;
+import io.github.daggerok.distributed.lock.mongodb.autoconfigure.DistributedLockProperties;
+import io.github.daggerok.distributed.lock.mongodb.autoconfigure.HotLocksEndpoint;
+import java.time.Duration;
+import java.util.stream.IntStream;
+import lombok.AllArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@AllArgsConstructor(onConstructor_ = @Autowired)
+@DisplayName("HotLocks integration tests")
+@SpringBootTest(properties = {
+        "io.github.daggerok.distributed.lock.mongodb.hot-locks.enabled=true",
+        "management.endpoints.web.exposure.include=hotlocks",
+        "io.github.daggerok.distributed.lock.mongodb.groups.batch.lock-collection-name=batchHotLocks",
+})
+class HotLocksIntegrationTests extends AbstractTestcontainersTests {
+
+    MongoTemplate mongoTemplate;
+    HotLocks hotLocks;
+    HotLocksEndpoint hotLocksEndpoint;
+    DistributedLock distributedLock;
+    DistributedLockGroups distributedLockGroups;
+    DistributedLockProperties props;
+
+    @BeforeEach
+    void before_each() {
+        if (mongoTemplate.collectionExists(props.getLockCollectionName())) {
+            mongoTemplate.remove(new Query(), props.getLockCollectionName());
+        }
+        if (mongoTemplate.collectionExists("batchHotLocks")) {
+            mongoTemplate.remove(new Query(), "batchHotLocks");
+        }
+        hotLocks.clear();
+    }
+
+    @Test
+    void should_report_most_contended_locks() {
+        // given
+        assertThat(distributedLock.acquire(Lock.of("hot").withOwner("owner-1"))).isPresent();
+        assertThat(distributedLock.acquire(Lock.of("warm").withOwner("owner-1"))).isPresent();
+
+        // when
+        IntStream.range(0, 5).forEach(i -> distributedLock.acquire(Lock.of("hot").withOwner("owner-2")));
+        distributedLock.acquire(Lock.of("warm").withOwner("owner-2"));
+        distributedLock.tryAcquire(Lock.of("hot").withOwner("owner-3"), Duration.ofMillis(100));
+
+        // then
+        HotLocksEndpoint.Report report = hotLocksEndpoint.hotLocks(null);
+        assertThat(report.getTotal()).isEqualTo(7);
+        assertThat(report.getLocks()).extracting(HotLocks.HotLock::getLockedBy).containsExactly("hot", "warm");
+        assertThat(report.getLocks().get(0).getContended()).isEqualTo(6);
+        assertThat(report.getLocks().get(0).getFailed()).isEqualTo(6);
+        assertThat(report.getLocks().get(0).getMax()).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+    }
+
+    @Test
+    void should_report_contended_group_locks() {
+        // given
+        DistributedLock batchLock = distributedLockGroups.get("batch");
+        assertThat(batchLock.acquire(Lock.of("batch-hot").withOwner("owner-1"))).isPresent();
+
+        // when
+        IntStream.range(0, 3).forEach(i -> batchLock.acquire(Lock.of("batch-hot").withOwner("owner-2")));
+
+        // then
+        HotLocksEndpoint.Report report = hotLocksEndpoint.hotLocks(null);
+        assertThat(report.getLocks()).extracting(HotLocks.HotLock::getLockedBy).containsExactly("batch-hot");
+        assertThat(report.getLocks().get(0).getContended()).isEqualTo(3);
+    }
+
+    @SpringBootApplication
+    static class SpringBootTestApplication {
+    }
+}
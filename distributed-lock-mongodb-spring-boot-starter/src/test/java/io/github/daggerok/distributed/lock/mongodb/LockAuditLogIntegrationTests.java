@@ -0,0 +1,79 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import io.github.daggerok.distributed.lock.mongodb.autoconfigure.DistributedLockProperties;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@AllArgsConstructor(onConstructor_ = @Autowired)
+@DisplayName("LockAuditLog integration tests")
+@SpringBootTest(properties = {
+        "io.github.daggerok.distributed.lock.mongodb.audit.enabled=true",
+        "io.github.daggerok.distributed.lock.mongodb.audit.flush-interval=20ms",
+})
+class LockAuditLogIntegrationTests extends AbstractTestcontainersTests {
+
+    MongoTemplate mongoTemplate;
+    LockAuditLog lockAuditLog;
+    DistributedLock distributedLock;
+    DistributedLockProperties props;
+
+    @Test
+    void should_write_who_held_which_lock_and_when_asynchronously() throws Exception {
+        // given
+        String lockedBy = "audited-" + UUID.randomUUID();
+        Optional<Lock> maybeLock = distributedLock.acquire(Lock.of(lockedBy).withOwner("owner-1"));
+        assertThat(maybeLock).isPresent();
+
+        // when
+        distributedLock.acquire(Lock.of(lockedBy).withOwner("owner-2"));
+        distributedLock.release(maybeLock.get().getId(), "owner-1");
+
+        // then
+        List<Document> records = awaitAuditRecords(lockedBy, 2);
+        assertThat(records).extracting(record -> record.getString("type")).containsExactly("ACQUIRED", "RELEASED");
+        assertThat(records).extracting(record -> record.getString("owner")).containsOnly("owner-1");
+        assertThat(records).extracting(record -> record.getString("lockId")).containsOnly(maybeLock.get().getId());
+        assertThat(records).allSatisfy(record -> assertThat(record.getDate("occurredAt")).isNotNull());
+        assertThat(lockAuditLog.getDropped()).isZero();
+    }
+
+    @Test
+    void should_store_audit_log_in_capped_collection() {
+        // given
+        String collectionName = props.getAudit().getCollectionName();
+
+        // when
+        Document options = mongoTemplate.getDb().listCollections().filter(new Document("name", collectionName))
+                .first().get("options", Document.class);
+
+        // then
+        assertThat(options.getBoolean("capped")).isTrue();
+    }
+
+    List<Document> awaitAuditRecords(String lockedBy, int count) throws InterruptedException {
+        Query query = Query.query(Criteria.where("lockedBy").is(lockedBy));
+        String collectionName = props.getAudit().getCollectionName();
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (mongoTemplate.count(query, collectionName) < count && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        return mongoTemplate.find(query, Document.class, collectionName);
+    }
+
+    @SpringBootApplication
+    static class SpringBootTestApplication {
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import io.github.daggerok.distributed.lock.mongodb.autoconfigure.DistributedLockProperties;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import lombok.AllArgsConstructor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@AllArgsConstructor(onConstructor_ = @Autowired)
+@DisplayName("LockBatcher integration tests")
+@SpringBootTest(properties = "io.github.daggerok.distributed.lock.mongodb.batching.enabled=true")
+class LockBatcherIntegrationTests extends AbstractTestcontainersTests {
+
+    MongoTemplate mongoTemplate;
+    LockBatcher lockBatcher;
+    DistributedLock distributedLock;
+    DistributedLockProperties props;
+
+    @BeforeEach
+    void before_each() {
+        if (mongoTemplate.collectionExists(props.getLockCollectionName())) {
+            mongoTemplate.remove(new Query(), props.getLockCollectionName());
+        }
+    }
+
+    @Test
+    void should_acquire_and_release_concurrent_requests_in_batches() {
+        // when
+        List<Optional<Lock>> acquired = IntStream.range(0, 50)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> lockBatcher.acquire(Lock.of("batched", i))))
+                .toList()
+                .stream()
+                .map(CompletableFuture::join)
+                .toList();
+
+        // then
+        assertThat(acquired).allMatch(Optional::isPresent);
+        assertThat(acquired).extracting(Optional::get).extracting(Lock::getState).containsOnly(Lock.State.LOCKED);
+
+        // and held locks are not acquired again
+        assertThat(lockBatcher.acquire(Lock.of("batched", 0))).isEmpty();
+        assertThat(distributedLock.acquire(Lock.of("batched", 1))).isEmpty();
+
+        // when
+        List<Optional<Lock>> released = acquired.stream()
+                .map(lock -> CompletableFuture.supplyAsync(() -> lockBatcher.release(lock.get())))
+                .toList()
+                .stream()
+                .map(CompletableFuture::join)
+                .toList();
+
+        // then
+        assertThat(released).allMatch(Optional::isPresent);
+        assertThat(lockBatcher.acquire(Lock.of("batched", 0))).isPresent();
+        assertThat(distributedLock.acquire(Lock.of("batched", 1))).isPresent();
+    }
+
+    @Test
+    void should_acquire_contended_lock_once_within_batch() {
+        // when
+        long acquired = IntStream.range(0, 10)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> lockBatcher.acquire(Lock.of("contended"))))
+                .toList()
+                .stream()
+                .map(CompletableFuture::join)
+                .filter(Optional::isPresent)
+                .count();
+
+        // then
+        assertThat(acquired).isEqualTo(1);
+    }
+
+    @Test
+    void should_forget_locally_held_lock_released_in_batch() {
+        // given
+        Lock held = distributedLock.acquire(Lock.of("batched-held").withOwner("owner-1")).orElseThrow();
+
+        // when
+        Optional<Lock> released = lockBatcher.release(held);
+
+        // then
+        assertThat(released).isPresent();
+
+        // and lock is acquired again instead of being re-entered
+        assertThat(distributedLock.acquire(Lock.of("batched-held").withOwner("owner-1")))
+                .hasValueSatisfying(lock -> assertThat(lock.getHoldCount()).isEqualTo(1));
+    }
+
+    @Test
+    @SneakyThrows
+    void should_complete_requests_submitted_concurrently_with_close() {
+        // given
+        LockBatcher batcher = distributedLock.batcher(Duration.ofMillis(1), 8);
+        List<CompletableFuture<Optional<Lock>>> acquiring = IntStream.range(0, 50)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> batcher.acquire(Lock.of("closing", i))))
+                .toList();
+
+        // when
+        batcher.close();
+
+        // then
+        CompletableFuture.allOf(acquiring.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        assertThat(acquiring).allMatch(acquired -> acquired.join().isPresent());
+    }
+
+    @SpringBootApplication
+    static class SpringBootTestApplication {
+    }
+}
@@ -0,0 +1,120 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import io.github.daggerok.distributed.lock.mongodb.autoconfigure.DistributedLockProperties;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.AllArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@AllArgsConstructor(onConstructor_ = @Autowired)
+@DisplayName("PartitionAssignor integration tests")
+class PartitionAssignorIntegrationTests extends AbstractTestcontainersTests {
+
+    private static final Duration HEARTBEAT = Duration.ofMillis(50);
+    private static final Set<Integer> ALL = IntStream.range(0, 8).boxed().collect(Collectors.toSet());
+
+    MongoTemplate mongoTemplate;
+    DistributedLock distributedLock;
+    DistributedLockProperties props;
+
+    @BeforeEach
+    void before_each() {
+        if (mongoTemplate.collectionExists(props.getLockCollectionName())) {
+            mongoTemplate.remove(new Query(), props.getLockCollectionName());
+        }
+        if (mongoTemplate.collectionExists(props.getLockCollectionName() + "Members")) {
+            mongoTemplate.remove(new Query(), props.getLockCollectionName() + "Members");
+        }
+    }
+
+    @Test
+    void should_rebalance_partitions_on_join_and_leave() {
+        try (PartitionAssignor first = distributedLock.partitionAssignor("rebalance", 8, HEARTBEAT)) {
+            // when
+            await(() -> first.owned().equals(ALL));
+
+            // then
+            assertThat(first.owned()).isEqualTo(ALL);
+
+            // when
+            PartitionAssignor second = distributedLock.partitionAssignor("rebalance", 8, HEARTBEAT);
+            await(() -> first.owned().size() == 4 && second.owned().size() == 4);
+
+            // then
+            Set<Integer> both = new HashSet<>(first.owned());
+            both.addAll(second.owned());
+            assertThat(both).isEqualTo(ALL);
+
+            // when
+            second.close();
+            await(() -> first.owned().equals(ALL));
+
+            // then
+            assertThat(first.owned()).isEqualTo(ALL);
+            assertThat(second.owned()).isEmpty();
+        }
+    }
+
+    @Test
+    void should_not_claim_partition_held_as_ordinary_lock() {
+        // given
+        Lock held = distributedLock.acquire(Lock.of("exclusive", 0)).orElseThrow();
+
+        try (PartitionAssignor assignor = distributedLock.partitionAssignor("exclusive", 2, HEARTBEAT)) {
+            // when
+            await(() -> assignor.owned().contains(1));
+
+            // then
+            assertThat(assignor.owned()).containsExactly(1);
+
+            // when
+            distributedLock.release(held.getId());
+            await(() -> assignor.owned().size() == 2);
+
+            // then
+            assertThat(assignor.owned()).containsExactlyInAnyOrder(0, 1);
+            assertThat(distributedLock.acquire(Lock.of("exclusive", 0))).isEmpty();
+        }
+    }
+
+    @Test
+    void should_not_create_assignor_with_heartbeat_not_shorter_than_lock_period() {
+        // when
+        assertThatThrownBy(() -> distributedLock.partitionAssignor("slow", 2, props.getLockPeriod()))
+                // then
+                .isInstanceOf(LockException.class)
+                .hasMessage("heartbeat must be shorter than lock period");
+    }
+
+    private static void await(BooleanSupplier condition) {
+        Instant deadline = Instant.now().plusSeconds(5);
+        while (!condition.getAsBoolean() && Instant.now().isBefore(deadline)) {
+            try {
+                Thread.sleep(HEARTBEAT.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @SpringBootApplication
+    static class SpringBootTestApplication {
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import io.github.daggerok.distributed.lock.mongodb.QuorumDistributedLock.QuorumLock;
+import io.github.daggerok.distributed.lock.mongodb.autoconfigure.DistributedLockProperties;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import lombok.AllArgsConstructor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AllArgsConstructor(onConstructor_ = @Autowired)
+@DisplayName("QuorumDistributedLock integration tests")
+class QuorumDistributedLockIntegrationTests extends AbstractTestcontainersTests {
+
+    /**
+     * Unreachable deployment, which doesn't answer longer than node timeout.
+     */
+    static final MongoClient deadMongoClient =
+            MongoClients.create("mongodb://127.0.0.1:1/?serverSelectionTimeoutMS=3000&connectTimeoutMS=100");
+
+    MongoClient mongoClient;
+    DistributedLockProperties props;
+
+    @BeforeEach
+    void before_each() {
+        IntStream.range(0, 3).forEach(i -> deployment(i).remove(new Query(), props.getLockCollectionName()));
+    }
+
+    @AfterAll
+    static void after_all() {
+        deadMongoClient.close();
+    }
+
+    @Test
+    void should_acquire_on_fastest_majority_and_release_everywhere() throws Exception {
+        // given
+        try (QuorumDistributedLock quorumLock = quorumLock(deployment(0), deployment(1), new MongoTemplate(deadMongoClient, "dead"))) {
+
+            // when
+            Instant startedAt = Instant.now();
+            Optional<QuorumLock> maybeAcquired = quorumLock.acquire(Lock.of("quorum"));
+
+            // then
+            assertThat(maybeAcquired).isPresent();
+            assertThat(Duration.between(startedAt, Instant.now())).isLessThan(Duration.ofSeconds(2));
+            assertThat(maybeAcquired.get().getLocks()).containsOnlyKeys(0, 1);
+            assertThat(maybeAcquired.get().getValidUntil()).isAfter(Instant.now().plus(props.getLockPeriod()).minusSeconds(2));
+
+            // and
+            assertThat(quorumLock.acquire(Lock.of("quorum"))).isEmpty();
+
+            // when
+            Integer released = quorumLock.release(maybeAcquired.get()).get(5, TimeUnit.SECONDS);
+
+            // then
+            assertThat(released).isEqualTo(2);
+            assertThat(quorumLock.acquire(Lock.of("quorum"))).isPresent();
+        }
+    }
+
+    @Test
+    void should_persist_requested_lock_period_on_every_node_and_be_valid_for_it() {
+        // given
+        try (QuorumDistributedLock quorumLock = quorumLock(deployment(0), deployment(1), deployment(2))) {
+            QuorumLock created = quorumLock.acquire(Lock.of("period")).orElseThrow();
+            quorumLock.release(created).join();
+
+            // when
+            Optional<QuorumLock> maybeAcquired = quorumLock.acquire(Lock.of(Duration.ofMinutes(1), "period"));
+
+            // then
+            assertThat(maybeAcquired).isPresent();
+            assertThat(maybeAcquired.get().getLocks().values()).extracting(Lock::getLockPeriod).containsOnly(Duration.ofMinutes(1));
+            assertThat(maybeAcquired.get().getValidUntil()).isAfter(Instant.now().plus(Duration.ofMinutes(1)).minusSeconds(2));
+        }
+    }
+
+    @Test
+    void should_release_minority_if_majority_was_not_acquired() throws Exception {
+        // given
+        deployment(1).insert(Lock.of("minority").withOwner("another").withState(Lock.State.LOCKED).withLockedAt(Instant.now())
+                .withLastModifiedAt(Instant.now()), props.getLockCollectionName());
+        deployment(2).insert(Lock.of("minority").withOwner("another").withState(Lock.State.LOCKED).withLockedAt(Instant.now())
+                .withLastModifiedAt(Instant.now()), props.getLockCollectionName());
+
+        try (QuorumDistributedLock quorumLock = quorumLock(deployment(0), deployment(1), deployment(2))) {
+
+            // when
+            Optional<QuorumLock> maybeAcquired = quorumLock.acquire(Lock.of("minority"));
+
+            // then
+            assertThat(maybeAcquired).isEmpty();
+            Query minority = Query.query(Criteria.where("lockedBy").is("minority").and("state").is(Lock.State.NONE));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!deployment(0).exists(minority, props.getLockCollectionName()) && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            assertThat(deployment(0).exists(minority, props.getLockCollectionName())).isTrue();
+        }
+    }
+
+    /**
+     * Every deployment is a separate database of the same test mongod, so independent failures of deployments are not
+     * covered here, use {@code docker} module {@code quorum} profile to run quorum lock against three mongod instances.
+     */
+    MongoTemplate deployment(int index) {
+        return new MongoTemplate(mongoClient, "quorum-" + index);
+    }
+
+    QuorumDistributedLock quorumLock(MongoTemplate... deployments) {
+        List<DistributedLock> nodes = List.of(deployments).stream()
+                .map(mongoTemplate -> new DistributedLock(props.getLockCollectionName(), props.getLockPeriod(), mongoTemplate))
+                .toList();
+        return new QuorumDistributedLock(nodes, props.getLockPeriod(), Duration.ofMillis(500), 0.01);
+    }
+
+    @SpringBootApplication
+    static class SpringBootTestApplication {
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.daggerok.distributed.lock.mongodb.stress;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import lombok.Value;
+
+/**
+ * Mutual exclusion checker of merged acquire / release histories.
+ * <p>
+ * Real hold of every acquired lock starts on the server before acquisition response and lasts at least until
+ * release invocation, if release has confirmed lock was still held by its owner, or until its lease end otherwise.
+ * So observed exclusive intervals of the same key must never overlap, any overlap means two owners were holding
+ * the same lock at the same time.
+ */
+public class HistoryChecker {
+
+    /**
+     * @param history - merged history of all processes
+     * @return overlapping exclusive intervals, empty if history is mutually exclusive
+     */
+    public List<Violation> check(Collection<Operation> history) {
+        Map<String, List<Operation>> byKey = history.stream()
+                .filter(Operation::isAcquired)
+                .collect(Collectors.groupingBy(Operation::getKey));
+
+        List<Violation> violations = new ArrayList<>();
+        byKey.values().forEach(operations -> {
+            operations.sort(Comparator.comparingLong(Operation::getAcquireCompletedAt));
+            Operation latest = null;
+            for (Operation operation : operations) {
+                if (Objects.nonNull(latest) && operation.getAcquireCompletedAt() < latest.exclusiveUntil())
+                    violations.add(new Violation(latest, operation));
+                if (Objects.isNull(latest) || operation.exclusiveUntil() > latest.exclusiveUntil())
+                    latest = operation;
+            }
+        });
+        return violations;
+    }
+
+    @Value
+    public static class Violation {
+        Operation holder;
+        Operation overlapping;
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.daggerok.distributed.lock.mongodb.stress;
+
+/**
+ * Log-linear latency histogram: every power of two range is split into 32 linear sub-buckets, so any recorded value
+ * is reported with at most ~3% error using fixed memory.
+ * <p>
+ * Usage:
+ * <pre>
+ *     var histogram = new LatencyHistogram();
+ *     history.forEach(operation -> histogram.record(operation.getAcquireCompletedAt() - operation.getAcquireInvokedAt()));
+ *     log.info("p99: {}us", histogram.percentile(99));
+ * </pre>
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final long[] counts = new long[64 * SUB_BUCKETS];
+    private long count;
+    private long max;
+
+    /**
+     * @param value - non-negative latency, for example in microseconds
+     */
+    public void record(long value) {
+        long aValue = Math.max(0, value);
+        counts[index(aValue)]++;
+        count++;
+        max = Math.max(max, aValue);
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    /**
+     * @param percentile - percentile, from 0 to 100
+     * @return upper bound of a bucket containing given percentile, or 0 if nothing was recorded
+     */
+    public long percentile(double percentile) {
+        if (count == 0) return 0;
+
+        long rank = (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * count);
+        long seen = 0;
+        for (int index = 0; index < counts.length; index++) {
+            seen += counts[index];
+            if (seen >= Math.max(1, rank)) return Math.min(max, upperBound(index));
+        }
+        return max;
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+
+        int magnitude = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        long lowerBound = (1L << magnitude) + (subBucket << (magnitude - SUB_BUCKET_BITS));
+        return lowerBound + (1L << (magnitude - SUB_BUCKET_BITS)) - 1;
+    }
+}
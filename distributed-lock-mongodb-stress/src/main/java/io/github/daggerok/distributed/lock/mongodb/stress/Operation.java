@@ -0,0 +1,67 @@
+package io.github.daggerok.distributed.lock.mongodb.stress;
+
+import lombok.Value;
+
+/**
+ * Single acquire attempt history entry. All timestamps are wall clock epoch microseconds, so histories of different
+ * JVMs on the same host can be merged and compared.
+ */
+@Value
+public class Operation {
+
+    String process;
+    String key;
+    String owner;
+
+    /**
+     * When acquisition was invoked.
+     */
+    long acquireInvokedAt;
+
+    /**
+     * When acquisition has returned.
+     */
+    long acquireCompletedAt;
+
+    boolean acquired;
+
+    /**
+     * When release was invoked, or -1 if lock wasn't acquired.
+     */
+    long releaseInvokedAt;
+
+    /**
+     * When release has returned, or -1 if lock wasn't acquired.
+     */
+    long releaseCompletedAt;
+
+    /**
+     * If lock was still held by its owner on release, so it wasn't taken over after its lock period.
+     */
+    boolean released;
+
+    long lockPeriodMicros;
+
+    /**
+     * Conservative interval while holder could rely on the lock: from acquisition response until release invocation,
+     * or until its lease end, if lock was taken over.
+     *
+     * @return end of exclusive hold interval
+     */
+    public long exclusiveUntil() {
+        return released ? releaseInvokedAt : Math.min(releaseInvokedAt, acquireInvokedAt + lockPeriodMicros);
+    }
+
+    String toLine() {
+        return String.join("\t", process, key, owner, String.valueOf(acquireInvokedAt), String.valueOf(acquireCompletedAt),
+                String.valueOf(acquired), String.valueOf(releaseInvokedAt), String.valueOf(releaseCompletedAt),
+                String.valueOf(released), String.valueOf(lockPeriodMicros));
+    }
+
+    static Operation fromLine(String line) {
+        String[] fields = line.split("\t");
+        return new Operation(fields[0], fields[1], fields[2], Long.parseLong(fields[3]), Long.parseLong(fields[4]),
+                Boolean.parseBoolean(fields[5]), Long.parseLong(fields[6]), Long.parseLong(fields[7]),
+                Boolean.parseBoolean(fields[8]), Long.parseLong(fields[9]));
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.daggerok.distributed.lock.mongodb.stress;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.Value;
+import lombok.With;
+
+/**
+ * Stress test configuration, parsed from {@code --name=value} command line arguments.
+ * <p>
+ * Usage:
+ * <pre>
+ *     --uri=mongodb://localhost:27017/stress --forks=4 --threads=16 --keys=8 --duration=PT1M --warmup=PT5S --lock-period=PT1S
+ * </pre>
+ */
+@With
+@Value
+public class StressConfig {
+
+    /**
+     * Mongo connection string including database.
+     */
+    String uri;
+
+    /**
+     * Lock collection, which is cleaned up before every run.
+     */
+    String collection;
+
+    /**
+     * Count of forked worker JVMs, in addition to coordinator JVM.
+     */
+    int forks;
+
+    /**
+     * Count of worker threads per JVM.
+     */
+    int threads;
+
+    /**
+     * Count of contended lock keys.
+     */
+    int keys;
+
+    /**
+     * How long to run.
+     */
+    Duration duration;
+
+    /**
+     * How long to wait for forked worker JVMs startup, so all processes start workload at the same time.
+     */
+    Duration warmup;
+
+    /**
+     * Lock period of every acquired lock.
+     */
+    Duration lockPeriod;
+
+    /**
+     * Max random time to hold acquired lock.
+     */
+    Duration maxHold;
+
+    /**
+     * Ratio of holds, which are going to overrun their lock period, so lease expiry takeover races are exercised.
+     */
+    double overrunRatio;
+
+    public static StressConfig defaults() {
+        return new StressConfig("mongodb://localhost:27017/stress", "stressLock", 2, 8, 16,
+                Duration.ofSeconds(30), Duration.ofSeconds(5), Duration.ofSeconds(1), Duration.ofMillis(5), 0.001);
+    }
+
+    public static StressConfig parse(String... args) {
+        Map<String, String> options = Arrays.stream(args)
+                .filter(arg -> arg.startsWith("--") && arg.contains("="))
+                .map(arg -> arg.substring(2).split("=", 2))
+                .collect(Collectors.toMap(option -> option[0], option -> option[1], (first, last) -> last));
+
+        StressConfig defaults = defaults();
+        return new StressConfig(
+                options.getOrDefault("uri", defaults.uri),
+                options.getOrDefault("collection", defaults.collection),
+                option(options, "forks", Integer::parseInt, defaults.forks),
+                option(options, "threads", Integer::parseInt, defaults.threads),
+                option(options, "keys", Integer::parseInt, defaults.keys),
+                option(options, "duration", Duration::parse, defaults.duration),
+                option(options, "warmup", Duration::parse, defaults.warmup),
+                option(options, "lock-period", Duration::parse, defaults.lockPeriod),
+                option(options, "max-hold", Duration::parse, defaults.maxHold),
+                option(options, "overrun-ratio", Double::parseDouble, defaults.overrunRatio)
+        );
+    }
+
+    /**
+     * @return command line arguments to pass this config to forked worker JVM
+     */
+    public List<String> toArgs() {
+        List<String> args = new ArrayList<>();
+        args.add("--uri=" + uri);
+        args.add("--collection=" + collection);
+        args.add("--forks=" + forks);
+        args.add("--threads=" + threads);
+        args.add("--keys=" + keys);
+        args.add("--duration=" + duration);
+        args.add("--warmup=" + warmup);
+        args.add("--lock-period=" + lockPeriod);
+        args.add("--max-hold=" + maxHold);
+        args.add("--overrun-ratio=" + overrunRatio);
+        return args;
+    }
+
+    private static <T> T option(Map<String, String> options, String name, Function<String, T> parser, T defaultValue) {
+        return options.containsKey(name) ? parser.apply(options.get(name)) : defaultValue;
+    }
+}
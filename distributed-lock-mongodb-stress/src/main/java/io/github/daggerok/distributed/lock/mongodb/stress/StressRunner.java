@@ -0,0 +1,238 @@
+package io.github.daggerok.distributed.lock.mongodb.stress;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import io.github.daggerok.distributed.lock.mongodb.DistributedLock;
+import io.github.daggerok.distributed.lock.mongodb.Lock;
+import io.github.daggerok.distributed.lock.mongodb.stress.HistoryChecker.Violation;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Multi-process stress test of {@link DistributedLock} mutual exclusion and throughput against real mongod.
+ * <p>
+ * Coordinator cleans up lock collection, forks worker JVMs and runs the same workload itself. Every worker thread
+ * repeatedly acquires random contended key, holds it for random time, sometimes overrunning its lock period, so
+ * expired lock takeover races are exercised, and releases it only if it's still held by its owner. All attempts are
+ * recorded with wall clock timestamps into per-process history files, which are merged by coordinator, verified by
+ * {@link HistoryChecker} and summarized as throughput and latency histograms. Coordinator exits with non-zero status
+ * if mutual exclusion was violated.
+ * <p>
+ * Usage:
+ * <pre>
+ *     ./mvnw -f docker docker:start
+ *     ./mvnw -P stress -pl distributed-lock-mongodb-stress -am -DskipTests install
+ *     ./mvnw -P stress -f distributed-lock-mongodb-stress exec:exec -Dstress.args="--forks=4 --threads=16 --keys=4"
+ * </pre>
+ */
+@Log4j2
+@RequiredArgsConstructor
+public class StressRunner {
+
+    private static final String WORKER = "--worker";
+    private static final String HISTORY = "--history=";
+    private static final String START_AT = "--start-at=";
+
+    private final StressConfig config;
+    private final String process;
+    private final Instant startAt;
+
+    public static void main(String[] args) throws Exception {
+        StressConfig config = StressConfig.parse(args);
+        Optional<Path> workerHistory = Arrays.stream(args)
+                .filter(arg -> arg.startsWith(HISTORY))
+                .map(arg -> Path.of(arg.substring(HISTORY.length())))
+                .findFirst();
+
+        Instant startAt = Arrays.stream(args)
+                .filter(arg -> arg.startsWith(START_AT))
+                .map(arg -> Instant.parse(arg.substring(START_AT.length())))
+                .findFirst()
+                .orElseGet(Instant::now);
+
+        boolean isWorker = Arrays.asList(args).contains(WORKER);
+        if (isWorker) {
+            String process = ManagementFactory.getRuntimeMXBean().getName();
+            History.write(workerHistory.orElseThrow(), new StressRunner(config, process, startAt).run());
+            return;
+        }
+
+        List<Violation> violations = coordinate(config);
+        System.exit(violations.isEmpty() ? 0 : 1);
+    }
+
+    /**
+     * Run whole multi-process stress test.
+     *
+     * @param config - stress test configuration
+     * @return mutual exclusion violations
+     */
+    static List<Violation> coordinate(StressConfig config) throws IOException, InterruptedException {
+        log.info("Starting stress test: {}", config);
+        try (MongoClient mongoClient = MongoClients.create(config.getUri())) {
+            mongoTemplate(mongoClient, config).remove(new Query(), config.getCollection());
+        }
+
+        Instant startAt = Instant.now().plus(config.getWarmup());
+        Path directory = Files.createTempDirectory("distributed-lock-stress");
+        List<Path> histories = new ArrayList<>();
+        List<Process> forks = new ArrayList<>();
+        for (int fork = 0; fork < config.getForks(); fork++) {
+            Path history = directory.resolve("fork-" + fork + ".tsv");
+            histories.add(history);
+            forks.add(fork(config, history, startAt));
+        }
+
+        String process = ManagementFactory.getRuntimeMXBean().getName();
+        List<Operation> history = new ArrayList<>(new StressRunner(config, process, startAt).run());
+        for (Process fork : forks) {
+            if (fork.waitFor() != 0) throw new IllegalStateException("Stress test worker has failed: " + fork.pid());
+        }
+        for (Path path : histories) history.addAll(History.read(path));
+
+        List<Violation> violations = new HistoryChecker().check(history);
+        report(config, history, violations);
+        return violations;
+    }
+
+    /**
+     * Run workload of this process.
+     *
+     * @return history of all acquire attempts
+     */
+    Collection<Operation> run() throws InterruptedException {
+        ConcurrentLinkedQueue<Operation> history = new ConcurrentLinkedQueue<>();
+        try (MongoClient mongoClient = MongoClients.create(config.getUri())) {
+            DistributedLock distributedLock = new DistributedLock(config.getCollection(), config.getLockPeriod(),
+                    mongoTemplate(mongoClient, config));
+            sleep(Duration.between(Instant.now(), startAt));
+            Instant deadline = startAt.plus(config.getDuration());
+            List<Thread> workers = IntStream.range(0, config.getThreads())
+                    .mapToObj(i -> new Thread(() -> work(distributedLock, deadline, history), "stress-worker-" + i))
+                    .toList();
+            workers.forEach(Thread::start);
+            for (Thread worker : workers) worker.join();
+        }
+        log.info("Process {} has recorded {} operations", process, history.size());
+        return history;
+    }
+
+    private void work(DistributedLock distributedLock, Instant deadline, Collection<Operation> history) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long lockPeriodMicros = config.getLockPeriod().toNanos() / 1000;
+        while (Instant.now().isBefore(deadline)) {
+            String key = "stress-" + random.nextInt(config.getKeys());
+            long acquireInvokedAt = nowMicros();
+            Optional<Lock> maybeLock = distributedLock.acquire(Lock.of(config.getLockPeriod(), key));
+            long acquireCompletedAt = nowMicros();
+            if (maybeLock.isEmpty()) {
+                history.add(new Operation(process, key, "", acquireInvokedAt, acquireCompletedAt, false, -1, -1, false, lockPeriodMicros));
+                Thread.onSpinWait();
+                continue;
+            }
+
+            Lock lock = maybeLock.get();
+            boolean isOverrun = random.nextDouble() < config.getOverrunRatio();
+            Duration hold = isOverrun
+                    ? config.getLockPeriod().plus(config.getLockPeriod().dividedBy(2))
+                    : Duration.ofNanos(random.nextLong(config.getMaxHold().toNanos() + 1));
+            sleep(hold);
+
+            long releaseInvokedAt = nowMicros();
+            boolean released = distributedLock.release(lock.getId(), lock.getOwner()).isPresent();
+            long releaseCompletedAt = nowMicros();
+            history.add(new Operation(process, key, lock.getOwner(), acquireInvokedAt, acquireCompletedAt, true,
+                    releaseInvokedAt, releaseCompletedAt, released, lockPeriodMicros));
+        }
+    }
+
+    private static Process fork(StressConfig config, Path history, Instant startAt) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(StressRunner.class.getName());
+        command.addAll(config.toArgs());
+        command.add(WORKER);
+        command.add(HISTORY + history);
+        command.add(START_AT + startAt);
+        return new ProcessBuilder(command).inheritIO().start();
+    }
+
+    private static void report(StressConfig config, List<Operation> history, List<Violation> violations) {
+        LatencyHistogram acquire = new LatencyHistogram();
+        LatencyHistogram release = new LatencyHistogram();
+        history.forEach(operation -> {
+            acquire.record(operation.getAcquireCompletedAt() - operation.getAcquireInvokedAt());
+            if (operation.isAcquired()) release.record(operation.getReleaseCompletedAt() - operation.getReleaseInvokedAt());
+        });
+        long acquired = history.stream().filter(Operation::isAcquired).count();
+        long takenOver = history.stream().filter(Operation::isAcquired).filter(operation -> !operation.isReleased()).count();
+        double seconds = config.getDuration().toMillis() / 1000.0;
+
+        log.info("Processes: {}, threads: {}, keys: {}, duration: {}", config.getForks() + 1, config.getThreads(), config.getKeys(), config.getDuration());
+        log.info("Attempts: {} ({} ops/s), acquired: {} ({} ops/s), taken over after lease expiry: {}",
+                history.size(), Math.round(history.size() / seconds), acquired, Math.round(acquired / seconds), takenOver);
+        log.info("Acquire latency us: {}", summary(acquire));
+        log.info("Release latency us: {}", summary(release));
+        violations.forEach(violation -> log.error("Mutual exclusion violation: {}", violation));
+        log.info(violations.isEmpty() ? "Mutual exclusion verified" : "Mutual exclusion violated {} times", violations.size());
+    }
+
+    private static String summary(LatencyHistogram histogram) {
+        return String.format("count=%d p50=%d p90=%d p99=%d p99.9=%d max=%d", histogram.count(),
+                histogram.percentile(50), histogram.percentile(90), histogram.percentile(99), histogram.percentile(99.9),
+                histogram.max());
+    }
+
+    private static MongoTemplate mongoTemplate(MongoClient mongoClient, StressConfig config) {
+        String database = Objects.requireNonNull(new ConnectionString(config.getUri()).getDatabase(), "database is required");
+        return new MongoTemplate(mongoClient, database);
+    }
+
+    private static long nowMicros() {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isNegative()) return;
+        try {
+            Thread.sleep(duration.toMillis(), (int) (duration.toNanos() % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static class History {
+
+        static void write(Path path, Collection<Operation> history) throws IOException {
+            Files.write(path, history.stream().map(Operation::toLine).toList());
+        }
+
+        static List<Operation> read(Path path) throws IOException {
+            try (Stream<String> lines = Files.lines(path)) {
+                return lines.filter(line -> !line.isEmpty()).map(Operation::fromLine).toList();
+            }
+        }
+    }
+}
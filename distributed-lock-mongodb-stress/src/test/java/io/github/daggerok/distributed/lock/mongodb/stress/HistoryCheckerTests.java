@@ -0,0 +1,117 @@
+package io.github.daggerok.distributed.lock.mongodb.stress;
+
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("HistoryChecker tests")
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class HistoryCheckerTests {
+
+    HistoryChecker checker = new HistoryChecker();
+
+    @Test
+    void should_accept_sequential_holds_of_the_same_key() {
+        // given
+        List<Operation> history = List.of(
+                held("a", "key", 0, 10, 20, true),
+                held("b", "key", 5, 21, 30, true),
+                held("c", "key", 25, 31, 40, true)
+        );
+
+        // when
+        List<HistoryChecker.Violation> violations = checker.check(history);
+
+        // then
+        assertThat(violations).isEmpty();
+    }
+
+    @Test
+    void should_accept_overlapping_holds_of_different_keys() {
+        // when
+        List<HistoryChecker.Violation> violations = checker.check(List.of(
+                held("a", "key-1", 0, 10, 20, true),
+                held("b", "key-2", 0, 11, 19, true)
+        ));
+
+        // then
+        assertThat(violations).isEmpty();
+    }
+
+    @Test
+    void should_detect_overlapping_holds_of_the_same_key() {
+        // given
+        Operation holder = held("a", "key", 0, 10, 50, true);
+        Operation overlapping = held("b", "key", 15, 20, 30, true);
+
+        // when
+        List<HistoryChecker.Violation> violations = checker.check(List.of(overlapping, holder));
+
+        // then
+        assertThat(violations).containsExactly(new HistoryChecker.Violation(holder, overlapping));
+    }
+
+    @Test
+    void should_detect_overlap_with_long_hold_across_many_later_holds() {
+        // when
+        List<HistoryChecker.Violation> violations = checker.check(List.of(
+                held("a", "key", 0, 10, 100, true),
+                held("b", "key", 15, 20, 30, true),
+                held("c", "key", 35, 40, 50, true)
+        ));
+
+        // then
+        assertThat(violations).hasSize(2);
+    }
+
+    @Test
+    void should_accept_takeover_after_lease_end_of_not_released_hold() {
+        // given lease of 100us, which was overrun by its holder
+        Operation overrun = held("a", "key", 0, 10, 250, false);
+        Operation takeover = held("b", "key", 101, 120, 130, true);
+
+        // when
+        List<HistoryChecker.Violation> violations = checker.check(List.of(overrun, takeover));
+
+        // then
+        assertThat(violations).isEmpty();
+    }
+
+    @Test
+    void should_ignore_failed_attempts() {
+        // when
+        List<HistoryChecker.Violation> violations = checker.check(List.of(
+                held("a", "key", 0, 10, 50, true),
+                new Operation("b", "key", "", 15, 20, false, -1, -1, false, 100)
+        ));
+
+        // then
+        assertThat(violations).isEmpty();
+    }
+
+    @Test
+    void should_report_latency_percentiles_within_bucket_precision() {
+        // given
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // when
+        for (long value = 1; value <= 10_000; value++) histogram.record(value);
+
+        // then
+        assertThat(histogram.count()).isEqualTo(10_000);
+        assertThat(histogram.max()).isEqualTo(10_000);
+        assertThat(histogram.percentile(50)).isBetween(5_000L, 5_000L * 103 / 100);
+        assertThat(histogram.percentile(99)).isBetween(9_900L, 9_900L * 103 / 100);
+        assertThat(histogram.percentile(100)).isEqualTo(10_000);
+    }
+
+    private static Operation held(String owner, String key, long acquireInvokedAt, long acquireCompletedAt,
+                                  long releaseInvokedAt, boolean released) {
+        return new Operation("process", key, owner, acquireInvokedAt, acquireCompletedAt, true,
+                releaseInvokedAt, releaseInvokedAt + 1, released, 100);
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bounded memory adaptive lock period: execution durations of {@link DistributedLock#acquireAndGet} and
+ * {@link DistributedLock#acquireAndRun} are tracked per {@link Lock#lockedBy}, and locks without explicit period are
+ * leased for observed p99 execution duration multiplied by safety factor, clamped by min and max period, instead of
+ * global default lock period. So crashed holders of fast locks are recovered in seconds, while slow locks are not
+ * expired in the middle of their executions.
+ * <p>
+ * Durations are recorded into small log-linear histograms with ~12% precision, which are decayed by halving every
+ * {@value #DECAY_WINDOW} samples, so lease follows changing execution times. Only most recently used keys are
+ * tracked, and until key has {@value #MIN_SAMPLES} samples, default lock period is used.
+ * <p>
+ * Usage:
+ * <pre>
+ *     var adaptiveLease = new AdaptiveLease(1000, 3, Duration.ofSeconds(1), Duration.ofMinutes(5));
+ *     var distributedLock = new DistributedLock(collectionName, lockPeriod, mongoTemplate).withAdaptiveLease(adaptiveLease);
+ * </pre>
+ */
+public class AdaptiveLease {
+
+    /**
+     * Disabled adaptive lease, nothing is recorded and default lock period is always used.
+     */
+    public static final AdaptiveLease NONE = new AdaptiveLease(0, 1, Duration.ZERO, Duration.ZERO);
+
+    static final int MIN_SAMPLES = 10;
+    static final int DECAY_WINDOW = 1024;
+
+    private final int capacity;
+    private final double safetyFactor;
+    private final Duration minPeriod;
+    private final Duration maxPeriod;
+    private final Map<String, HotLocks.WaitHistogram> executions;
+
+    /**
+     * @param capacity     - max count of tracked keys, least recently used keys are forgotten
+     * @param safetyFactor - p99 execution duration multiplier
+     * @param minPeriod    - min adaptive lock period
+     * @param maxPeriod    - max adaptive lock period
+     */
+    public AdaptiveLease(int capacity, double safetyFactor, Duration minPeriod, Duration maxPeriod) {
+        this.capacity = Math.max(0, capacity);
+        this.safetyFactor = Math.max(1, safetyFactor);
+        this.minPeriod = Objects.requireNonNull(minPeriod, "minPeriod may not be null");
+        this.maxPeriod = Objects.requireNonNull(maxPeriod, "maxPeriod may not be null");
+        this.executions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, HotLocks.WaitHistogram> eldest) {
+                return size() > AdaptiveLease.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Record execution duration of lock guarded execution.
+     *
+     * @param lockedBy  - {@link Lock#lockedBy} of executed lock
+     * @param execution - how long execution has been holding lock
+     */
+    public void record(String lockedBy, Duration execution) {
+        if (capacity == 0 || Objects.isNull(lockedBy)) return;
+
+        long executionMicros = Math.max(0, execution.toNanos() / 1000);
+        synchronized (this) {
+            HotLocks.WaitHistogram histogram = executions.computeIfAbsent(lockedBy, key -> new HotLocks.WaitHistogram());
+            histogram.record(executionMicros);
+            if (histogram.count() >= DECAY_WINDOW) histogram.decay();
+        }
+    }
+
+    /**
+     * @param lockedBy - {@link Lock#lockedBy} of lock to be acquired
+     * @return adaptive lock period or null if there are not enough samples yet, so default lock period should be used
+     */
+    public Duration period(String lockedBy) {
+        if (capacity == 0 || Objects.isNull(lockedBy)) return null;
+
+        long p99Micros;
+        synchronized (this) {
+            HotLocks.WaitHistogram histogram = executions.get(lockedBy);
+            if (Objects.isNull(histogram) || histogram.count() < MIN_SAMPLES) return null;
+            p99Micros = histogram.percentile(99);
+        }
+        Duration period = Duration.ofNanos((long) (p99Micros * 1000 * safetyFactor));
+        if (period.compareTo(minPeriod) < 0) return minPeriod;
+        if (period.compareTo(maxPeriod) > 0) return maxPeriod;
+        return period;
+    }
+
+    /**
+     * @param lock - lock to be acquired
+     * @return given lock if it has explicit lock period, otherwise lock with adaptive period if it's known
+     */
+    Lock apply(Lock lock) {
+        if (Objects.nonNull(lock.lockPeriodDuration)) return lock;
+        Duration period = period(lock.lockedBy);
+        return Objects.isNull(period) ? lock : lock.withLockPeriodDuration(period.toString());
+    }
+
+    public synchronized void clear() {
+        executions.clear();
+    }
+}
@@ -0,0 +1,177 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import com.mongodb.MongoExecutionTimeoutException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Circuit breaker around lock store calls, so degraded lock store sheds load locally instead of blocking every caller
+ * on driver timeouts.
+ * <p>
+ * Every lock store call is classified consistently: lock store failures, see {@link #isLockStoreFailure(Throwable)},
+ * and calls slower than slow call duration are failures, any other answer, including duplicate key or version
+ * conflict, is a success. After failure threshold of consecutive failures circuit opens, and all calls fail fast with
+ * {@link LockStoreUnavailableException} without any I/O. When open duration is elapsed, single probe call is let
+ * through: its success closes circuit, its failure opens it again for another open duration.
+ * <p>
+ * Driver operations can't be interrupted, so dedicated lock store client with short connect, read and server
+ * selection timeouts bounds how long a single call may block, while slow call duration bounds how long calls may take
+ * before they're treated as failures. Lock store queries are also bounded by slow call duration on server side, see
+ * {@link #deadline(Query)}, so lock store aborts them instead of keeping on working for callers, which gave up.
+ * <p>
+ * Usage:
+ * <pre>
+ *     var distributedLock = new DistributedLock(collectionName, lockPeriod, mongoTemplate)
+ *             .withCircuitBreaker(new CircuitBreaker(5, Duration.ofSeconds(5), Duration.ofSeconds(1)));
+ * </pre>
+ */
+@Log4j2
+public class CircuitBreaker {
+
+    /**
+     * Disabled circuit breaker, every call is let through.
+     */
+    public static final CircuitBreaker NONE = new CircuitBreaker(0, Duration.ZERO, Duration.ZERO);
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final long slowCallDurationNanos;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile long openedAt;
+
+    /**
+     * @param failureThreshold - count of consecutive failures opening circuit, 0 disables circuit breaker
+     * @param openDuration     - how long calls fail fast before probe call is let through
+     * @param slowCallDuration - calls slower than that are failures, zero means calls are never too slow
+     */
+    public CircuitBreaker(int failureThreshold, Duration openDuration, Duration slowCallDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = Objects.requireNonNull(openDuration, "openDuration may not be null").toNanos();
+        this.slowCallDurationNanos = Objects.requireNonNull(slowCallDuration, "slowCallDuration may not be null").toNanos();
+    }
+
+    /**
+     * @return true if circuit breaker is enabled
+     */
+    public boolean isEnabled() {
+        return failureThreshold > 0;
+    }
+
+    /**
+     * @return current circuit state
+     */
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * @return count of calls, which were rejected without any I/O while circuit was open
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Run lock store call, unless circuit is open.
+     *
+     * @param call - lock store call
+     * @return lock store call result
+     * @throws LockStoreUnavailableException if circuit is open
+     */
+    public <T> T call(Supplier<T> call) {
+        if (!isEnabled()) return call.get();
+        if (!tryPermit(System.nanoTime())) {
+            rejected.incrementAndGet();
+            throw LockException.circuitIsOpen();
+        }
+
+        long startedAt = System.nanoTime();
+        try {
+            T result = call.get();
+            record(slowCallDurationNanos <= 0 || System.nanoTime() - startedAt <= slowCallDurationNanos);
+            return result;
+        } catch (RuntimeException | Error e) {
+            record(!isLockStoreFailure(e));
+            throw e;
+        }
+    }
+
+    /**
+     * Bound lock store query by slow call duration on server side, unless circuit breaker is disabled or calls are never
+     * too slow. Query exceeding it fails with lock store failure.
+     *
+     * @param query - lock store query
+     * @return given query with max time
+     */
+    public Query deadline(Query query) {
+        if (!isEnabled() || slowCallDurationNanos <= 0) return query;
+        return query.maxTime(Duration.ofNanos(slowCallDurationNanos));
+    }
+
+    /**
+     * Classify error of lock store call: it's lock store failure if lock store wasn't reachable, didn't answer in time
+     * or its circuit is open, so it's unknown whether the call was applied.
+     *
+     * @param throwable - error of lock store call, possibly wrapped
+     * @return true if given error or any of its causes is lock store failure
+     */
+    public static boolean isLockStoreFailure(Throwable throwable) {
+        for (Throwable cause = throwable; Objects.nonNull(cause); cause = cause.getCause()) {
+            if (cause instanceof LockStoreUnavailableException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof TransientDataAccessResourceException
+                    || cause instanceof QueryTimeoutException
+                    || cause instanceof MongoExecutionTimeoutException) return true;
+            if (cause.getCause() == cause) return false;
+        }
+        return false;
+    }
+
+    private boolean tryPermit(long now) {
+        State current = state.get();
+        if (current == State.CLOSED) return true;
+        if (current == State.HALF_OPEN || now - openedAt < openDurationNanos) return false;
+        return state.compareAndSet(State.OPEN, State.HALF_OPEN); // single probe call
+    }
+
+    private void record(boolean success) {
+        if (success) {
+            failures.set(0);
+            if (state.compareAndSet(State.HALF_OPEN, State.CLOSED)) log.info("Lock store circuit closed");
+            return;
+        }
+        if (state.get() == State.HALF_OPEN || failures.incrementAndGet() >= failureThreshold) open();
+    }
+
+    private void open() {
+        openedAt = System.nanoTime();
+        failures.set(0);
+        if (state.getAndSet(State.OPEN) != State.OPEN) log.warn("Lock store circuit opened for {} ms", openDurationNanos / 1_000_000);
+    }
+
+    public enum State {
+        /**
+         * Calls are let through.
+         */
+        CLOSED,
+        /**
+         * Calls fail fast.
+         */
+        OPEN,
+        /**
+         * Single probe call is let through, others fail fast.
+         */
+        HALF_OPEN,
+    }
+}
@@ -0,0 +1,244 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import io.vavr.control.Try;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Background detector of cross-node deadlocks between owners waiting in
+ * {@link DistributedLock#tryAcquire(Lock, Duration)}.
+ * <p>
+ * Waiters record what they are waiting for in waits collection, so together with lock holders they form wait-for
+ * graph: waiting owner waits for owners currently holding the lock. Holders of hierarchical locks are resolved the same
+ * way as conflicts are found on acquisition, so shared and intent holders of the same node and incompatible holders
+ * of its ancestors or descendants are waited for too. On every tick detector starts depth-first search
+ * only from waits, which were not seen on previous tick, because any new cycle has to go through a new edge. Full
+ * scan is done periodically too, so cycles closed by holder changes are never missed. The youngest waiter of every
+ * found cycle is aborted, its {@link DistributedLock#tryAcquire(Lock, Duration)} throws {@link LockException}, so
+ * deadlock costs detection interval instead of full lock period.
+ * <p>
+ * Detector may run on any count of nodes, the victim choice is deterministic.
+ * <p>
+ * Usage:
+ * <pre>
+ *     try (var detector = distributedLock.deadlockDetector(Duration.ofMillis(50))) {
+ *         Optional<Lock> maybeLock = distributedLock.tryAcquire(Lock.of("account", accountId), Duration.ofSeconds(5));
+ *     }
+ * </pre>
+ */
+@Log4j2
+public class DeadlockDetector implements AutoCloseable {
+
+    private static final int FULL_SCAN_EVERY = 20;
+
+    private final String lockCollectionName;
+    private final String waitsCollectionName;
+    private final MongoTemplate mongoTemplate;
+    private final CircuitBreaker circuitBreaker;
+    private final long intervalNanos;
+    private final Thread detector;
+    private Set<Wait> scanned = new HashSet<>();
+    private long scans;
+    private volatile boolean running = true;
+
+    DeadlockDetector(String lockCollectionName, String waitsCollectionName, MongoTemplate mongoTemplate,
+                     CircuitBreaker circuitBreaker, Duration interval) {
+        this.lockCollectionName = lockCollectionName;
+        this.waitsCollectionName = waitsCollectionName;
+        this.mongoTemplate = mongoTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.intervalNanos = Objects.requireNonNull(interval, "interval may not be null").toNanos();
+        this.detector = new Thread(this::detectPeriodically, "distributed-lock-deadlock-detector");
+        this.detector.setDaemon(true);
+        this.detector.start();
+    }
+
+    @Override
+    public void close() {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(detector);
+        try {
+            detector.join(Duration.ofSeconds(1).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void detectPeriodically() {
+        while (running) {
+            Try.of(this::detect).onFailure(throwable -> log.error("Deadlock detection error: {}", throwable::getMessage));
+            LockSupport.parkNanos(this, intervalNanos);
+        }
+    }
+
+    /**
+     * Scan wait-for graph starting from new waits and abort the youngest waiter of every found cycle.
+     *
+     * @return count of aborted waiters
+     */
+    int detect() {
+        Instant now = Instant.now();
+        Map<String, Wait> waits = findWaits(now);
+        boolean isFullScan = ++scans % FULL_SCAN_EVERY == 0;
+        List<Wait> roots = waits.values().stream()
+                .filter(wait -> isFullScan || !scanned.contains(wait))
+                .sorted(Comparator.comparing(Wait::getSince))
+                .toList();
+        scanned = new HashSet<>(waits.values());
+        if (roots.isEmpty()) return 0;
+
+        Map<String, Set<String>> waitsFor = waitsFor(waits.values(), now);
+        int aborted = 0;
+        for (Wait root : roots) {
+            List<String> cycle = findCycle(waitsFor, root.owner);
+            if (cycle.isEmpty()) continue;
+
+            Wait victim = cycle.stream().map(waits::get)
+                    .max(Comparator.comparing(Wait::getSince).thenComparing(Wait::getOwner))
+                    .orElseThrow();
+            log.info("Deadlock detected: {}, aborting youngest waiter: {}", cycle, victim.owner);
+            if (abort(victim)) aborted++;
+            waitsFor.remove(victim.owner);
+        }
+        return aborted;
+    }
+
+    /**
+     * @param now - current time
+     * @return not expired and not aborted waits by waiting owner
+     */
+    Map<String, Wait> findWaits(Instant now) {
+        Query query = Query.query(Criteria.where("expireAt").gt(Date.from(now)).and("abortedAt").exists(false));
+        return circuitBreaker.call(() -> mongoTemplate.find(circuitBreaker.deadline(query), Document.class, waitsCollectionName)).stream()
+                .map(document -> new Wait(document.getString("_id"), document.getString("waitingFor"),
+                        Objects.isNull(document.getString("mode")) ? null : Lock.Mode.valueOf(document.getString("mode")),
+                        document.getDate("since").toInstant()))
+                .collect(Collectors.toMap(Wait::getOwner, Function.identity()));
+    }
+
+    /**
+     * Build wait-for graph edges from waiting owners to owners currently holding awaited locks.
+     *
+     * @param waits - current waits
+     * @param now   - current time
+     * @return holder owners by waiting owner
+     */
+    Map<String, Set<String>> waitsFor(Collection<Wait> waits, Instant now) {
+        List<Criteria> awaited = new ArrayList<>();
+        Set<String> awaitedLocks = waits.stream()
+                .filter(wait -> Objects.isNull(wait.mode))
+                .map(Wait::getWaitingFor)
+                .collect(Collectors.toSet());
+        if (!awaitedLocks.isEmpty()) awaited.add(Criteria.where("lockedBy").in(awaitedLocks));
+        waits.stream()
+                .filter(wait -> Objects.nonNull(wait.mode))
+                .map(Wait::getWaitingFor)
+                .distinct()
+                .forEach(path -> awaited.add(DistributedLock.relatedTo(path)));
+        Query query = Query.query(new Criteria().andOperator(
+                Criteria.where("state").is(Lock.State.LOCKED),
+                new Criteria().orOperator(awaited)
+        ));
+        query.fields().include("lockedBy", "owner", "state", "lastModifiedAt", "lockPeriodDuration", "mode");
+        List<Lock> holders = circuitBreaker.call(() -> mongoTemplate.find(circuitBreaker.deadline(query), Lock.class, lockCollectionName)).stream()
+                .filter(lock -> Objects.nonNull(lock.owner) && !DistributedLock.isExpired(lock, now))
+                .toList();
+
+        Map<String, Set<String>> waitsFor = new HashMap<>();
+        waits.forEach(wait -> waitsFor.put(wait.owner, holders.stream()
+                .filter(holder -> isHolding(holder, wait))
+                .map(Lock::getOwner)
+                .collect(Collectors.toSet())));
+        return waitsFor;
+    }
+
+    /**
+     * @param holder - live lock holder
+     * @param wait   - wait for a lock
+     * @return true if holder prevents waiter from acquiring awaited lock
+     */
+    static boolean isHolding(Lock holder, Wait wait) {
+        if (Objects.isNull(wait.mode)) return wait.waitingFor.equals(holder.lockedBy);
+
+        String path = wait.waitingFor;
+        String holderPath = DistributedLock.pathOf(holder);
+        boolean isRelated = holderPath.equals(path) || path.startsWith(holderPath + "/") || holderPath.startsWith(path + "/");
+        return isRelated && DistributedLock.isConflicting(path, wait.mode, holder);
+    }
+
+    /**
+     * Iterative depth-first search of a cycle going through given root owner.
+     *
+     * @param waitsFor - wait-for graph
+     * @param root     - waiting owner to start from
+     * @return owners forming a cycle starting from root or empty list if there is no such cycle
+     */
+    static List<String> findCycle(Map<String, Set<String>> waitsFor, String root) {
+        List<String> path = new ArrayList<>(List.of(root));
+        Set<String> visited = new HashSet<>(path);
+        Deque<Iterator<String>> stack = new ArrayDeque<>();
+        stack.push(waitsFor.getOrDefault(root, Set.of()).iterator());
+        while (!stack.isEmpty()) {
+            Iterator<String> edges = stack.peek();
+            if (!edges.hasNext()) {
+                stack.pop();
+                path.remove(path.size() - 1);
+                continue;
+            }
+
+            String holder = edges.next();
+            if (holder.equals(root)) return path;
+            if (visited.add(holder)) {
+                path.add(holder);
+                stack.push(waitsFor.getOrDefault(holder, Set.of()).iterator());
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * Mark wait as aborted, so its waiter stops waiting and fails.
+     *
+     * @param victim - wait to be aborted
+     * @return true if wait was aborted by this call
+     */
+    boolean abort(Wait victim) {
+        Query query = Query.query(Criteria.where("_id").is(victim.owner)
+                .and("since").is(Date.from(victim.since))
+                .and("abortedAt").exists(false));
+        return circuitBreaker.call(() -> mongoTemplate.updateFirst(query, Update.update("abortedAt", new Date()), waitsCollectionName))
+                .getModifiedCount() > 0;
+    }
+
+    @Value
+    static class Wait {
+        String owner;
+        String waitingFor;
+        Lock.Mode mode;
+        Instant since;
+    }
+}
@@ -1,37 +1,199 @@
 package io.github.daggerok.distributed.lock.mongodb;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import io.vavr.CheckedFunction0;
+import io.vavr.CheckedFunction1;
 import io.vavr.CheckedRunnable;
 import io.vavr.control.Try;
 import java.io.Serializable;
+import java.lang.management.ManagementFactory;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
-import lombok.RequiredArgsConstructor;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.With;
 import lombok.extern.log4j.Log4j2;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.mongodb.core.ExecutableFindOperation;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.index.Index;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Log4j2
-@RequiredArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
 public class DistributedLock {
 
     private static final Function<Lock, Criteria> lockedBy = lock -> Criteria.where("lockedBy").is(lock.lockedBy);
+    private static final Index WAITS_EXPIRE_AT = new Index("expireAt", Sort.Direction.ASC).named("Wait_expireAt").expire(Duration.ZERO);
+
+    /**
+     * Name of lock operation observations, tagged by low cardinality operation and outcome.
+     */
+    public static final String OBSERVATION = "distributed.lock";
+
+    /**
+     * Name of child observations of every lock store round trip, tagged by low cardinality command.
+     */
+    public static final String MONGO_OBSERVATION = "distributed.lock.mongo";
+
+    private static final String OPERATION = "operation";
+    private static final String OUTCOME = "outcome";
+    private static final String COMMAND = "command";
+    private static final String GROUP = "group";
+    private static final String LOCK = "lock";
+    private static final String LOCK_ID = "lock.id";
+    private static final String DOCUMENT = "document";
+
+    /**
+     * Name of {@link #compareAndSet(Class, Query, UnaryOperator)} observation event of every version conflict.
+     */
+    public static final String CONFLICT = "conflict";
+
+    private static final int COMPARE_AND_SET_ATTEMPTS = 10;
+    private static final long COMPARE_AND_SET_MAX_BACKOFF_MILLIS = 64;
 
     private final String lockCollectionName;
     private final Duration defaultLockPeriod;
     private final MongoTemplate mongoTemplate;
 
+    /**
+     * This node identity, which together with current thread ID forms default {@link Lock#owner}.
+     */
+    @With
+    private final String nodeId;
+
+    /**
+     * Locally held reentrant locks by {@link Lock#lockedBy}, so re-entering doesn't require any Mongo round trip.
+     */
+    private final ConcurrentMap<String, Lock> holds;
+
+    /**
+     * Asynchronous lock lifecycle events dispatcher, nothing is published by default.
+     */
+    @With
+    private final LockEvents events;
+
+    /**
+     * {@link Lock#lockedBy} of locks which are known to be existing, so batched acquisition doesn't create them again.
+     */
+    private final Set<String> existingLocks;
+
+    /**
+     * {@link Lock#lockedAt} of held locks by their IDs, which are asked to yield to higher priority waiters, refreshed
+     * on every {@link #renew(Lock)}.
+     */
+    private final ConcurrentMap<String, Instant> yieldRequests;
+
+    /**
+     * Local negative cache of locks known to be held by someone else, disabled by default.
+     */
+    @With
+    private final HeldLockCache heldLockCache;
+
+    /**
+     * Bounded memory analytics of most contended locks, disabled by default.
+     */
+    @With
+    private final HotLocks hotLocks;
+
+    /**
+     * Micrometer observations of lock operations and their Mongo round trips, nothing is observed by default.
+     */
+    @With
+    private final ObservationRegistry observationRegistry;
+
+    /**
+     * Lock period of locks without explicit period, adapted to their observed execution durations, disabled by default.
+     */
+    @With
+    private final AdaptiveLease adaptiveLease;
+
+    /**
+     * Circuit breaker around every lock store call, so degraded lock store fails fast, disabled by default.
+     */
+    @With
+    private final CircuitBreaker circuitBreaker;
+
+    /**
+     * Name of lock group, which this lock belongs to, tagged on observations, or null for default lock.
+     */
+    @With
+    private final String group;
+
+    /**
+     * How unique lockedBy index of lock collection is ensured, before every lock creation by default.
+     */
+    @With
+    private final IndexStrategy indexStrategy;
+
+    /**
+     * Transactions of {@link #acquireAndGetInTransaction}, managed by lock store transaction manager by default.
+     */
+    @With
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * If unique lockedBy index was already ensured, used by {@link IndexStrategy#ONCE}.
+     */
+    private final AtomicBoolean indexEnsured;
+
+    /**
+     * If expireAt TTL index of waits collection was already ensured, used by {@link IndexStrategy#ONCE}.
+     */
+    private final AtomicBoolean waitsIndexEnsured;
+
+    public DistributedLock(String lockCollectionName, Duration defaultLockPeriod, MongoTemplate mongoTemplate) {
+        this(lockCollectionName, defaultLockPeriod, mongoTemplate, ManagementFactory.getRuntimeMXBean().getName(),
+                new ConcurrentHashMap<>(), LockEvents.NONE, ConcurrentHashMap.newKeySet(), new ConcurrentHashMap<>(),
+                HeldLockCache.NONE, HotLocks.NONE, ObservationRegistry.NOOP, AdaptiveLease.NONE,
+                CircuitBreaker.NONE, null, IndexStrategy.ALWAYS,
+                new TransactionTemplate(new MongoTransactionManager(mongoTemplate.getMongoDatabaseFactory())),
+                new AtomicBoolean(), new AtomicBoolean());
+    }
+
     /**
      * Try to acquire a lock according to given config.
      * <p>
+     * Lock is reentrant for its owner: if the same owner already holds it locally, hold count is incremented without
+     * any Mongo round trip, and only outermost {@link DistributedLock#release(String)} is going to release it remotely.
+     * By default, owner is current node and thread, so the same thread re-enters locks it already holds, including
+     * locks held by {@link DistributedLock#acquireAndGet} or {@link DistributedLock#acquireAndRun} executions. Use
+     * explicit owner, for example task ID, to share lock ownership across threads:
+     * <pre>
+     *     var maybeLock = distributedLock.acquire(Lock.of(identifier).withOwner(taskId));
+     * </pre>
+     * <p>
      * Usage:
      * <pre>
      *     var maybeLock = distributedLock.acquire(Lock.of(identifier));
@@ -47,8 +209,11 @@ public class DistributedLock {
      */
     public Optional<Lock> acquire(Lock lockConfig) {
         Lock lock = Optional.ofNullable(lockConfig).orElseThrow(LockException::lockIsRequired);
-        Optional<Lock> maybePrevious = tryLock(lock);
-        return queryCurrent(maybePrevious);
+        return observe("acquire", LOCK, lock.lockedBy, observation -> {
+            Optional<Lock> maybeAcquired = acquire(Objects.nonNull(lock.owner) ? lock : lock.withOwner(currentOwner()), true);
+            observation.lowCardinalityKeyValue(OUTCOME, maybeAcquired.isPresent() ? "acquired" : "contended");
+            return maybeAcquired;
+        });
     }
 
     /**
@@ -137,7 +302,15 @@ public class DistributedLock {
      */
     public <T> Optional<T> acquireAndGet(Lock lockConfig, CheckedFunction0<T> execution) {
         CheckedFunction0<T> anExecution = Optional.ofNullable(execution).orElseThrow(LockException::executionIsRequired);
-        return acquire(lockConfig).flatMap(acquired -> executeAndRelease(acquired, anExecution));
+        Lock lock = adaptiveLease.apply(Optional.ofNullable(lockConfig).orElseThrow(LockException::lockIsRequired));
+        return observe("acquireAndGet", LOCK, lock.lockedBy, observation -> {
+            Optional<Lock> maybeAcquired = acquireReentrant(lock);
+            observation.lowCardinalityKeyValue(OUTCOME, maybeAcquired.isPresent() ? "executed" : "contended");
+            CheckedFunction0<T> observedExecution = () -> Try.of(timed(lock, anExecution))
+                    .onFailure(throwable -> observation.lowCardinalityKeyValue(OUTCOME, "failed").error(throwable))
+                    .get();
+            return maybeAcquired.flatMap(acquired -> executeAndRelease(acquired, observedExecution));
+        });
     }
 
     /**
@@ -157,12 +330,281 @@ public class DistributedLock {
      */
     public <T> Optional<Boolean> acquireAndRun(Lock lockConfig, CheckedRunnable runnable) {
         CheckedRunnable aRunnable = Optional.ofNullable(runnable).orElseThrow(LockException::runnableIsRequired);
-        return acquire(lockConfig).flatMap(acquired -> runAndRelease(acquired, aRunnable));
+        Lock lock = adaptiveLease.apply(Optional.ofNullable(lockConfig).orElseThrow(LockException::lockIsRequired));
+        return observe("acquireAndRun", LOCK, lock.lockedBy, observation -> {
+            CheckedFunction0<Boolean> timedRunnable = timed(lock, () -> {
+                aRunnable.run();
+                return true;
+            });
+            CheckedRunnable observedRunnable = () -> Try.of(timedRunnable).onFailure(observation::error).get();
+            Optional<Boolean> maybeRun = acquireReentrant(lock).flatMap(acquired -> runAndRelease(acquired, observedRunnable));
+            String outcome = maybeRun.map(isRun -> isRun ? "executed" : "failed").orElse("contended");
+            observation.lowCardinalityKeyValue(OUTCOME, outcome);
+            return maybeRun;
+        });
+    }
+
+    /**
+     * Acquire lock according to given config and share supplied value with all callers, which were racing for the same
+     * lock, so expensive idempotent execution is going to be run once per cluster instead of once per caller.
+     * <p>
+     * Winner executes and stores its result into lock document on release within the same update. Losers are polling
+     * lock document until currently observed run is released and get the same result, or empty if winner failed, its
+     * lock has been expired or wait timeout has been elapsed. Result is stored using {@link MongoTemplate} converter,
+     * so it should be mappable document or simple type.
+     * <p>
+     * Usage:
+     * <pre>
+     *     Optional<CacheStats> maybeStats = distributedLock.acquireAndShare(Lock.of("rebuild-cache"),
+     *         CacheStats.class, Duration.ofMinutes(1), () -> cacheService.rebuild()
+     *     );
+     * </pre>
+     *
+     * @param lockConfig  - {@link Lock} configuration to be acquired
+     * @param resultType  - execution result type
+     * @param waitTimeout - how long losers are going to wait for winner result, default lock period is used if null
+     * @param execution   - {@link CheckedFunction0} vavr.io checked function supplier for execution if lock will be acquired
+     * @return {@link Optional}, containing own or winner execution result or empty otherwise
+     */
+    public <T> Optional<T> acquireAndShare(Lock lockConfig, Class<T> resultType, Duration waitTimeout,
+                                           CheckedFunction0<T> execution) {
+        CheckedFunction0<T> anExecution = Optional.ofNullable(execution).orElseThrow(LockException::executionIsRequired);
+        Class<T> aResultType = Optional.ofNullable(resultType).orElseThrow(LockException::resultTypeIsRequired);
+        Lock lock = Optional.ofNullable(lockConfig).orElseThrow(LockException::lockIsRequired);
+        Duration timeout = Optional.ofNullable(waitTimeout).orElse(defaultLockPeriod);
+
+        // result can't be shared without lock store
+        Optional<Lock> maybeAcquired = acquireReentrant(lock.withFailurePolicy(Lock.FailurePolicy.FAIL_CLOSED));
+        return maybeAcquired.isPresent()
+                ? executeAndShare(maybeAcquired.get(), anExecution)
+                : awaitShared(lock, aResultType, timeout);
+    }
+
+    /**
+     * Acquire lock according to given config inside Mongo transaction and supply execution, which is going to be
+     * committed atomically in the same transaction together with lock acquisition and release.
+     * <p>
+     * Lock document is updated once inside transaction: it's kept released, but its version is incremented, so
+     * transaction holds its write lock until commit, concurrent transactional acquisitions fail with write conflict,
+     * and concurrent ordinary acquisitions wait for transaction end and fail because of changed version. There is no
+     * separate release round trip, and if execution fails or holder dies, transaction is aborted, so neither business
+     * writes nor lock are left behind. Business writes must use given {@link MongoOperations}, which is bound to lock
+     * store transaction, so lock collection and business collections must be stored in the same replica set.
+     * Transaction bound locks are not reentrant and not hierarchical. Lock is reported as acquired and released only
+     * when transaction is committed, while rolled back execution is reported as error.
+     * <p>
+     * Usage:
+     * <pre>
+     *     Optional<Order> maybeOrder = distributedLock.acquireAndGetInTransaction(Lock.of("order", orderId), operations -> {
+     *         operations.insert(new Payment(orderId, amount));
+     *         return operations.save(order.withState(PAID));
+     *     });
+     * </pre>
+     *
+     * @param lockConfig - {@link Lock} configuration to be acquired
+     * @param execution  - {@link CheckedFunction1} vavr.io checked function of transaction bound {@link MongoOperations}
+     * @return {@link Optional}, which can either containing committed execution result or will be empty if execution
+     * result is null, execution has failed or lock wasn't acquired
+     */
+    public <T> Optional<T> acquireAndGetInTransaction(Lock lockConfig, CheckedFunction1<MongoOperations, T> execution) {
+        CheckedFunction1<MongoOperations, T> anExecution = Optional.ofNullable(execution).orElseThrow(LockException::executionIsRequired);
+        Lock config = Optional.ofNullable(lockConfig).orElseThrow(LockException::lockIsRequired);
+        Lock lock = Objects.nonNull(config.owner) ? config : config.withOwner(currentOwner());
+        createMissingLocks(List.of(lock.withOwner(null)));
+
+        AtomicReference<Lock> acquired = new AtomicReference<>();
+        AtomicReference<Throwable> executionError = new AtomicReference<>();
+        return Try.of(() -> transactionTemplate.execute(status -> {
+                    acquireInTransaction(lock).ifPresent(acquired::set);
+                    if (Objects.isNull(acquired.get())) {
+                        status.setRollbackOnly();
+                        return Optional.<T>empty();
+                    }
+
+                    Try<T> result = Try.of(() -> anExecution.apply(mongoTemplate))
+                            .onFailure(throwable -> log.error("Transactional execution error: {}", throwable::getMessage))
+                            .onFailure(executionError::set);
+                    if (result.isFailure()) status.setRollbackOnly();
+                    return result.toJavaOptional();
+                }))
+                .onFailure(throwable -> log.debug("Lock transaction was rolled back: {}", throwable::getMessage))
+                .onFailure(throwable -> {
+                    if (Objects.isNull(acquired.get())) publish(LockEvent.Type.CONTENTION, lock);
+                    else publishError(lock, throwable); // commit has failed
+                })
+                .onSuccess(result -> {
+                    if (Objects.isNull(acquired.get())) publish(LockEvent.Type.CONTENTION, lock);
+                    else if (Objects.nonNull(executionError.get())) publishError(lock, executionError.get());
+                    else {
+                        publish(LockEvent.Type.ACQUIRED, acquired.get().withState(Lock.State.LOCKED).withOwner(lock.owner));
+                        publish(LockEvent.Type.RELEASED, acquired.get());
+                    }
+                })
+                .getOrElse(Optional.empty());
+    }
+
+    /**
+     * Optimistically read-modify-write a single {@link org.springframework.data.annotation.Version} annotated document
+     * without lock document at all, so short critical sections cost one read and one conditional write instead of
+     * lock acquisition, business writes, read back and release round trips.
+     * <p>
+     * Modification gets current document, or null if it doesn't exist yet, and returns a modified copy with the same ID
+     * and version. It's saved only if document version wasn't changed since it was read, otherwise modification is
+     * retried on a fresh read after a bounded jittered backoff, so modification must be free of side effects. Every
+     * conflict is reported as {@value #CONFLICT} event of compareAndSet observation.
+     * <p>
+     * Usage:
+     * <pre>
+     *     Optional<Account> maybeAccount = distributedLock.compareAndSet(Account.class,
+     *         Query.query(Criteria.where("_id").is(accountId)),
+     *         account -> account.withBalance(account.getBalance() + amount)
+     *     );
+     * </pre>
+     *
+     * @param documentType - versioned document type
+     * @param query        - query of a single document to be modified
+     * @param modification - function of current document, or null if it's missing, returning a modified document or null to skip update
+     * @return {@link Optional} of saved document or empty if update was skipped or conflicts have exhausted all attempts
+     */
+    public <T> Optional<T> compareAndSet(Class<T> documentType, Query query, UnaryOperator<T> modification) {
+        return compareAndSet(documentType, query, modification, COMPARE_AND_SET_ATTEMPTS);
+    }
+
+    /**
+     * Optimistically read-modify-write a single {@link org.springframework.data.annotation.Version} annotated document.
+     *
+     * @param documentType - versioned document type
+     * @param query        - query of a single document to be modified
+     * @param modification - function of current document, or null if it's missing, returning a modified document or null to skip update
+     * @param maxAttempts  - how many times to try, including the first attempt
+     * @return {@link Optional} of saved document or empty if update was skipped or conflicts have exhausted all attempts
+     * @see #compareAndSet(Class, Query, UnaryOperator)
+     */
+    public <T> Optional<T> compareAndSet(Class<T> documentType, Query query, UnaryOperator<T> modification, int maxAttempts) {
+        Class<T> aDocumentType = Optional.ofNullable(documentType).orElseThrow(LockException::documentTypeIsRequired);
+        Query aQuery = Optional.ofNullable(query).orElseThrow(LockException::queryIsRequired);
+        UnaryOperator<T> aModification = Optional.ofNullable(modification).orElseThrow(LockException::modificationIsRequired);
+        if (maxAttempts < 1) throw LockException.attemptsMustBePositive();
+        if (!mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(aDocumentType).hasVersionProperty())
+            throw LockException.documentVersionIsRequired();
+
+        return observe("compareAndSet", DOCUMENT, aDocumentType.getName(), observation -> {
+            for (int attempt = 1; ; attempt++) {
+                T current = observeMongo("find", () -> mongoTemplate.findOne(aQuery, aDocumentType));
+                T modified = aModification.apply(current);
+                if (Objects.isNull(modified)) {
+                    observation.lowCardinalityKeyValue(OUTCOME, "skipped");
+                    return Optional.empty();
+                }
+
+                Try<T> maybeSaved = Try.of(() -> observeMongo("save", () -> mongoTemplate.save(modified)));
+                if (maybeSaved.isSuccess()) {
+                    observation.lowCardinalityKeyValue(OUTCOME, "updated");
+                    return Optional.of(maybeSaved.get());
+                }
+                Throwable error = maybeSaved.getCause();
+                if (!(error instanceof OptimisticLockingFailureException) && !(error instanceof DuplicateKeyException))
+                    throw new LockException(error);
+
+                observation.event(Observation.Event.of(CONFLICT));
+                log.debug("Compare and set conflict {}/{} of {}: {}", attempt, maxAttempts, aQuery, error.getMessage());
+                if (attempt >= maxAttempts || !backoff(attempt)) {
+                    observation.lowCardinalityKeyValue(OUTCOME, "conflicted");
+                    return Optional.empty();
+                }
+            }
+        });
+    }
+
+    /**
+     * Try to acquire a lock according to given config, waiting until it's released by someone else, but not longer
+     * than given wait timeout.
+     * <p>
+     * While waiting, owner records lock it's waiting for in waits collection, so running {@link DeadlockDetector} on
+     * any node can find cross-node deadlocks between owners, which hold some locks and wait for each other. If this
+     * waiter is the youngest one in a deadlock, its wait is aborted with {@link LockException}, so it can release its
+     * locks and let others proceed without waiting for their lock period to be elapsed.
+     * <p>
+     * Usage:
+     * <pre>
+     *     try {
+     *         Optional<Lock> maybeLock = distributedLock.tryAcquire(Lock.of("account", toAccountId), Duration.ofSeconds(5));
+     *     } catch (LockException e) {
+     *         distributedLock.release(fromAccountLock.getId()); // deadlock victim
+     *     }
+     * </pre>
+     *
+     * @param lockConfig  - {@link Lock} configuration to be acquired
+     * @param waitTimeout - how long to wait for a lock
+     * @return {@link Optional} of acquired {@link Lock} or empty if it wasn't released within wait timeout
+     * @throws LockException if this wait was aborted as deadlock victim
+     */
+    public Optional<Lock> tryAcquire(Lock lockConfig, Duration waitTimeout) {
+        Lock config = Optional.ofNullable(lockConfig).orElseThrow(LockException::lockIsRequired);
+        Duration timeout = Optional.ofNullable(waitTimeout).orElseThrow(LockException::waitTimeoutIsRequired);
+        Lock lock = Objects.nonNull(config.owner) ? config : config.withOwner(currentOwner());
+
+        long startedAt = System.nanoTime();
+        Optional<Lock> maybeAcquired = acquireOrFail(lock, true);
+        if (maybeAcquired.isPresent()) return maybeAcquired;
+        if (timeout.isZero() || timeout.isNegative()) {
+            hotLocks.record(lock.lockedBy, Duration.ofNanos(System.nanoTime() - startedAt), false);
+            return maybeAcquired;
+        }
+
+        Date since = new Date();
+        Instant deadline = since.toInstant().plus(timeout);
+        Query wait = Query.query(Criteria.where("_id").is(lock.owner).and("since").is(since));
+        Document waiting = new Document("_id", lock.owner)
+                .append("waitingFor", lock.lockedBy)
+                .append("mode", Objects.isNull(lock.mode) ? null : lock.mode.name())
+                .append("nodeId", nodeId)
+                .append("priority", priorityOf(lock))
+                .append("since", since)
+                .append("expireAt", Date.from(deadline));
+        ensureWaitsIndex();
+        circuitBreaker.call(() -> mongoTemplate.save(waiting, waitsCollectionName()));
+        Criteria aborted = Criteria.where("_id").is(lock.owner).and("since").is(since).and("abortedAt").exists(true);
+        try {
+            for (long pause = 10; ; pause = Math.min(pause * 2, 100)) {
+                Criteria preferred = Criteria.where("waitingFor").is(lock.lockedBy).and("priority").gt(priorityOf(lock))
+                        .and("expireAt").gt(new Date()); // waits of crashed waiters are ignored before TTL removes them
+                Query blockers = Query.query(new Criteria().orOperator(aborted, preferred));
+                blockers.fields().include("_id");
+                List<Document> blockedBy = circuitBreaker.call(() -> mongoTemplate.find(circuitBreaker.deadline(blockers), Document.class, waitsCollectionName()));
+                if (blockedBy.stream().anyMatch(blocker -> lock.owner.equals(blocker.get("_id")))) {
+                    LockException deadlockDetected = LockException.deadlockDetected();
+                    publishError(lock, deadlockDetected);
+                    throw deadlockDetected;
+                }
+                if (Instant.now().isAfter(deadline)) return Optional.empty();
+
+                try {
+                    Thread.sleep(pause);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return Optional.empty();
+                }
+
+                if (!blockedBy.isEmpty()) continue; // higher priority waiter goes first
+
+                heldLockCache.invalidate(lock.lockedBy); // waiter has to observe release as soon as possible
+                maybeAcquired = acquireOrFail(lock, true);
+                if (maybeAcquired.isPresent()) return maybeAcquired;
+            }
+        } finally {
+            Try.run(() -> circuitBreaker.call(() -> mongoTemplate.remove(wait, waitsCollectionName())))
+                    .onFailure(throwable -> log.debug("Lock wait wasn't removed, it expires at its deadline: {}", throwable::getMessage));
+            hotLocks.record(lock.lockedBy, Duration.ofNanos(System.nanoTime() - startedAt), maybeAcquired.isPresent());
+        }
     }
 
     /**
      * Release lock by ID.
      * <p>
+     * If lock was re-entered, only its hold count is going to be decremented locally, so only outermost release is
+     * going to update lock remotely.
+     * <p>
      * Usage:
      * <pre>
      *     Optional<Lock> maybeLock = distributedLock.release("642b52e873d0ec7cd4463f05");
@@ -175,14 +617,319 @@ public class DistributedLock {
      */
     public Optional<Lock> release(String lockId) {
         String id = Optional.ofNullable(lockId).orElseThrow(LockException::lockIdIsRequired);
-        Optional<Lock> maybePrevious = mongoTemplate.update(Lock.class)
+        return observe("release", LOCK_ID, id, observation -> {
+            Optional<Lock> maybeLeft = leave(id);
+            if (maybeLeft.isPresent()) {
+                log.debug("Lock left: {}", maybeLeft.get());
+                observation.lowCardinalityKeyValue(OUTCOME, "left");
+                return maybeLeft;
+            }
+
+            holds.values().removeIf(held -> id.equals(held.id));
+            Optional<Lock> maybeReleased = releaseMatching(Criteria.where("id").is(id));
+            observation.lowCardinalityKeyValue(OUTCOME, maybeReleased.isPresent() ? "released" : "not-found");
+            return maybeReleased;
+        });
+    }
+
+    /**
+     * Release lock by ID only if it's still held by given owner, for example to force release stuck lock, which was
+     * inspected before, without any risk to release it if it was already acquired by someone else.
+     * <p>
+     * Usage:
+     * <pre>
+     *     Optional<Lock> maybeLock = distributedLock.release("642b52e873d0ec7cd4463f05", "12345@node-1#42");
+     *
+     *     return (maybeLock.isPresent()) ? "Lock was released." : "Lock not found or it's held by another owner.";
+     * </pre>
+     *
+     * @param lockId - {@link Lock} entity ID to be released
+     * @param owner  - {@link Lock#owner} currently holding a lock
+     * @return {@link Optional} of type {@link Lock} if it was successfully released otherwise {@link Optional#empty}
+     */
+    public Optional<Lock> release(String lockId, String owner) {
+        String id = Optional.ofNullable(lockId).orElseThrow(LockException::lockIdIsRequired);
+        String anOwner = Optional.ofNullable(owner).orElseThrow(LockException::lockOwnerIsRequired);
+        return observe("release", LOCK_ID, id, observation -> {
+            Optional<Lock> maybeReleased = releaseMatching(new Criteria().andOperator(
+                    Criteria.where("id").is(id),
+                    Criteria.where("owner").is(anOwner)
+            ));
+            maybeReleased.ifPresent(released -> holds.values().removeIf(held -> id.equals(held.id)));
+            observation.lowCardinalityKeyValue(OUTCOME, maybeReleased.isPresent() ? "released" : "not-found");
+            return maybeReleased;
+        });
+    }
+
+    /**
+     * Try to acquire all given locks in one batch, skipping locks which are held by someone else or which were already
+     * run since given time by any node, so all jobs due at the same time can be acquired with a single update.
+     * <p>
+     * Time of acquisition is recorded into {@link Lock#lastRunAt}, so when lock has been already acquired and run by
+     * someone else, nothing is acquired and no other queries are made.
+     * <p>
+     * Usage:
+     * <pre>
+     *     List<Lock> acquired = distributedLock.acquireDue(List.of(Lock.of("job-1"), Lock.of("job-2")), ranBefore);
+     *     try {
+     *         acquired.forEach(lock -> jobs.get(lock.getLockedBy()).run());
+     *     } finally {
+     *         distributedLock.releaseAll(acquired);
+     *     }
+     * </pre>
+     *
+     * @param lockConfigs - {@link Lock} configurations to be acquired
+     * @param ranBefore   - optional time, locks which were run after it are not going to be acquired
+     * @return {@link List} of acquired {@link Lock}s, sharing the same batch {@link Lock#owner}
+     * @see DistributedLock#releaseAll(Collection)
+     */
+    public List<Lock> acquireDue(Collection<Lock> lockConfigs, Instant ranBefore) {
+        Collection<Lock> configs = Optional.ofNullable(lockConfigs).orElseThrow(LockException::lockIsRequired);
+        if (configs.isEmpty()) return List.of();
+
+        createMissingLocks(configs);
+        String owner = String.format("%s#%s", nodeId, UUID.randomUUID());
+        Instant now = Instant.now();
+        Map<Duration, List<String>> lockedByPeriod = configs.stream().collect(Collectors.groupingBy(
+                lock -> Optional.ofNullable(lock.getLockPeriod()).orElse(defaultLockPeriod),
+                Collectors.mapping(Lock::getLockedBy, Collectors.toList())
+        ));
+        long acquired = lockedByPeriod.entrySet().stream()
+                .mapToLong(entry -> acquireDue(entry.getValue(), entry.getKey(), ranBefore, owner, now))
+                .sum();
+        log.debug("Acquired {} of {} due locks", acquired, configs.size());
+        if (acquired == 0) return List.of();
+
+        Query acquiredByOwner = Query.query(Criteria.where("owner").is(owner).and("state").is(Lock.State.LOCKED));
+        List<Lock> locks = observeMongo("find", () ->
+                mongoTemplate.find(circuitBreaker.deadline(acquiredByOwner), Lock.class, lockCollectionName));
+        locks.forEach(lock -> publish(LockEvent.Type.ACQUIRED, lock));
+        return locks;
+    }
+
+    /**
+     * Release all given locks with a single update, only if they are still held by their owners.
+     *
+     * @param locks - acquired {@link Lock}s to be released
+     * @return count of released locks
+     * @see DistributedLock#acquireDue(Collection, Instant)
+     */
+    public long releaseAll(Collection<Lock> locks) {
+        Collection<Lock> toRelease = Optional.ofNullable(locks).orElseThrow(LockException::lockIsRequired);
+        if (toRelease.isEmpty()) return 0;
+
+        Set<String> ids = toRelease.stream().map(Lock::getId).collect(Collectors.toSet());
+        Set<String> owners = toRelease.stream().map(Lock::getOwner).collect(Collectors.toSet());
+        Criteria held = Criteria.where("id").in(ids).and("owner").in(owners).and("state").is(Lock.State.LOCKED);
+        Update release = Update.update("state", Lock.State.NONE).set("lastModifiedAt", Instant.now()).unset("owner");
+        long released = observeMongo("updateMulti", () ->
+                mongoTemplate.updateMulti(Query.query(held), release, Lock.class, lockCollectionName)).getModifiedCount();
+        holds.values().removeIf(hold -> ids.contains(hold.id));
+        yieldRequests.keySet().removeAll(ids);
+        toRelease.forEach(lock -> heldLockCache.invalidate(lock.lockedBy));
+        log.debug("Released {} of {} locks", released, toRelease.size());
+        toRelease.forEach(lock -> publish(LockEvent.Type.RELEASED, lock.withState(Lock.State.NONE)));
+        return released;
+    }
+
+    /**
+     * Create cluster-wide token bucket rate limiter, which stores its state in this lock collection.
+     * <p>
+     * Usage:
+     * <pre>
+     *     var rateLimiter = distributedLock.rateLimiter("partner-api", 500);
+     *
+     *     if (rateLimiter.tryAcquire()) partnerApi.call();
+     * </pre>
+     *
+     * @param name             - rate limiter name
+     * @param permitsPerSecond - cluster-wide permitted rate
+     * @return {@link DistributedRateLimiter}
+     */
+    public DistributedRateLimiter rateLimiter(String name, double permitsPerSecond) {
+        String aName = Optional.ofNullable(name).filter(it -> !it.isEmpty()).orElseThrow(LockException::rateLimiterNameIsRequired);
+        if (permitsPerSecond <= 0) throw LockException.permitsMustBePositive();
+        ensureIndex();
+        return new DistributedRateLimiter(lockCollectionName, mongoTemplate, circuitBreaker, aName, permitsPerSecond);
+    }
+
+    /**
+     * Create opt-in group-commit pipeline, which batches concurrent acquire and release requests across keys into
+     * single bulk write. Returned batcher owns its flusher thread and must be closed after use.
+     * <p>
+     * Usage:
+     * <pre>
+     *     var batcher = distributedLock.batcher(Duration.ofNanos(200_000), 64);
+     *     Optional<Lock> maybeLock = batcher.acquire(Lock.of(identifier));
+     * </pre>
+     *
+     * @param window       - how long to collect requests after first one
+     * @param maxBatchSize - max count of requests in a single batch
+     * @return {@link LockBatcher}
+     */
+    public LockBatcher batcher(Duration window, int maxBatchSize) {
+        ensureIndex();
+        return new LockBatcher(this, lockCollectionName, defaultLockPeriod, mongoTemplate, circuitBreaker, events, nodeId, window,
+                maxBatchSize);
+    }
+
+    /**
+     * Create background detector of deadlocks between owners waiting in {@link DistributedLock#tryAcquire}. Returned
+     * detector owns its thread and must be closed after use.
+     * <p>
+     * Usage:
+     * <pre>
+     *     var detector = distributedLock.deadlockDetector(Duration.ofMillis(50));
+     * </pre>
+     *
+     * @param interval - how often to scan wait-for graph
+     * @return {@link DeadlockDetector}
+     */
+    public DeadlockDetector deadlockDetector(Duration interval) {
+        circuitBreaker.call(() -> mongoTemplate.indexOps(waitsCollectionName()).ensureIndex(WAITS_EXPIRE_AT));
+        waitsIndexEnsured.set(true);
+        return new DeadlockDetector(lockCollectionName, waitsCollectionName(), mongoTemplate, circuitBreaker, interval);
+    }
+
+    /**
+     * Create lease based assignor of given count of partitions between live members of given group, see
+     * {@link PartitionAssignor}. Returned assignor owns its heartbeat thread and must be closed after use.
+     * <p>
+     * Usage:
+     * <pre>
+     *     var assignor = distributedLock.partitionAssignor("orders", 256, Duration.ofSeconds(5));
+     * </pre>
+     *
+     * @param group      - partitions group, prefix of partition lock identifiers
+     * @param partitions - count of partitions
+     * @param heartbeat  - how often to heartbeat and rebalance, must be shorter than default lock period
+     * @return {@link PartitionAssignor}
+     * @throws LockException if heartbeat isn't shorter than default lock period
+     */
+    public PartitionAssignor partitionAssignor(String group, int partitions, Duration heartbeat) {
+        String aGroup = Optional.ofNullable(group).orElseThrow(LockException::partitionGroupIsRequired);
+        if (partitions <= 0) throw LockException.partitionsMustBePositive();
+        if (Objects.isNull(heartbeat) || heartbeat.compareTo(defaultLockPeriod) >= 0)
+            throw LockException.heartbeatMustBeShorterThanLockPeriod();
+
+        Index expireAt = new Index("expireAt", Sort.Direction.ASC).named("Member_expireAt").expire(Duration.ZERO);
+        mongoTemplate.indexOps(membersCollectionName()).ensureIndex(expireAt);
+        createMissingLocks(IntStream.range(0, partitions)
+                .mapToObj(partition -> Lock.of(defaultLockPeriod, aGroup, partition))
+                .toList());
+        String memberId = String.format("%s#%s", nodeId, UUID.randomUUID());
+        return new PartitionAssignor(aGroup, partitions, memberId, lockCollectionName, membersCollectionName(),
+                defaultLockPeriod, mongoTemplate, circuitBreaker, heartbeat);
+    }
+
+    /**
+     * Stream currently held locks page, ordered by {@link Lock#lockedBy}, using database cursor, so large lock
+     * collections are never loaded into memory. Returned stream must be closed after use.
+     * <p>
+     * Usage:
+     * <pre>
+     *     try (Stream<Lock> locks = distributedLock.streamHeldLocks("order-", 0, 100)) {
+     *         locks.forEach(lock -> log.info("Held lock: {}", lock));
+     *     }
+     * </pre>
+     *
+     * @param lockedByPrefix - optional {@link Lock#lockedBy} prefix filter
+     * @param offset         - count of locks to be skipped
+     * @param limit          - max count of locks to be streamed
+     * @return {@link Stream} of {@link Lock}s in {@link Lock.State#LOCKED} state, including expired
+     */
+    public Stream<Lock> streamHeldLocks(String lockedByPrefix, long offset, int limit) {
+        Criteria criteria = Criteria.where("state").is(Lock.State.LOCKED);
+        Optional.ofNullable(lockedByPrefix).filter(prefix -> !prefix.isEmpty())
+                .ifPresent(prefix -> criteria.and("lockedBy").regex("^" + Pattern.quote(prefix)));
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "lockedBy"))
+                .skip(offset)
+                .limit(limit)
+                .cursorBatchSize(Math.min(limit, 100));
+        return observeMongo("stream", () -> mongoTemplate.stream(circuitBreaker.deadline(query), Lock.class, lockCollectionName));
+    }
+
+    /**
+     * Measure lock store round trip latency by querying lock collection using its lockedBy index.
+     *
+     * @return {@link Duration} of lock store query
+     */
+    public Duration ping() {
+        long started = System.nanoTime();
+        circuitBreaker.call(() -> mongoTemplate.exists(Query.query(Criteria.where("lockedBy").is("")), Lock.class, lockCollectionName));
+        return Duration.ofNanos(System.nanoTime() - started);
+    }
+
+    /**
+     * Renew acquired lock by prolonging its lock period, so it's not going to be expired while its owner still works.
+     * <p>
+     * Renewal heartbeat also checks if any waiter of higher {@link Lock#priority} is waiting for this lock, and
+     * caches result locally for {@link #shouldYield(Lock)}.
+     * If lock isn't held by its owner anymore, its local hold is dropped, so it's never re-entered.
+     * <p>
+     * Usage:
+     * <pre>
+     *     Optional<Lock> maybeRenewed = distributedLock.renew(lock);
+     *
+     *     return (maybeRenewed.isPresent()) ? "Lock was renewed." : "Lock is not held by its owner anymore.";
+     * </pre>
+     *
+     * @param lock - acquired {@link Lock} to be renewed
+     * @return {@link Optional} of type {@link Lock} if it was renewed or empty if lock is not held by its owner anymore
+     */
+    public Optional<Lock> renew(Lock lock) {
+        Lock aLock = Optional.ofNullable(lock).orElseThrow(LockException::lockIsRequired);
+        String id = Optional.ofNullable(aLock.id).orElseThrow(LockException::lockIdIsRequired);
+        Criteria held = new Criteria().andOperator(
+                Criteria.where("id").is(id),
+                Criteria.where("state").is(Lock.State.LOCKED),
+                Criteria.where("owner").is(aLock.owner)
+        );
+        Optional<Lock> maybeRenewed = observeMongo("findAndModify", () -> mongoTemplate.update(Lock.class)
                 .inCollection(lockCollectionName)
-                .matching(Query.query(Criteria.where("id").is(id)))
-                .apply(Update.update("state", Lock.State.NONE).set("lastModifiedAt", Instant.now()))
-                .findAndModify();
-        Optional<Lock> maybeReleased = queryCurrent(maybePrevious);
-        maybeReleased.ifPresent(it -> log.debug("Lock released: {}", it));
-        return maybeReleased;
+                .matching(circuitBreaker.deadline(Query.query(held)))
+                .apply(Update.update("lastModifiedAt", Instant.now()))
+                .withOptions(FindAndModifyOptions.options().returnNew(true))
+                .findAndModify());
+        maybeRenewed.ifPresent(renewed -> holds.replaceAll((key, hold) ->
+                id.equals(hold.id) ? hold.withLastModifiedAt(renewed.lastModifiedAt) : hold
+        ));
+        if (maybeRenewed.isEmpty()) holds.values().removeIf(hold -> id.equals(hold.id)); // taken over, never re-enter it
+        maybeRenewed.ifPresent(it -> log.debug("Lock renewed: {}", it));
+        maybeRenewed.ifPresent(it -> publish(LockEvent.Type.RENEWED, it));
+
+        boolean isYieldRequested = maybeRenewed.isPresent() && observeMongo("exists", () -> mongoTemplate.exists(
+                circuitBreaker.deadline(Query.query(
+                        Criteria.where("waitingFor").is(aLock.lockedBy).and("priority").gt(priorityOf(maybeRenewed.get()))
+                                .and("expireAt").gt(new Date())
+                )), waitsCollectionName()));
+        if (isYieldRequested) yieldRequests.put(id, maybeRenewed.get().lockedAt);
+        else yieldRequests.remove(id);
+        return maybeRenewed;
+    }
+
+    /**
+     * Check if held lock should be released early, because a waiter of higher {@link Lock#priority} is waiting for
+     * it, so latency sensitive callers don't wait for the whole lock period of batch jobs. It's a local check without
+     * any round trip, which is refreshed by every {@link #renew(Lock)} heartbeat.
+     * <p>
+     * Usage:
+     * <pre>
+     *     for (Batch batch : batches) {
+     *         if (distributedLock.shouldYield(lock)) break; // release and retry later
+     *         batchService.process(batch);
+     *         distributedLock.renew(lock);
+     *     }
+     * </pre>
+     *
+     * @param lock - acquired {@link Lock}
+     * @return true if higher priority waiter was found by the last renewal of this lock hold
+     */
+    public boolean shouldYield(Lock lock) {
+        Lock aLock = Optional.ofNullable(lock).orElseThrow(LockException::lockIsRequired);
+        return Objects.nonNull(aLock.id) && Objects.nonNull(aLock.lockedAt)
+                && aLock.lockedAt.equals(yieldRequests.get(aLock.id));
     }
 
     /**
@@ -197,12 +944,531 @@ public class DistributedLock {
         return previous.map(Lock::getId)
                 .map(Criteria.where("id")::is)
                 .map(Query::query)
+                .map(circuitBreaker::deadline)
                 .map(mongoTemplate.query(Lock.class).inCollection(lockCollectionName)::matching)
-                .flatMap(ExecutableFindOperation.TerminatingFind::one);
+                .flatMap(find -> observeMongo("readBack", find::one));
     }
 
     // package-private APIs and helper DRY-code reusable methods
 
+    /**
+     * Helper method to acquire a lock, which is going to be reentrant for its current node and thread owner until
+     * it's released.
+     *
+     * @param lockConfig - {@link Lock} configuration to be acquired
+     * @return {@link Optional} of acquired or re-entered {@link Lock}
+     */
+    Optional<Lock> acquireReentrant(Lock lockConfig) {
+        Lock lock = Optional.ofNullable(lockConfig).orElseThrow(LockException::lockIsRequired);
+        return acquire(Objects.nonNull(lock.owner) ? lock : lock.withOwner(currentOwner()), true);
+    }
+
+    /**
+     * Helper method to re-enter locally held lock or acquire it remotely otherwise, and record contention if it
+     * wasn't acquired.
+     *
+     * @param lock      - {@link Lock} configuration with owner
+     * @param reentrant - if acquired lock should be held locally, so its owner can re-enter it
+     * @return {@link Optional} of acquired or re-entered {@link Lock}
+     */
+    Optional<Lock> acquire(Lock lock, boolean reentrant) {
+        long startedAt = System.nanoTime();
+        Optional<Lock> maybeAcquired = acquireOrFail(lock, reentrant);
+        if (maybeAcquired.isEmpty()) hotLocks.record(lock.lockedBy, Duration.ofNanos(System.nanoTime() - startedAt), false);
+        return maybeAcquired;
+    }
+
+    /**
+     * Helper method to re-enter or acquire lock once and apply its {@link Lock.FailurePolicy} if lock store is
+     * unavailable.
+     *
+     * @param lock      - {@link Lock} configuration with owner
+     * @param reentrant - if acquired lock should be held locally, so its owner can re-enter it
+     * @return {@link Optional} of acquired, re-entered or locally acquired {@link Lock} if it's fail-open
+     * @throws LockStoreUnavailableException if lock store is unavailable and lock is fail-closed
+     */
+    Optional<Lock> acquireOrFail(Lock lock, boolean reentrant) {
+        try {
+            return acquireOnce(lock, reentrant);
+        } catch (RuntimeException e) {
+            return applyFailurePolicy(lock, e);
+        }
+    }
+
+    /**
+     * Helper method to apply {@link Lock#failurePolicy} to lock acquisition error: lock store failures of fail-open
+     * locks are acquired locally, other lock store failures are rethrown as {@link LockStoreUnavailableException}.
+     *
+     * @param lock  - {@link Lock} configuration with owner
+     * @param error - lock acquisition error
+     * @return {@link Optional} of locally acquired fail-open {@link Lock}
+     */
+    Optional<Lock> applyFailurePolicy(Lock lock, RuntimeException error) {
+        if (!CircuitBreaker.isLockStoreFailure(error)) throw error;
+        if (lock.failurePolicy != Lock.FailurePolicy.FAIL_OPEN) throw lockStoreUnavailable(error);
+
+        log.warn("Lock store is unavailable, fail-open lock {} is acquired locally: {}", lock.lockedBy, error.getMessage());
+        Instant now = Instant.now();
+        return Optional.of(lock.withState(Lock.State.LOCKED).withLockedAt(now).withLastModifiedAt(now).withHoldCount(1));
+    }
+
+    /**
+     * Helper method to re-enter locally held lock or acquire it remotely otherwise.
+     *
+     * @param lock      - {@link Lock} configuration with owner
+     * @param reentrant - if acquired lock should be held locally, so its owner can re-enter it
+     * @return {@link Optional} of acquired or re-entered {@link Lock}
+     */
+    Optional<Lock> acquireOnce(Lock lock, boolean reentrant) {
+        Optional<Lock> maybeReentered = reenter(lock);
+        if (maybeReentered.isPresent()) {
+            log.debug("Lock re-entered: {}", maybeReentered.get());
+            return maybeReentered;
+        }
+
+        Optional<Lock> maybeAcquired = Objects.isNull(lock.mode) ? queryCurrent(tryLock(lock)) : acquirePath(lock);
+        Optional<Lock> maybeHeld = maybeAcquired.map(acquired -> acquired.withHoldCount(1));
+        if (reentrant) maybeHeld.ifPresent(acquired -> holds.put(lock.lockedBy, acquired));
+        return maybeHeld;
+    }
+
+    /**
+     * Helper method to increment hold count of locally held not expired lock of the same owner. Holds whose lease has
+     * ended are dropped first, whoever owns them, because they were never released and may be taken over already.
+     *
+     * @param config - {@link Lock} config with owner
+     * @return {@link Optional} of re-entered {@link Lock} or empty if given owner doesn't hold it
+     */
+    Optional<Lock> reenter(Lock config) {
+        Instant now = Instant.now();
+        holds.values().removeIf(held -> {
+            if (!isExpired(held, now)) return false;
+            log.debug("Locally held lock is expired: {}", held);
+            return true;
+        });
+
+        Lock held = holds.get(config.lockedBy);
+        if (Objects.isNull(held) || !Objects.equals(held.owner, config.owner)) return Optional.empty();
+        if (held.mode != config.mode) return Optional.empty();
+
+        Lock reentered = held.withHoldCount(held.holdCount + 1);
+        return holds.replace(config.lockedBy, held, reentered) ? Optional.of(reentered) : reenter(config);
+    }
+
+    /**
+     * Helper method to decrement hold count of re-entered lock.
+     *
+     * @param lockId - {@link Lock} ID
+     * @return {@link Optional} of left {@link Lock} or empty if lock should be released remotely
+     */
+    Optional<Lock> leave(String lockId) {
+        for (Map.Entry<String, Lock> entry : holds.entrySet()) {
+            Lock held = entry.getValue();
+            if (!lockId.equals(held.id)) continue;
+            if (held.holdCount <= 1) return Optional.empty();
+
+            Lock left = held.withHoldCount(held.holdCount - 1);
+            return holds.replace(entry.getKey(), held, left) ? Optional.of(left) : leave(lockId);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Helper method to release lock matching given criteria.
+     *
+     * @param criteria - {@link Criteria} to find lock to be released
+     * @return {@link Optional} of released {@link Lock} or empty if nothing was released
+     */
+    Optional<Lock> releaseMatching(Criteria criteria) {
+        return releaseMatching(criteria, Update.update("state", Lock.State.NONE).set("lastModifiedAt", Instant.now()).unset("owner"));
+    }
+
+    /**
+     * Forget local state of lock, which was released remotely without {@link DistributedLock}, for example by
+     * {@link LockBatcher}, so it's neither re-entered nor considered held anymore.
+     *
+     * @param released - released {@link Lock}
+     */
+    void forget(Lock released) {
+        holds.values().removeIf(held -> released.id.equals(held.id));
+        yieldRequests.remove(released.id);
+        if (Objects.nonNull(released.lockedBy)) heldLockCache.invalidate(released.lockedBy);
+    }
+
+    /**
+     * Helper method to release lock matching given criteria using given release update.
+     *
+     * @param criteria - {@link Criteria} to find lock to be released
+     * @param release  - {@link Update} to release lock
+     * @return {@link Optional} of released {@link Lock} or empty if nothing was released
+     */
+    Optional<Lock> releaseMatching(Criteria criteria, Update release) {
+        Optional<Lock> maybePrevious = observeMongo("findAndModify", () -> mongoTemplate.update(Lock.class)
+                .inCollection(lockCollectionName)
+                .matching(circuitBreaker.deadline(Query.query(criteria)))
+                .apply(release)
+                .findAndModify());
+        Optional<Lock> maybeReleased = maybePrevious.filter(DistributedLock::isShared).isPresent()
+                ? maybePrevious.map(this::removeShared)
+                : queryCurrent(maybePrevious);
+        maybeReleased.ifPresent(it -> heldLockCache.invalidate(it.lockedBy));
+        maybeReleased.ifPresent(it -> log.debug("Lock released: {}", it));
+        maybePrevious.ifPresent(previous -> yieldRequests.remove(previous.id));
+        String releasedBy = maybePrevious.map(Lock::getOwner).orElse(null);
+        maybeReleased.ifPresent(it -> publish(LockEvent.Type.RELEASED, it.withOwner(releasedBy)));
+        return maybeReleased;
+    }
+
+    /**
+     * Helper method to acquire hierarchical lock path node.
+     * <p>
+     * Exclusive node is claimed as ordinary lock by its path, while every shared or intent holder claims its own
+     * {@code path#uuid} document, so many compatible holders can hold the same node. After claim, all live holders of
+     * the same node, its ancestors and its descendants are queried using indexed {@link Lock#lockedBy} prefix queries,
+     * and if any of them is not compatible, own claim is withdrawn. Competing incompatible claimers may both withdraw,
+     * but never both succeed.
+     *
+     * @param lock - hierarchical {@link Lock} configuration with owner
+     * @return {@link Optional} of acquired {@link Lock} or empty if any incompatible holder exists
+     */
+    Optional<Lock> acquirePath(Lock lock) {
+        Optional<Lock> maybeClaimed = lock.mode == Lock.Mode.X
+                ? queryCurrent(tryLock(lock))
+                : createNewLock(lock.withLockedBy(String.format("%s#%s", lock.lockedBy, UUID.randomUUID())));
+        return maybeClaimed.filter(claimed -> {
+            List<Lock> conflicting = findConflicting(lock, claimed);
+            if (conflicting.isEmpty()) return true;
+
+            log.debug("Lock {} conflicts with holders: {}", claimed, conflicting);
+            releaseMatching(Criteria.where("id").is(claimed.id).and("owner").is(claimed.owner));
+            publish(LockEvent.Type.CONTENTION, lock);
+            return false;
+        });
+    }
+
+    /**
+     * Helper method to find live holders of the same path node, its ancestors or descendants, which are not compatible
+     * with given config. Expired shared holders are removed along the way.
+     *
+     * @param config  - hierarchical {@link Lock} configuration
+     * @param claimed - own claimed {@link Lock} to be excluded
+     * @return {@link List} of conflicting {@link Lock}s
+     */
+    List<Lock> findConflicting(Lock config, Lock claimed) {
+        String path = config.lockedBy;
+        Query holders = Query.query(new Criteria().andOperator(
+                Criteria.where("state").is(Lock.State.LOCKED),
+                Criteria.where("id").ne(claimed.id),
+                relatedTo(path)
+        ));
+        Instant now = Instant.now();
+        Map<Boolean, List<Lock>> expired = observeMongo("find", () ->
+                        mongoTemplate.find(circuitBreaker.deadline(holders), Lock.class, lockCollectionName)).stream()
+                .collect(Collectors.partitioningBy(holder -> isExpired(holder, now)));
+        removeExpiredShared(expired.get(true));
+        return expired.get(false).stream()
+                .filter(holder -> isConflicting(path, config.mode, holder))
+                .toList();
+    }
+
+    /**
+     * @param path - hierarchical lock path
+     * @return {@link Criteria} matching holders of the same path node, its ancestors or descendants using indexed
+     * {@link Lock#lockedBy} prefix queries
+     */
+    static Criteria relatedTo(String path) {
+        List<Criteria> related = new ArrayList<>();
+        related.add(Criteria.where("lockedBy").regex("^" + escape(path) + "(#|$)"));
+        related.add(Criteria.where("lockedBy").regex("^" + escape(path) + "/"));
+        for (int i = path.indexOf('/'); i > 0; i = path.indexOf('/', i + 1)) {
+            related.add(Criteria.where("lockedBy").regex("^" + escape(path.substring(0, i)) + "(#|$)"));
+        }
+        return new Criteria().orOperator(related);
+    }
+
+    /**
+     * Helper method to remove expired shared holders, unless they were renewed meanwhile.
+     *
+     * @param expired - expired {@link Lock}s
+     */
+    void removeExpiredShared(List<Lock> expired) {
+        List<Criteria> notRenewed = expired.stream()
+                .filter(DistributedLock::isShared)
+                .map(lock -> Criteria.where("id").is(lock.id).and("lastModifiedAt").is(lock.lastModifiedAt))
+                .toList();
+        if (notRenewed.isEmpty()) return;
+
+        Query query = Query.query(new Criteria().orOperator(notRenewed));
+        long removed = observeMongo("remove", () -> mongoTemplate.remove(query, Lock.class, lockCollectionName)).getDeletedCount();
+        log.debug("Removed {} expired shared locks", removed);
+    }
+
+    /**
+     * Helper method to remove released shared holder document, because every shared holder claims its own one.
+     *
+     * @param released - released shared {@link Lock}
+     * @return released {@link Lock}
+     */
+    Lock removeShared(Lock released) {
+        observeMongo("remove", () -> mongoTemplate.remove(Query.query(Criteria.where("id").is(released.id)), Lock.class, lockCollectionName));
+        return released.withState(Lock.State.NONE).withOwner(null);
+    }
+
+    /**
+     * @param path   - hierarchical lock path to be acquired
+     * @param mode   - hierarchical lock mode to be acquired
+     * @param holder - live holder of the same node, an ancestor or a descendant
+     * @return true if holder prevents lock from being acquired
+     */
+    static boolean isConflicting(String path, Lock.Mode mode, Lock holder) {
+        String holderPath = pathOf(holder);
+        Lock.Mode holderMode = Optional.ofNullable(holder.mode).orElse(Lock.Mode.X);
+        if (holderPath.equals(path)) return !mode.isCompatibleWith(holderMode);
+        if (path.startsWith(holderPath + "/")) return !mode.intent().isCompatibleWith(holderMode);
+        return !mode.isCompatibleWith(holderMode.intent());
+    }
+
+    /**
+     * @param holder - holder of hierarchical lock path node
+     * @return path of held node without {@code #uuid} suffix of shared or intent holder
+     */
+    static String pathOf(Lock holder) {
+        return holder.lockedBy.contains("#") ? holder.lockedBy.substring(0, holder.lockedBy.indexOf('#')) : holder.lockedBy;
+    }
+
+    /**
+     * @param lock - {@link Lock} to be verified
+     * @return true if lock is hierarchical shared or intent lock, stored in its own document
+     */
+    static boolean isShared(Lock lock) {
+        return Objects.nonNull(lock.mode) && lock.mode != Lock.Mode.X;
+    }
+
+    /**
+     * Escape regular expression special characters, so anchored prefix can still use {@link Lock#lockedBy} index.
+     *
+     * @param literal - literal to be escaped
+     * @return escaped literal
+     */
+    static String escape(String literal) {
+        return literal.replaceAll("[\\\\^$.|?*+()\\[\\]{}]", "\\\\$0");
+    }
+
+    /**
+     * Helper method to acquire released or expired locks, which weren't run since given time, with a single update.
+     *
+     * @param lockedBy   - {@link Lock#lockedBy} of locks to be acquired
+     * @param lockPeriod - lock period
+     * @param ranBefore  - optional time, locks which were run after it are not going to be acquired
+     * @param owner      - batch owner
+     * @param now        - current time
+     * @return count of acquired locks
+     */
+    long acquireDue(List<String> lockedBy, Duration lockPeriod, Instant ranBefore, String owner, Instant now) {
+        Criteria released = Criteria.where("state").is(Lock.State.NONE);
+        Criteria expired = Criteria.where("state").is(Lock.State.LOCKED).and("lastModifiedAt").lt(now.minus(lockPeriod));
+        Criteria available = Criteria.where("lockedBy").in(lockedBy).orOperator(released, expired);
+        Criteria due = Optional.ofNullable(ranBefore)
+                .map(before -> new Criteria().orOperator(Criteria.where("lastRunAt").is(null), Criteria.where("lastRunAt").lt(before)))
+                .map(notRunSince -> new Criteria().andOperator(available, notRunSince))
+                .orElse(available);
+        Update acquire = Update.update("state", Lock.State.LOCKED)
+                .set("owner", owner)
+                .set("lockedAt", now)
+                .set("lastModifiedAt", now)
+                .set("lastRunAt", now)
+                .set("lockPeriodDuration", lockPeriod.toString());
+        return observeMongo("updateMulti", () ->
+                mongoTemplate.updateMulti(Query.query(due), acquire, Lock.class, lockCollectionName)).getModifiedCount();
+    }
+
+    /**
+     * Helper method to create released locks, which are not known to be existing yet, with a single bulk insert.
+     *
+     * @param configs - {@link Lock} configurations
+     */
+    void createMissingLocks(Collection<Lock> configs) {
+        List<Lock> missing = configs.stream()
+                .filter(lock -> !existingLocks.contains(lock.lockedBy))
+                .map(lock -> lock.withId(null).withVersion(null).withState(Lock.State.NONE))
+                .toList();
+        if (missing.isEmpty()) return;
+
+        ensureIndex();
+        Try<Void> maybeCreated = Try.run(() -> observeMongo("bulkInsert", () ->
+                        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Lock.class, lockCollectionName).insert(missing).execute()))
+                .onFailure(throwable -> log.debug("Some of locks are already existing: {}", throwable::getMessage));
+        if (maybeCreated.isFailure() && CircuitBreaker.isLockStoreFailure(maybeCreated.getCause())) {
+            throw lockStoreUnavailable(maybeCreated.getCause());
+        }
+        missing.forEach(lock -> existingLocks.add(lock.lockedBy));
+    }
+
+    /**
+     * Helper method to ensure unique lockedBy index exists according to {@link IndexStrategy}.
+     */
+    void ensureIndex() {
+        if (indexStrategy == IndexStrategy.NONE) return;
+        if (indexStrategy == IndexStrategy.ONCE && indexEnsured.get()) return;
+
+        Index indexToEnsure = new Index("lockedBy", Sort.Direction.ASC).named("Lock_lockedBy").unique();
+        String index = circuitBreaker.call(() -> mongoTemplate.indexOps(lockCollectionName, Lock.class).ensureIndex(indexToEnsure));
+        indexEnsured.set(true);
+        log.debug("Ensured index {} exists", index);
+    }
+
+    /**
+     * Helper method to ensure expireAt TTL index of waits collection exists according to {@link IndexStrategy}, so
+     * waits of crashed waiters are removed.
+     */
+    void ensureWaitsIndex() {
+        if (indexStrategy == IndexStrategy.NONE) return;
+        if (indexStrategy == IndexStrategy.ONCE && waitsIndexEnsured.get()) return;
+
+        circuitBreaker.call(() -> mongoTemplate.indexOps(waitsCollectionName()).ensureIndex(WAITS_EXPIRE_AT));
+        waitsIndexEnsured.set(true);
+    }
+
+    /**
+     * Helper method to publish lock event only if there are any listeners.
+     *
+     * @param type - {@link LockEvent.Type} event type
+     * @param lock - {@link Lock} event is related to
+     */
+    void publish(LockEvent.Type type, Lock lock) {
+        if (events.isEnabled()) events.publish(LockEvent.of(type, lock));
+    }
+
+    /**
+     * Helper method to publish lock store error event only if there are any listeners.
+     *
+     * @param lock  - {@link Lock} event is related to
+     * @param error - lock store error
+     */
+    void publishError(Lock lock, Throwable error) {
+        if (events.isEnabled()) events.publish(LockEvent.error(lock, error));
+    }
+
+    /**
+     * Helper method to observe lock operation, which has to tag its outcome, otherwise it's tagged as error.
+     *
+     * @param operation - low cardinality operation name
+     * @param key       - high cardinality lock identity key name
+     * @param value     - lock identity
+     * @param action    - observed operation
+     * @return operation result
+     */
+    <T> T observe(String operation, String key, String value, Function<Observation, T> action) {
+        Observation observation = Observation.createNotStarted(OBSERVATION, observationRegistry)
+                .contextualName("distributed-lock " + operation)
+                .lowCardinalityKeyValue(OPERATION, operation)
+                .lowCardinalityKeyValue(OUTCOME, "error")
+                .highCardinalityKeyValue(key, String.valueOf(value));
+        if (Objects.nonNull(group)) observation.lowCardinalityKeyValue(GROUP, group);
+        return observation.observe(() -> action.apply(observation));
+    }
+
+    /**
+     * @param throwable - lock store failure, possibly already classified
+     * @return {@link LockStoreUnavailableException} of given lock store failure
+     */
+    static LockStoreUnavailableException lockStoreUnavailable(Throwable throwable) {
+        return throwable instanceof LockStoreUnavailableException unavailable
+                ? unavailable
+                : LockException.lockStoreUnavailable(throwable);
+    }
+
+    /**
+     * @param lock - lock configuration or snapshot
+     * @return lock priority, 0 by default
+     */
+    private static int priorityOf(Lock lock) {
+        return Optional.ofNullable(lock.priority).orElse(0);
+    }
+
+    /**
+     * Helper method to record execution duration of acquired lock into {@link AdaptiveLease}.
+     *
+     * @param lock      - executed lock
+     * @param execution - lock guarded execution
+     * @return timed execution
+     */
+    private <T> CheckedFunction0<T> timed(Lock lock, CheckedFunction0<T> execution) {
+        return () -> {
+            long startedAt = System.nanoTime();
+            try {
+                return execution.apply();
+            } finally {
+                adaptiveLease.record(lock.lockedBy, Duration.ofNanos(System.nanoTime() - startedAt));
+            }
+        };
+    }
+
+    /**
+     * Helper method to sleep random time up to exponentially growing, but bounded pause, so concurrent writers of the
+     * same document spread their retries.
+     *
+     * @param attempt - failed attempt number, starting from 1
+     * @return false if current thread was interrupted
+     */
+    private static boolean backoff(int attempt) {
+        long maxPause = Math.min(COMPARE_AND_SET_MAX_BACKOFF_MILLIS, 1L << Math.min(attempt, 6));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(maxPause + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Helper method to observe single lock store round trip as a child of current lock operation observation.
+     *
+     * @param command - low cardinality command name
+     * @param call    - lock store call
+     * @return lock store call result
+     */
+    <T> T observeMongo(String command, Supplier<T> call) {
+        Observation observation = Observation.createNotStarted(MONGO_OBSERVATION, observationRegistry)
+                .contextualName("distributed-lock " + command)
+                .lowCardinalityKeyValue(COMMAND, command);
+        if (Objects.nonNull(group)) observation.lowCardinalityKeyValue(GROUP, group);
+        return circuitBreaker.call(() -> observation.observe(call));
+    }
+
+    /**
+     * @return name of collection, where {@link PartitionAssignor} members record their heartbeats
+     */
+    String membersCollectionName() {
+        return lockCollectionName + "Members";
+    }
+
+    /**
+     * @return name of collection, where {@link DistributedLock#tryAcquire} waiters record what they are waiting for
+     */
+    String waitsCollectionName() {
+        return lockCollectionName + "Waits";
+    }
+
+    /**
+     * @return default lock owner identity of current node and thread
+     */
+    String currentOwner() {
+        return String.format("%s#%d", nodeId, Thread.currentThread().getId());
+    }
+
+    /**
+     * @param lock - {@link Lock} to be verified
+     * @param now  - current time
+     * @return true if lock is locked, but its lock period has been elapsed
+     */
+    static boolean isExpired(Lock lock, Instant now) {
+        return lock.state == Lock.State.LOCKED
+                && Objects.nonNull(lock.lastModifiedAt) && Objects.nonNull(lock.getLockPeriod())
+                && now.isAfter(lock.lastModifiedAt.plusNanos(lock.getLockPeriod().toNanos()));
+    }
+
     /**
      * Helper method to acquire a lock according to given config.
      *
@@ -214,12 +1480,22 @@ public class DistributedLock {
      * @see DistributedLock#acquire(Duration, Serializable[])
      */
     Optional<Lock> tryLock(Lock lock) {
+        // fail fast locally if lock is known to be held by someone else
+        if (heldLockCache.isHeld(lock.lockedBy, Instant.now())) {
+            log.debug("Lock is known to be held: {}", lock.lockedBy);
+            publish(LockEvent.Type.CONTENTION, lock);
+            return Optional.empty();
+        }
+
         Optional<Lock> maybeExistingLock = findExistingLock(lock);
-        return maybeExistingLock.isPresent()
-                // if lock is available try to acquire it
-                ? maybeExistingLock.flatMap(this::acquireExistingLock)
-                // otherwise try to create new lock at first time
-                : createNewLock(lock);
+        if (maybeExistingLock.isEmpty()) return createNewLock(lock); // try to create new lock at first time
+
+        // if lock is available try to acquire it, otherwise remember it's held
+        Lock existing = maybeExistingLock.get();
+        Duration lockPeriod = Optional.ofNullable(lock.getLockPeriod()).orElse(defaultLockPeriod);
+        Optional<Lock> maybeAcquired = acquireExistingLock(existing.withOwner(lock.owner).withPriority(lock.priority), lockPeriod);
+        if (maybeAcquired.isEmpty()) heldLockCache.held(existing, Instant.now());
+        return maybeAcquired;
     }
 
     /**
@@ -229,15 +1505,13 @@ public class DistributedLock {
      * @return {@link Optional} of type {@link Lock} for given {@link Lock} config
      */
     Optional<Lock> findExistingLock(Lock config) {
-        Optional<Lock> maybeLock = mongoTemplate.query(Lock.class).inCollection(lockCollectionName)
-                .matching(Query.query(lockedBy.apply(config)))
-                .one();
+        Optional<Lock> maybeLock = observeMongo("find", () -> mongoTemplate.query(Lock.class).inCollection(lockCollectionName)
+                .matching(circuitBreaker.deadline(Query.query(lockedBy.apply(config))))
+                .one());
 
         maybeLock.ifPresent(lock -> {
             boolean isReleased = lock.state == Lock.State.NONE;
-            boolean isExpired = lock.state == Lock.State.LOCKED
-                    && Objects.nonNull(lock.lockedAt) && Objects.nonNull(lock.getLockPeriod())
-                    && Instant.now().isAfter(lock.lastModifiedAt.plusNanos(lock.getLockPeriod().toNanos()));
+            boolean isExpired = Objects.nonNull(lock.lockedAt) && isExpired(lock, Instant.now());
 
             if (isReleased) log.debug("Found released lock: {}", lock);
             if (isExpired) log.debug("Found expired lock: {}", lock);
@@ -255,9 +1529,7 @@ public class DistributedLock {
      * @return {@link Optional} with newly created and acquired {@link Lock}
      */
     Optional<Lock> createNewLock(Lock lock) {
-        Index indexToEnsure = new Index("lockedBy", Sort.Direction.ASC).named("Lock_lockedBy").unique();
-        String index = mongoTemplate.indexOps(lockCollectionName, Lock.class).ensureIndex(indexToEnsure);
-        log.debug("Ensured index {} exists", index);
+        ensureIndex();
 
         Duration lockPeriod = Optional.ofNullable(lock.getLockPeriod()).orElse(defaultLockPeriod);
         log.debug("Trying to create new lock for {} period and {} config", lockPeriod, lock);
@@ -266,20 +1538,31 @@ public class DistributedLock {
                 .withLockedAt(now)
                 .withLastModifiedAt(now)
                 .withLockPeriodDuration(lockPeriod.toString());
-        return Try.of(() -> mongoTemplate.insert(toAcquire, lockCollectionName))
+        Try<Lock> maybeCreated = Try.of(() -> observeMongo("insert", () -> mongoTemplate.insert(toAcquire, lockCollectionName)))
                 .onSuccess(acquired -> log.debug("New lock created and acquired: {}", acquired))
+                .onSuccess(acquired -> publish(LockEvent.Type.ACQUIRED, acquired))
                 .onFailure(throwable -> log.error("New lock creation error: {}", throwable::getMessage))
-                .toJavaOptional();
+                .onFailure(throwable -> {
+                    if (throwable instanceof DuplicateKeyException) publish(LockEvent.Type.CONTENTION, toAcquire);
+                    else publishError(toAcquire, throwable);
+                });
+        if (maybeCreated.isFailure() && CircuitBreaker.isLockStoreFailure(maybeCreated.getCause())) {
+            throw lockStoreUnavailable(maybeCreated.getCause());
+        }
+        return maybeCreated.toJavaOptional();
     }
 
     /**
-     * Helper method to acquire existing lock.
+     * Helper method to acquire existing lock. Existing lock is expired according to lock period of its previous holder,
+     * while acquired lock is persisted with requested lock period.
      *
-     * @param lock - {@link Lock} config
+     * @param existing   - existing {@link Lock} with owner and priority of new holder
+     * @param lockPeriod - requested lock period of new holder
      * @return {@link Optional} of type {@link Lock} if that can be acquired
      */
-    Optional<Lock> acquireExistingLock(Lock lock) {
-        Duration lockPeriod = Optional.ofNullable(lock.getLockPeriod()).orElse(defaultLockPeriod);
+    Optional<Lock> acquireExistingLock(Lock existing, Duration lockPeriod) {
+        Duration previousLockPeriod = Optional.ofNullable(existing.getLockPeriod()).orElse(defaultLockPeriod);
+        Lock lock = existing.withLockPeriodDuration(lockPeriod.toString());
         log.debug("Trying to acquiring existing lock for {} period and {} config", lockPeriod, lock);
         Criteria id = Criteria.where("id").is(lock.id);
         Criteria version = Criteria.where("version").is(lock.version);
@@ -287,21 +1570,38 @@ public class DistributedLock {
         Criteria stateNone = Criteria.where("state").is(Lock.State.NONE);
         Criteria released = new Criteria().andOperator(id, lockedBy, version, stateNone);
         Criteria stateLocked = Criteria.where("state").is(Lock.State.LOCKED);
-        Instant expiredFrom = Instant.now().minusNanos(lockPeriod.toNanos());
+        Instant expiredFrom = Instant.now().minusNanos(previousLockPeriod.toNanos());
         Criteria lastModifiedAt = Criteria.where("lastModifiedAt").lt(expiredFrom);
         Criteria expired = new Criteria().andOperator(id, lockedBy, version, stateLocked, lastModifiedAt);
         Criteria releasedOrExpired = new Criteria().orOperator(released, expired);
+        Instant now = Instant.now();
+        Update acquire = Update.update("state", Lock.State.LOCKED)
+                .set("lockedAt", now)
+                .set("lastModifiedAt", now)
+                .set("lockPeriodDuration", lockPeriod.toString())
+                .set("priority", lock.priority)
+                .set("owner", lock.owner);
         return Try
-                .of(() ->
+                .of(() -> observeMongo("findAndModify", () ->
                         mongoTemplate.update(Lock.class)
                                 .inCollection(lockCollectionName)
-                                .matching(Query.query(releasedOrExpired))
-                                .apply(Update.update("state", Lock.State.LOCKED).set("lastModifiedAt", Instant.now()))
+                                .matching(circuitBreaker.deadline(Query.query(releasedOrExpired)))
+                                .apply(acquire)
                                 .findAndModify()
-                )
+                ))
                 .onSuccess(o -> log.debug(o.map(unused -> "Existing lock acquired").orElse("Wasn't able to acquire existing lock")))
+                .onSuccess(o -> o.ifPresentOrElse(
+                        previous -> publish(
+                                previous.state == Lock.State.LOCKED ? LockEvent.Type.EXPIRED_TAKEOVER : LockEvent.Type.ACQUIRED,
+                                lock.withState(Lock.State.LOCKED).withLockedAt(now).withLastModifiedAt(now)
+                        ),
+                        () -> publish(LockEvent.Type.CONTENTION, lock)
+                ))
                 .onFailure(throwable -> log.error("Error occurred on acquiring of existing lock: {}", throwable::getMessage))
-                .getOrElseThrow(throwable -> new LockException(throwable));
+                .onFailure(throwable -> publishError(lock, throwable))
+                .getOrElseThrow(throwable -> CircuitBreaker.isLockStoreFailure(throwable)
+                        ? lockStoreUnavailable(throwable)
+                        : new LockException(throwable));
     }
 
     /**
@@ -313,12 +1613,115 @@ public class DistributedLock {
      */
     <T> Optional<T> executeAndRelease(Lock lock, CheckedFunction0<T> execution) {
         return Try.of(execution)
-                .andFinallyTry(() -> release(lock.id))
+                .andFinallyTry(() -> releaseAcquired(lock))
                 .onFailure(throwable -> log.error("Execution error: {}", throwable::getMessage))
                 .onSuccess(result -> log.debug("Execution result: {}", result))
                 .toJavaOptional();
     }
 
+    /**
+     * A vavr.io {@link Try} to supply execution and release a lock storing execution result for waiting losers.
+     * Re-entered lock is only left, so result is shared by outermost execution only.
+     *
+     * @param lock      - acquired {@link Lock}
+     * @param execution - {@link CheckedFunction0} for execution
+     * @return {@link Optional} of execution result
+     */
+    <T> Optional<T> executeAndShare(Lock lock, CheckedFunction0<T> execution) {
+        Try<T> result = Try.of(execution)
+                .onFailure(throwable -> log.error("Execution error: {}", throwable::getMessage));
+        Optional<Lock> maybeLeft = leave(lock.id);
+        if (maybeLeft.isPresent()) return result.toJavaOptional();
+
+        holds.values().removeIf(held -> lock.id.equals(held.id));
+        Update release = Update.update("state", Lock.State.NONE).set("lastModifiedAt", Instant.now()).unset("owner");
+        T value = result.getOrNull();
+        if (Objects.isNull(value)) release.unset("result").unset("resultOf");
+        else release.set("result", value).set("resultOf", lock.lockedAt);
+        Try.of(() -> releaseMatching(Criteria.where("id").is(lock.id).and("owner").is(lock.owner), release))
+                .onFailure(throwable -> log.error("Release with result error: {}", throwable::getMessage));
+        return Optional.ofNullable(value);
+    }
+
+    /**
+     * Helper method to acquire a lock inside current transaction by updating released or expired lock document, which
+     * is kept released on commit.
+     *
+     * @param lock - {@link Lock} config
+     * @return {@link Optional} of updated {@link Lock}, which is released as of commit, or empty if it's held by someone
+     * else
+     */
+    Optional<Lock> acquireInTransaction(Lock lock) {
+        Duration lockPeriod = Optional.ofNullable(lock.getLockPeriod()).orElse(defaultLockPeriod);
+        Instant now = Instant.now();
+        Criteria released = Criteria.where("state").is(Lock.State.NONE);
+        Criteria expired = Criteria.where("state").is(Lock.State.LOCKED).and("lastModifiedAt").lt(now.minus(lockPeriod));
+        Update acquireAndRelease = Update.update("state", Lock.State.NONE)
+                .set("lockedAt", now)
+                .set("lastModifiedAt", now)
+                .set("lockPeriodDuration", lockPeriod.toString())
+                .unset("owner");
+        Optional<Lock> maybeAcquired = observeMongo("findAndModify", () -> mongoTemplate.update(Lock.class)
+                .inCollection(lockCollectionName)
+                .matching(circuitBreaker.deadline(Query.query(lockedBy.apply(lock).orOperator(released, expired))))
+                .apply(acquireAndRelease)
+                .withOptions(FindAndModifyOptions.options().returnNew(true))
+                .findAndModify());
+        if (maybeAcquired.isEmpty()) log.debug("Lock is held, transaction is going to be rolled back: {}", lock.lockedBy);
+        return maybeAcquired;
+    }
+
+    /**
+     * Helper method to wait until currently observed lock run is released and read its shared result.
+     *
+     * @param lock        - {@link Lock} config
+     * @param resultType  - execution result type
+     * @param waitTimeout - how long to wait
+     * @return {@link Optional} of winner result or empty if there is no result
+     */
+    <T> Optional<T> awaitShared(Lock lock, Class<T> resultType, Duration waitTimeout) {
+        Query query = circuitBreaker.deadline(Query.query(lockedBy.apply(lock)));
+        query.fields().include("state", "lockedAt", "resultOf", "result");
+        Instant deadline = Instant.now().plus(waitTimeout);
+        Object observedRun = null;
+        for (long pause = 10; ; pause = Math.min(pause * 2, 250)) {
+            Document current = observeMongo("find", () -> mongoTemplate.findOne(query, Document.class, lockCollectionName));
+            if (Objects.isNull(current)) return Optional.empty();
+            if (Objects.isNull(observedRun)) observedRun = current.get("lockedAt");
+
+            boolean isReleased = !Lock.State.LOCKED.name().equals(current.get("state"))
+                    || !Objects.equals(observedRun, current.get("lockedAt"));
+            if (isReleased) {
+                log.debug("Awaited lock run released: {}", current.get("resultOf"));
+                return Objects.equals(observedRun, current.get("resultOf"))
+                        ? Optional.ofNullable(readResult(current.get("result"), resultType))
+                        : Optional.empty();
+            }
+            if (Instant.now().isAfter(deadline)) return Optional.empty();
+
+            try {
+                Thread.sleep(pause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Optional.empty();
+            }
+        }
+    }
+
+    /**
+     * Helper method to convert stored shared result.
+     *
+     * @param stored     - stored document or simple value
+     * @param resultType - execution result type
+     * @return converted result
+     */
+    <T> T readResult(Object stored, Class<T> resultType) {
+        if (Objects.isNull(stored)) return null;
+        if (stored instanceof Document document && !Document.class.equals(resultType))
+            return mongoTemplate.getConverter().read(resultType, document);
+        return mongoTemplate.getConverter().getConversionService().convert(stored, resultType);
+    }
+
     /**
      * A vavr.io {@link Try} to execute runnable and release a lock after all.
      *
@@ -328,10 +1731,19 @@ public class DistributedLock {
      */
     Optional<Boolean> runAndRelease(Lock lock, CheckedRunnable runnable) {
         return Try.run(runnable)
-                .andFinallyTry(() -> release(lock.id))
+                .andFinallyTry(() -> releaseAcquired(lock))
                 .onFailure(throwable -> log.error("Run error: {}", throwable::getMessage))
                 .map(unused -> true)
                 .recover(throwable -> false)
                 .toJavaOptional();
     }
+
+    /**
+     * Helper method to release acquired lock after execution, fail-open lock acquired locally has nothing to release.
+     *
+     * @param lock - acquired {@link Lock}
+     */
+    void releaseAcquired(Lock lock) {
+        if (Objects.nonNull(lock.id)) release(lock.id);
+    }
 }
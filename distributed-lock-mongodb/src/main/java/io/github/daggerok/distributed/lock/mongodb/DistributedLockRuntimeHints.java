@@ -0,0 +1,35 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Spring AOT runtime hints for GraalVM native image.
+ * <p>
+ * {@link Lock} documents are mapped by Spring Data reflectively without repositories, so Spring Data AOT doesn't
+ * know about them: lock is registered for reflective instantiation and field access together with its enums.
+ * Locks are also returned to callers and serialized by Jackson, for example by web endpoints or actuator, so they
+ * are registered for data binding as well. Hints are registered automatically from
+ * {@code META-INF/spring/aot.factories}.
+ * <p>
+ * Usage:
+ * <pre>
+ *     ./mvnw -P native -f distributed-lock-mongodb-spring-boot-starter-example native:compile
+ * </pre>
+ */
+public class DistributedLockRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.reflection().registerType(Lock.class,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_DECLARED_METHODS,
+                MemberCategory.DECLARED_FIELDS);
+        hints.reflection().registerType(Lock.State.class, MemberCategory.values());
+        hints.reflection().registerType(Lock.Mode.class, MemberCategory.values());
+        hints.reflection().registerType(Lock.FailurePolicy.class, MemberCategory.values());
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), Lock.class);
+    }
+}
@@ -0,0 +1,169 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import io.vavr.control.Try;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.With;
+import lombok.extern.log4j.Log4j2;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Cluster-wide token bucket rate limiter, which stores its state in a single lock collection document.
+ * <p>
+ * Bucket is refilled and permits are taken atomically by single aggregation pipeline update, using server time, so
+ * nodes clocks are never compared. Permits are taken in blocks and kept locally, so most of permits are granted
+ * without any Mongo round trip and store load stays far below permitted rate. Locally prefetched permits are already
+ * taken from the bucket, so cluster-wide rate is never exceeded.
+ * <p>
+ * Usage:
+ * <pre>
+ *     var rateLimiter = distributedLock.rateLimiter("partner-api", 500).withPrefetch(25);
+ *
+ *     if (rateLimiter.tryAcquire()) partnerApi.call();
+ *     else log.warn("Partner API rate limit exceeded");
+ * </pre>
+ */
+@Log4j2
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class DistributedRateLimiter {
+
+    private final String collectionName;
+    private final MongoTemplate mongoTemplate;
+    private final CircuitBreaker circuitBreaker;
+
+    /**
+     * Bucket document {@link Lock#lockedBy} key.
+     */
+    @Getter
+    private final String key;
+
+    /**
+     * Bucket refill rate.
+     */
+    @Getter
+    private final double permitsPerSecond;
+
+    /**
+     * Max count of permits bucket can hold, one second of permits by default.
+     */
+    @With
+    @Getter
+    private final double capacity;
+
+    /**
+     * Count of permits taken from bucket per round trip, 1/20 of permits per second by default.
+     */
+    @With
+    @Getter
+    private final int prefetch;
+
+    private final AtomicLong localPermits;
+
+    DistributedRateLimiter(String collectionName, MongoTemplate mongoTemplate, CircuitBreaker circuitBreaker, String name,
+                           double permitsPerSecond) {
+        this(collectionName, mongoTemplate, circuitBreaker, String.format("rateLimiter#%s", name), permitsPerSecond, permitsPerSecond,
+                (int) Math.max(1, permitsPerSecond / 20), new AtomicLong());
+    }
+
+    /**
+     * Try to acquire single permit without waiting.
+     *
+     * @return true if permit was acquired
+     */
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    /**
+     * Try to acquire given count of permits without waiting. If not enough permits are available, permits taken from
+     * bucket are kept locally for following calls.
+     *
+     * @param permits - count of permits to acquire
+     * @return true if permits were acquired
+     */
+    public boolean tryAcquire(int permits) {
+        if (permits <= 0) throw LockException.permitsMustBePositive();
+        if (takeLocal(permits)) return true;
+
+        synchronized (this) {
+            if (takeLocal(permits)) return true;
+
+            long granted = take(Math.max(prefetch, permits - localPermits.get()));
+            localPermits.addAndGet(granted);
+            return takeLocal(permits);
+        }
+    }
+
+    /**
+     * @return count of locally prefetched permits
+     */
+    public long getLocalPermits() {
+        return localPermits.get();
+    }
+
+    /**
+     * Helper method to take permits locally prefetched permits.
+     *
+     * @param permits - count of permits to take
+     * @return true if permits were taken
+     */
+    boolean takeLocal(int permits) {
+        for (long available = localPermits.get(); available >= permits; available = localPermits.get()) {
+            if (localPermits.compareAndSet(available, available - permits)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Helper method to refill bucket and take up to requested count of permits with single pipeline update. Bucket
+     * document is created on first use, so concurrent creation is retried once.
+     *
+     * @param requested - max count of permits to take
+     * @return count of granted permits
+     */
+    long take(long requested) {
+        return Try.of(() -> takeOnce(requested))
+                .recover(DuplicateKeyException.class, e -> takeOnce(requested))
+                .onFailure(throwable -> log.error("Rate limiter {} error: {}", key, throwable.getMessage()))
+                .getOrElseThrow(throwable -> CircuitBreaker.isLockStoreFailure(throwable)
+                        ? DistributedLock.lockStoreUnavailable(throwable)
+                        : new LockException(throwable));
+    }
+
+    long takeOnce(long requested) {
+        Document elapsedMillis = new Document("$subtract", List.of("$$NOW", new Document("$ifNull", List.of("$refilledAt", "$$NOW"))));
+        Document refill = new Document("$multiply", List.of(new Document("$divide", List.of(elapsedMillis, 1000)), permitsPerSecond));
+        Document refilled = new Document("$min", List.of(capacity, new Document("$add", List.of(new Document("$ifNull", List.of("$tokens", capacity)), refill))));
+        List<Document> pipeline = List.of(
+                new Document("$set", new Document("tokens", refilled).append("refilledAt", "$$NOW")),
+                new Document("$set", new Document("granted", new Document("$min", List.of(requested, new Document("$floor", "$tokens"))))),
+                new Document("$set", new Document("tokens", new Document("$subtract", List.of("$tokens", "$granted"))))
+        );
+        Query bucket = Query.query(Criteria.where("lockedBy").is(key));
+        bucket.fields().include("granted");
+        long granted = circuitBreaker.call(() -> mongoTemplate.update(Document.class)
+                        .inCollection(collectionName)
+                        .matching(circuitBreaker.deadline(bucket))
+                        .apply(AggregationUpdate.from(pipeline.stream().map(DistributedRateLimiter::stage).toList()))
+                        .withOptions(FindAndModifyOptions.options().upsert(true).returnNew(true))
+                        .findAndModify())
+                .map(updated -> updated.get("granted", Number.class).longValue())
+                .orElse(0L);
+        log.debug("Rate limiter {} granted {} of {} permits", key, granted, requested);
+        return granted;
+    }
+
+    private static AggregationOperation stage(Document stage) {
+        return context -> stage;
+    }
+}
@@ -0,0 +1,139 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Bounded local negative cache of locks, which are known to be held by someone else until their lease end.
+ * <p>
+ * Cache is populated from failed acquisitions, so following contended acquisitions of the same lock fail fast locally
+ * without any network I/O while its lease is still valid. Every entry is kept at most for max TTL, and it's
+ * invalidated earlier by local release or by remote release notification, for example from change stream, so early
+ * released lock is never considered held longer than max TTL.
+ * <p>
+ * Usage:
+ * <pre>
+ *     var distributedLock = new DistributedLock(collectionName, lockPeriod, mongoTemplate)
+ *             .withHeldLockCache(new HeldLockCache(10_000, Duration.ofSeconds(1)));
+ * </pre>
+ */
+@Log4j2
+public class HeldLockCache {
+
+    /**
+     * Disabled cache, nothing is cached.
+     */
+    public static final HeldLockCache NONE = new HeldLockCache(0, Duration.ZERO);
+
+    private final int maxSize;
+    private final Duration maxTtl;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, String> lockedByIds = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxSize - max count of cached locks
+     * @param maxTtl  - max time lock is considered held without asking lock store
+     */
+    public HeldLockCache(int maxSize, Duration maxTtl) {
+        this.maxSize = maxSize;
+        this.maxTtl = Objects.requireNonNull(maxTtl, "maxTtl may not be null");
+    }
+
+    /**
+     * @return true if cache is enabled
+     */
+    public boolean isEnabled() {
+        return maxSize > 0 && !maxTtl.isZero();
+    }
+
+    /**
+     * @param lockedBy - {@link Lock#lockedBy}
+     * @param now      - current time
+     * @return true if lock is known to be held by someone else
+     */
+    public boolean isHeld(String lockedBy, Instant now) {
+        if (!isEnabled()) return false;
+
+        Entry entry = entries.get(lockedBy);
+        if (Objects.isNull(entry)) return false;
+        if (now.isBefore(entry.heldUntil)) return true;
+
+        invalidate(lockedBy);
+        return false;
+    }
+
+    /**
+     * Remember lock, which was failed to acquire, as held until its lease end, but not longer than max TTL.
+     *
+     * @param held - {@link Lock} held by someone else
+     * @param now  - current time
+     */
+    public void held(Lock held, Instant now) {
+        if (!isEnabled() || held.state != Lock.State.LOCKED) return;
+        if (Objects.isNull(held.lastModifiedAt) || Objects.isNull(held.getLockPeriod())) return;
+
+        Instant leaseEnd = held.lastModifiedAt.plus(held.getLockPeriod());
+        Instant maxHeldUntil = now.plus(maxTtl);
+        Instant heldUntil = leaseEnd.isBefore(maxHeldUntil) ? leaseEnd : maxHeldUntil;
+        if (!now.isBefore(heldUntil)) return;
+
+        if (entries.size() >= maxSize) evict(now);
+        entries.put(held.lockedBy, new Entry(held.id, heldUntil));
+        if (Objects.nonNull(held.id)) lockedByIds.put(held.id, held.lockedBy);
+        log.debug("Lock {} is cached as held until {}", held.lockedBy, heldUntil);
+    }
+
+    /**
+     * @param lockedBy - {@link Lock#lockedBy} of released or re-acquired lock
+     */
+    public void invalidate(String lockedBy) {
+        Entry removed = entries.remove(lockedBy);
+        if (Objects.nonNull(removed) && Objects.nonNull(removed.id)) lockedByIds.remove(removed.id, lockedBy);
+    }
+
+    /**
+     * @param id - {@link Lock#id} of released or re-acquired lock
+     */
+    public void invalidateId(String id) {
+        String lockedBy = lockedByIds.remove(id);
+        if (Objects.nonNull(lockedBy)) entries.remove(lockedBy);
+    }
+
+    /**
+     * Forget all cached locks, for example when release notifications may have been missed.
+     */
+    public void clear() {
+        entries.clear();
+        lockedByIds.clear();
+    }
+
+    /**
+     * @return count of cached locks
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict(Instant now) {
+        entries.entrySet().removeIf(entry -> !now.isBefore(entry.getValue().heldUntil));
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() >= maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+        lockedByIds.values().removeIf(lockedBy -> !entries.containsKey(lockedBy));
+    }
+
+    @Value
+    static class Entry {
+        String id;
+        Instant heldUntil;
+    }
+}
@@ -0,0 +1,273 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import lombok.Value;
+
+/**
+ * Bounded memory hot locks analytics: which {@link Lock#lockedBy} keys are contended the most, and how long their
+ * acquirers have been waiting.
+ * <p>
+ * Contended acquisitions are counted by Space-Saving heavy hitters sketch of fixed capacity: when sketch is full,
+ * least contended key is replaced by a new one, which inherits its count as overestimation error. So any key, which
+ * is contended more often than total / capacity times, is guaranteed to be tracked, whatever keys cardinality is,
+ * and tagging metrics per key is not needed. Counters are kept in Stream-Summary list of buckets of equal counts
+ * ordered by count, so both increment and least contended key lookup take constant time. Wait times are recorded only for tracked keys into small log-linear
+ * histograms with ~12% precision, which are reset on replacement.
+ * <p>
+ * Usage:
+ * <pre>
+ *     var hotLocks = new HotLocks(100);
+ *     var distributedLock = new DistributedLock(collectionName, lockPeriod, mongoTemplate).withHotLocks(hotLocks);
+ *
+ *     hotLocks.top(10).forEach(hotLock -> log.info("{} waited p99 {}", hotLock.getLockedBy(), hotLock.getP99()));
+ * </pre>
+ */
+public class HotLocks {
+
+    /**
+     * Disabled sketch, nothing is recorded.
+     */
+    public static final HotLocks NONE = new HotLocks(0);
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private Bucket leastContended;
+    private long total;
+
+    /**
+     * @param capacity - max count of tracked keys
+     */
+    public HotLocks(int capacity) {
+        this.capacity = Math.max(0, capacity);
+        this.counters = new HashMap<>(this.capacity * 4 / 3 + 1);
+    }
+
+    /**
+     * Record contended acquisition.
+     *
+     * @param lockedBy - {@link Lock#lockedBy} of contended lock
+     * @param wait     - how long acquirer has been waiting until it has acquired lock or has given up
+     * @param acquired - if lock was eventually acquired
+     */
+    public void record(String lockedBy, Duration wait, boolean acquired) {
+        if (capacity == 0 || Objects.isNull(lockedBy)) return;
+
+        long waitMicros = Math.max(0, wait.toNanos() / 1000);
+        synchronized (this) {
+            total++;
+            Counter counter = counters.get(lockedBy);
+            if (Objects.nonNull(counter)) increment(counter);
+            else if (counters.size() < capacity) counter = track(lockedBy);
+            else increment(counter = replaceLeastContended(lockedBy));
+            if (!acquired) counter.failed++;
+            counter.waits.record(waitMicros);
+        }
+    }
+
+    /**
+     * @param limit - max count of returned keys
+     * @return most contended keys, ordered by estimated contention count descending
+     */
+    public synchronized List<HotLock> top(int limit) {
+        return counters.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Counter> entry) -> entry.getValue().bucket.count).reversed())
+                .limit(Math.max(0, limit))
+                .map(entry -> entry.getValue().toHotLock(entry.getKey()))
+                .toList();
+    }
+
+    /**
+     * @return count of all recorded contended acquisitions, including ones of untracked keys
+     */
+    public synchronized long total() {
+        return total;
+    }
+
+    public synchronized void clear() {
+        counters.clear();
+        leastContended = null;
+        total = 0;
+    }
+
+    private Counter track(String lockedBy) {
+        Counter counter = new Counter(lockedBy);
+        if (Objects.isNull(leastContended) || leastContended.count != 1) {
+            Bucket bucket = new Bucket(1);
+            bucket.next = leastContended;
+            if (Objects.nonNull(leastContended)) leastContended.previous = bucket;
+            leastContended = bucket;
+        }
+        counter.bucket = leastContended;
+        leastContended.counters.add(counter);
+        counters.put(lockedBy, counter);
+        return counter;
+    }
+
+    private Counter replaceLeastContended(String lockedBy) {
+        Counter counter = leastContended.counters.iterator().next();
+        counters.remove(counter.lockedBy);
+        counters.put(lockedBy, counter);
+        counter.lockedBy = lockedBy;
+        counter.error = counter.bucket.count;
+        counter.failed = 0;
+        counter.waits.clear();
+        return counter;
+    }
+
+    private void increment(Counter counter) {
+        Bucket bucket = counter.bucket;
+        Bucket next = bucket.next;
+        if (Objects.isNull(next) || next.count != bucket.count + 1) {
+            next = new Bucket(bucket.count + 1);
+            next.previous = bucket;
+            next.next = bucket.next;
+            if (Objects.nonNull(bucket.next)) bucket.next.previous = next;
+            bucket.next = next;
+        }
+        bucket.counters.remove(counter);
+        next.counters.add(counter);
+        counter.bucket = next;
+        if (!bucket.counters.isEmpty()) return;
+
+        if (Objects.nonNull(bucket.previous)) bucket.previous.next = bucket.next;
+        else leastContended = bucket.next;
+        bucket.next.previous = bucket.previous;
+    }
+
+    @Value
+    public static class HotLock {
+
+        String lockedBy;
+
+        /**
+         * Estimated count of contended acquisitions, which is never less than real one.
+         */
+        long contended;
+
+        /**
+         * Max overestimation of contended count, inherited from replaced key.
+         */
+        long error;
+
+        /**
+         * Count of contended acquisitions, which weren't acquired eventually, since key is tracked.
+         */
+        long failed;
+
+        Duration p50;
+        Duration p99;
+        Duration max;
+    }
+
+    /**
+     * Stream-Summary bucket of counters with the same count, linked with buckets of adjacent counts.
+     */
+    private static class Bucket {
+
+        private final long count;
+        private final Set<Counter> counters = new LinkedHashSet<>();
+        private Bucket previous;
+        private Bucket next;
+
+        Bucket(long count) {
+            this.count = count;
+        }
+    }
+
+    private static class Counter {
+
+        private final WaitHistogram waits = new WaitHistogram();
+        private String lockedBy;
+        private Bucket bucket;
+        private long error;
+        private long failed;
+
+        Counter(String lockedBy) {
+            this.lockedBy = lockedBy;
+        }
+
+        HotLock toHotLock(String lockedBy) {
+            return new HotLock(lockedBy, bucket.count, error, failed, Duration.ofNanos(waits.percentile(50) * 1000),
+                    Duration.ofNanos(waits.percentile(99) * 1000), Duration.ofNanos(waits.max * 1000));
+        }
+    }
+
+    /**
+     * Log-linear histogram: every power of two range is split into 8 linear sub-buckets.
+     */
+    static class WaitHistogram {
+
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int MAX_MAGNITUDE = 40;
+
+        private final long[] counts = new long[(MAX_MAGNITUDE - SUB_BUCKET_BITS + 2) * SUB_BUCKETS];
+        private long count;
+        private long max;
+
+        void record(long value) {
+            long aValue = Math.min(Math.max(0, value), (1L << (MAX_MAGNITUDE + 1)) - 1);
+            counts[index(aValue)]++;
+            count++;
+            max = Math.max(max, aValue);
+        }
+
+        long percentile(double percentile) {
+            if (count == 0) return 0;
+
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+            for (int index = 0; index < counts.length; index++) {
+                seen += counts[index];
+                if (seen >= rank) return Math.min(max, upperBound(index));
+            }
+            return max;
+        }
+
+        long count() {
+            return count;
+        }
+
+        /**
+         * Halve all counts, so older values weigh less than recent ones.
+         */
+        void decay() {
+            count = 0;
+            for (int index = 0; index < counts.length; index++) {
+                counts[index] >>= 1;
+                count += counts[index];
+            }
+        }
+
+        void clear() {
+            Arrays.fill(counts, 0);
+            count = 0;
+            max = 0;
+        }
+
+        static int index(long value) {
+            if (value < SUB_BUCKETS) return (int) value;
+
+            int magnitude = 63 - Long.numberOfLeadingZeros(value);
+            int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+        }
+
+        static long upperBound(int index) {
+            if (index < SUB_BUCKETS) return index;
+
+            int magnitude = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            long subBucket = index % SUB_BUCKETS;
+            long lowerBound = (1L << magnitude) + (subBucket << (magnitude - SUB_BUCKET_BITS));
+            return lowerBound + (1L << (magnitude - SUB_BUCKET_BITS)) - 1;
+        }
+    }
+}
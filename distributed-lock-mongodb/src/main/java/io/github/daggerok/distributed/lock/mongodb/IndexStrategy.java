@@ -0,0 +1,28 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+/**
+ * How {@link DistributedLock} ensures unique {@link Lock#lockedBy} index of its lock collection, which mutual exclusion
+ * of newly created locks relies on, and expireAt TTL index of its waits collection, which removes waits of crashed
+ * {@link DistributedLock#tryAcquire(Lock, java.time.Duration)} waiters.
+ * <p>
+ * Usage:
+ * <pre>
+ *     var distributedLock = new DistributedLock(collectionName, lockPeriod, mongoTemplate)
+ *             .withIndexStrategy(IndexStrategy.ONCE);
+ * </pre>
+ */
+public enum IndexStrategy {
+    /**
+     * Index is ensured before every lock creation, so it's recreated even if it was dropped meanwhile.
+     */
+    ALWAYS,
+    /**
+     * Index is ensured before the first lock creation only, so hot path of high volume locks, which are mostly
+     * created, doesn't pay index round trip every time.
+     */
+    ONCE,
+    /**
+     * Index is never ensured, it's managed outside, for example by database migrations.
+     */
+    NONE,
+}
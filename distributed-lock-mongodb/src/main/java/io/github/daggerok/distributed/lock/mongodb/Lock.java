@@ -14,6 +14,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.With;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
@@ -45,6 +46,40 @@ public class Lock {
 
     State state;
 
+    /**
+     * Lock holder identity: node ID and thread ID by default, or any explicitly configured task identity.
+     */
+    String owner;
+
+    /**
+     * When lock guarded job was run last time, used by batched {@link DistributedLock#acquireDue} acquisition.
+     */
+    Instant lastRunAt;
+
+    /**
+     * Hierarchical lock mode, or null for ordinary lock, which is treated as {@link Mode#X} within hierarchy.
+     */
+    Mode mode;
+
+    /**
+     * Acquisition priority, null is treated as 0. Waiters of higher priority are preferred over lower priority waiters,
+     * and holders of lower priority are asked to yield, see {@link DistributedLock#shouldYield(Lock)}.
+     */
+    Integer priority;
+
+    /**
+     * What to do if lock store is unavailable, null is treated as {@link FailurePolicy#FAIL_CLOSED}. Configuration only,
+     * never persisted.
+     */
+    @Transient
+    FailurePolicy failurePolicy;
+
+    /**
+     * How many times lock was (re-)entered by its current owner. Tracked locally only and never persisted.
+     */
+    @Transient
+    int holdCount;
+
     /**
      * Creates a lock configuration by its identifier and optionals description and lock period.
      * <p>
@@ -68,7 +103,7 @@ public class Lock {
         if (lockedBy.isEmpty()) throw LockException.lockIdentifierIsRequired();
 
         String lockPeriodDuration = Optional.ofNullable(lockPeriod).map(Duration::toString).orElse(null);
-        return new Lock(null, null, lockedBy, description, null, null, lockPeriodDuration, State.NONE);
+        return new Lock(null, null, lockedBy, description, null, null, lockPeriodDuration, State.NONE, null, null, null, null, null, 0);
     }
 
     /**
@@ -101,6 +136,56 @@ public class Lock {
         return Lock.of(null, identifiers);
     }
 
+    /**
+     * Creates a hierarchical lock configuration by its path identifiers and optional lock period.
+     * <p>
+     * All non-nullable identifiers will be represented with {@link Object#toString()} and joined with slash separator
+     * from root to leaf, for example tenant, account and order identifiers are going to be locked as
+     * {@code tenant-1/account-2/order-3} path. Locking a path node also locks its whole subtree, and implies intent
+     * locks on all its ancestors, so fine-grained holders can run in parallel while subtree-wide exclusive lock still
+     * excludes them:
+     * <pre>
+     *     distributedLock.acquire(Lock.path(Lock.Mode.X, tenantId, accountId, orderId)); // lock single order
+     *     distributedLock.acquire(Lock.path(Lock.Mode.S, tenantId, accountId));          // lock account orders for read
+     *     distributedLock.acquire(Lock.path(Lock.Mode.X, tenantId));                      // lock whole tenant
+     * </pre>
+     * Path keys are not joined with dash separator of {@link Lock#of(Serializable[])}, so ordinary locks are not part
+     * of the hierarchy: {@code Lock.of(tenantId, accountId)} never conflicts with
+     * {@code Lock.path(Lock.Mode.X, tenantId, accountId)}.
+     *
+     * @param mode        - hierarchical lock mode
+     * @param lockPeriod  - optional lock period, in null default lock period is going to be used instead
+     * @param identifiers - path identifiers, at lease one non nullable is required, may not contain '/' or '#'
+     * @return {@link Lock} configuration
+     */
+    @SafeVarargs
+    public static <T extends Serializable> Lock path(Mode mode, Duration lockPeriod, T... identifiers) {
+        Mode aMode = Optional.ofNullable(mode).orElseThrow(LockException::lockModeIsRequired);
+        T[] items = Optional.ofNullable(identifiers).orElseThrow(LockException::lockIdentifierIsRequired);
+
+        String lockedBy = Arrays.stream(items).filter(Objects::nonNull).map(Object::toString).collect(Collectors.joining("/"));
+        if (lockedBy.isEmpty()) throw LockException.lockIdentifierIsRequired();
+        boolean isInvalid = Arrays.stream(items).filter(Objects::nonNull).map(Object::toString)
+                .anyMatch(identifier -> identifier.isEmpty() || identifier.contains("/") || identifier.contains("#"));
+        if (isInvalid) throw LockException.lockPathIdentifierIsInvalid();
+
+        String lockPeriodDuration = Optional.ofNullable(lockPeriod).map(Duration::toString).orElse(null);
+        return new Lock(null, null, lockedBy, null, null, null, lockPeriodDuration, State.NONE, null, null, aMode, null, null, 0);
+    }
+
+    /**
+     * Creates a hierarchical lock configuration by its path identifiers.
+     *
+     * @param mode        - hierarchical lock mode
+     * @param identifiers - path identifiers, at lease one non nullable is required, may not contain '/' or '#'
+     * @return {@link Lock} configuration
+     * @see Lock#path(Mode, Duration, Serializable[])
+     */
+    @SafeVarargs
+    public static <T extends Serializable> Lock path(Mode mode, T... identifiers) {
+        return Lock.path(mode, null, identifiers);
+    }
+
     public Duration getLockPeriod() {
         return Optional.ofNullable(lockPeriodDuration).map(Duration::parse).orElse(null);
     }
@@ -109,4 +194,69 @@ public class Lock {
         NONE,
         LOCKED,
     }
+
+    /**
+     * How lock acquisition behaves, when lock store is unavailable or its {@link CircuitBreaker} is open.
+     */
+    public enum FailurePolicy {
+        /**
+         * Lock isn't acquired and {@link LockStoreUnavailableException} is thrown, so guarded work isn't run.
+         */
+        FAIL_CLOSED,
+        /**
+         * Lock is considered acquired locally without lock store, so guarded work is run even if it may be run
+         * concurrently on other nodes. Such lock has no ID and it's released locally only.
+         */
+        FAIL_OPEN,
+    }
+
+    /**
+     * Hierarchical lock modes with standard multiple granularity compatibility matrix:
+     * <pre>
+     *         IS   IX   S    X
+     *     IS  +    +    +    -
+     *     IX  +    +    -    -
+     *     S   +    -    +    -
+     *     X   -    -    -    -
+     * </pre>
+     */
+    public enum Mode {
+        /**
+         * Intent shared: some descendants are going to be locked in shared mode.
+         */
+        IS,
+        /**
+         * Intent exclusive: some descendants are going to be locked in exclusive mode.
+         */
+        IX,
+        /**
+         * Shared: node and its whole subtree are locked for reading.
+         */
+        S,
+        /**
+         * Exclusive: node and its whole subtree are locked exclusively.
+         */
+        X;
+
+        /**
+         * @param other - mode of another holder of the same path node, null means ordinary lock
+         * @return true if both modes can be held on the same node at the same time
+         */
+        public boolean isCompatibleWith(Mode other) {
+            Mode that = Optional.ofNullable(other).orElse(X);
+            return switch (this) {
+                case IS -> that != X;
+                case IX -> that == IS || that == IX;
+                case S -> that == IS || that == S;
+                case X -> false;
+            };
+        }
+
+        /**
+         * @return intent mode implied on ancestors of a node locked in this mode
+         */
+        public Mode intent() {
+            return this == IS || this == S ? IS : IX;
+        }
+    }
 }
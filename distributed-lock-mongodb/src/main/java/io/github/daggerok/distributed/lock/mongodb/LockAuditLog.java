@@ -0,0 +1,158 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import io.vavr.control.Try;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.log4j.Log4j2;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Asynchronous audit log of who held which lock and when, stored in capped collection.
+ * <p>
+ * As a {@link LockEventListener} it only enqueues events of audited types into its own bounded lock-free
+ * {@link RingBuffer}, so neither lock operations nor other listeners wait for audit writes. If buffer is full, event is
+ * dropped and counted instead. Single daemon writer thread drains buffer and inserts audit records in batches of up to
+ * max batch size, at least every flush interval. Capped collection is created if it's missing, so audit log never
+ * grows above its max size, oldest records are overwritten first.
+ * <p>
+ * Usage:
+ * <pre>
+ *     var auditLog = new LockAuditLog(mongoTemplate, "distributedLockAudit", 64 * 1024 * 1024, 8192, 500,
+ *         Duration.ofSeconds(1), EnumSet.of(LockEvent.Type.ACQUIRED, LockEvent.Type.RELEASED));
+ *     var events = new LockEvents(1024, List.of(auditLog));
+ *     var distributedLock = new DistributedLock(collectionName, lockPeriod, mongoTemplate).withEvents(events);
+ * </pre>
+ */
+@Log4j2
+public class LockAuditLog implements LockEventListener, AutoCloseable {
+
+    private final MongoTemplate mongoTemplate;
+    private final String collectionName;
+    private final int maxBatchSize;
+    private final long flushIntervalNanos;
+    private final Set<LockEvent.Type> types;
+    private final RingBuffer<LockEvent> buffer;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    /**
+     * @param mongoTemplate  - {@link MongoTemplate} of audit collection
+     * @param collectionName - audit collection name
+     * @param maxSizeBytes   - capped audit collection max size, used only if collection doesn't exist yet
+     * @param bufferSize     - audit records buffer capacity, rounded up to the next power of two
+     * @param maxBatchSize   - max count of audit records inserted at once
+     * @param flushInterval  - how often to insert buffered audit records
+     * @param types          - audited event types
+     */
+    public LockAuditLog(MongoTemplate mongoTemplate, String collectionName, long maxSizeBytes, int bufferSize,
+                        int maxBatchSize, Duration flushInterval, Collection<LockEvent.Type> types) {
+        this.mongoTemplate = Objects.requireNonNull(mongoTemplate, "mongoTemplate may not be null");
+        this.collectionName = Objects.requireNonNull(collectionName, "collectionName may not be null");
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.flushIntervalNanos = Objects.requireNonNull(flushInterval, "flushInterval may not be null").toNanos();
+        this.types = types.isEmpty() ? EnumSet.noneOf(LockEvent.Type.class) : EnumSet.copyOf(types);
+        this.buffer = new RingBuffer<>(bufferSize);
+
+        if (!mongoTemplate.collectionExists(collectionName)) {
+            Document createCapped = new Document("create", collectionName).append("capped", true).append("size", maxSizeBytes);
+            Try.run(() -> mongoTemplate.executeCommand(createCapped))
+                    .onFailure(throwable -> log.debug("Audit collection wasn't created, created by another node? {}", throwable::getMessage));
+        }
+        this.writer = new Thread(this::write, "distributed-lock-audit");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Enqueue audited event, never blocks.
+     *
+     * @param event - {@link LockEvent} to be audited
+     */
+    @Override
+    public void onLockEvent(LockEvent event) {
+        if (!running || !types.contains(event.getType())) return;
+        if (!buffer.offer(event)) dropped.incrementAndGet();
+    }
+
+    /**
+     * @return count of audit records which were dropped because of full buffer or failed insert
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * @return count of inserted audit records
+     */
+    public long getWritten() {
+        return written.get();
+    }
+
+    @Override
+    public void close() {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(Duration.ofSeconds(5).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.debug("Lock audit log closed, written: {}, dropped: {}", written::get, dropped::get);
+    }
+
+    private void write() {
+        while (running) {
+            if (flush() < maxBatchSize) LockSupport.parkNanos(this, flushIntervalNanos);
+        }
+        int drained;
+        do {
+            drained = flush();
+        } while (drained > 0);
+    }
+
+    /**
+     * @return count of drained audit records
+     */
+    private int flush() {
+        List<Document> batch = new ArrayList<>();
+        for (LockEvent event = buffer.poll(); Objects.nonNull(event); event = buffer.poll()) {
+            batch.add(toDocument(event));
+            if (batch.size() >= maxBatchSize) break;
+        }
+        if (batch.isEmpty()) return 0;
+
+        try {
+            mongoTemplate.insert(batch, collectionName);
+            written.addAndGet(batch.size());
+        } catch (RuntimeException e) {
+            dropped.addAndGet(batch.size());
+            log.warn("Lock audit batch of {} records wasn't written: {}", batch.size(), e.getMessage());
+        }
+        return batch.size();
+    }
+
+    private static Document toDocument(LockEvent event) {
+        Lock lock = event.getLock();
+        Document document = new Document("type", event.getType().name())
+                .append("occurredAt", Date.from(event.getOccurredAt()))
+                .append("lockedBy", lock.lockedBy)
+                .append("owner", lock.owner)
+                .append("lockId", lock.id)
+                .append("lockedAt", Optional.ofNullable(lock.lockedAt).map(Date::from).orElse(null));
+        if (Objects.nonNull(event.getError())) document.append("error", event.getError().getMessage());
+        return document;
+    }
+}
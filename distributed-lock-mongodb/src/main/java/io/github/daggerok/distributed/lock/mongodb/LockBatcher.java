@@ -0,0 +1,348 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Opt-in group-commit pipeline for concurrent lock acquisition and release requests across different keys.
+ * <p>
+ * Requests are collected by single daemon thread during short micro-window, or until max batch size is reached, and
+ * are sent as one unordered bulk write, so hundreds of concurrent callers cost single server round trip instead of
+ * hundreds of findAndModify operations and pooled connections. Each acquisition is an upsert of released or expired
+ * lock with unique owner token: duplicate key error means lock is held by someone else. Acquired locks are read back
+ * with one query for whole batch. Batched locks are not reentrant.
+ * <p>
+ * If requests queue is full or batcher is closed, request is executed directly by {@link DistributedLock}.
+ * <p>
+ * Usage:
+ * <pre>
+ *     var batcher = distributedLock.batcher(Duration.ofNanos(200_000), 64);
+ *
+ *     Optional<Lock> maybeLock = batcher.acquire(Lock.of("order", orderId));
+ *     maybeLock.ifPresent(lock -> {
+ *         try {
+ *             orderService.process(orderId);
+ *         } finally {
+ *             batcher.release(lock);
+ *         }
+ *     });
+ * </pre>
+ */
+@Log4j2
+public class LockBatcher implements AutoCloseable {
+
+    private static final long IDLE_PARK_NANOS = Duration.ofMillis(1).toNanos();
+    private static final long WINDOW_PARK_NANOS = Duration.ofMillis(1).toNanos() / 20;
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final DistributedLock distributedLock;
+    private final String lockCollectionName;
+    private final Duration defaultLockPeriod;
+    private final MongoTemplate mongoTemplate;
+    private final CircuitBreaker circuitBreaker;
+    private final LockEvents events;
+    private final String nodeId;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final RingBuffer<Request> requests;
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    LockBatcher(DistributedLock distributedLock, String lockCollectionName, Duration defaultLockPeriod,
+                MongoTemplate mongoTemplate, CircuitBreaker circuitBreaker, LockEvents events, String nodeId, Duration window,
+                int maxBatchSize) {
+        this.distributedLock = distributedLock;
+        this.lockCollectionName = lockCollectionName;
+        this.defaultLockPeriod = defaultLockPeriod;
+        this.mongoTemplate = mongoTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.events = events;
+        this.nodeId = nodeId;
+        this.windowNanos = Objects.requireNonNull(window, "window may not be null").toNanos();
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.requests = new RingBuffer<>(this.maxBatchSize * 16);
+        this.flusher = new Thread(this::flush, "distributed-lock-batcher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Try to acquire a lock according to given config within next batch.
+     *
+     * @param lockConfig - {@link Lock} configuration to be acquired
+     * @return {@link Optional} of acquired {@link Lock} or empty if it's held by someone else
+     */
+    public Optional<Lock> acquire(Lock lockConfig) {
+        Lock lock = Optional.ofNullable(lockConfig).orElseThrow(LockException::lockIsRequired);
+        Lock withOwner = Objects.nonNull(lock.owner) ? lock : lock.withOwner(String.format("%s#%s", nodeId, UUID.randomUUID()));
+        Request request = new Request(true, withOwner);
+        if (!submit(request)) return distributedLock.acquire(withOwner);
+
+        try {
+            return await(request);
+        } catch (RuntimeException e) {
+            return distributedLock.applyFailurePolicy(withOwner, e);
+        }
+    }
+
+    /**
+     * Release acquired lock within next batch, only if it's still held by its owner.
+     *
+     * @param lock - acquired {@link Lock}
+     * @return {@link Optional} of released {@link Lock} or empty if it wasn't held by its owner
+     */
+    public Optional<Lock> release(Lock lock) {
+        Lock aLock = Optional.ofNullable(lock).orElseThrow(LockException::lockIsRequired);
+        Optional.ofNullable(aLock.id).orElseThrow(LockException::lockIdIsRequired);
+        Optional.ofNullable(aLock.owner).orElseThrow(LockException::lockOwnerIsRequired);
+        Request request = new Request(false, aLock);
+        return submit(request) ? await(request) : distributedLock.release(aLock.id, aLock.owner);
+    }
+
+    @Override
+    public void close() {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(Duration.ofSeconds(1).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean submit(Request request) {
+        if (!running || !requests.offer(request)) return false;
+        LockSupport.unpark(flusher);
+        return running || !request.claim(); // withdraw request submitted concurrently with close, unless it's taken
+    }
+
+    private Request poll() {
+        for (Request request = requests.poll(); Objects.nonNull(request); request = requests.poll()) {
+            if (request.claim()) return request;
+        }
+        return null;
+    }
+
+    private Optional<Lock> await(Request request) {
+        try {
+            return request.result.join();
+        } catch (CompletionException e) {
+            throw failure(e.getCause());
+        }
+    }
+
+    private void flush() {
+        while (true) {
+            Request first = poll();
+            if (Objects.isNull(first)) {
+                if (!running) break;
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+
+            List<Request> batch = new ArrayList<>(maxBatchSize);
+            batch.add(first);
+            long deadline = System.nanoTime() + windowNanos;
+            while (batch.size() < maxBatchSize) {
+                Request next = poll();
+                if (Objects.nonNull(next)) {
+                    batch.add(next);
+                    continue;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) break;
+                LockSupport.parkNanos(this, Math.min(remaining, WINDOW_PARK_NANOS));
+            }
+
+            try {
+                execute(batch);
+            } catch (Throwable throwable) {
+                log.error("Lock batch error: {}", throwable.getMessage());
+                batch.forEach(request -> request.result.completeExceptionally(failure(throwable)));
+            }
+        }
+        // requests which were submitted while batcher was being closed are executed directly
+        for (Request request = poll(); Objects.nonNull(request); request = poll()) executeDirectly(request);
+    }
+
+    /**
+     * Classify batch error the same way as direct lock operations do.
+     *
+     * @param throwable - batch or request error
+     * @return {@link LockStoreUnavailableException} for lock store failures, otherwise given or wrapped {@link LockException}
+     */
+    private static LockException failure(Throwable throwable) {
+        if (CircuitBreaker.isLockStoreFailure(throwable)) return DistributedLock.lockStoreUnavailable(throwable);
+        return throwable instanceof LockException lockException ? lockException : new LockException(throwable);
+    }
+
+    private void executeDirectly(Request request) {
+        try {
+            request.result.complete(request.acquire
+                    ? distributedLock.acquire(request.lock)
+                    : distributedLock.release(request.lock.id, request.lock.owner));
+        } catch (Throwable throwable) {
+            request.result.completeExceptionally(throwable);
+        }
+    }
+
+    /**
+     * Execute batch of requests as single unordered bulk write and complete every request with its own result.
+     *
+     * @param batch - requests to be executed
+     */
+    void execute(List<Request> batch) {
+        Instant now = Instant.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Lock.class, lockCollectionName);
+        batch.forEach(request -> {
+            if (request.acquire) bulk.upsert(acquireQuery(request.lock, now), acquireUpdate(request.lock, now));
+            else bulk.updateOne(releaseQuery(request.lock), releaseUpdate(now));
+        });
+
+        BulkWriteResult result;
+        Map<Integer, BulkWriteError> errors = new HashMap<>();
+        try {
+            result = circuitBreaker.call(bulk::execute);
+        } catch (BulkOperationException e) {
+            result = e.getResult();
+            e.getErrors().forEach(error -> errors.put(error.getIndex(), error));
+        }
+        log.debug("Lock batch of {} requests executed with {} errors", batch.size(), errors.size());
+
+        List<Request> acquired = new ArrayList<>();
+        List<Request> released = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Request request = batch.get(i);
+            BulkWriteError error = errors.get(i);
+            if (Objects.isNull(error)) {
+                (request.acquire ? acquired : released).add(request);
+            } else if (request.acquire && error.getCode() == DUPLICATE_KEY) {
+                events.publish(LockEvent.of(LockEvent.Type.CONTENTION, request.lock));
+                request.result.complete(Optional.empty());
+            } else {
+                events.publish(LockEvent.error(request.lock, new LockException(error.getMessage())));
+                request.result.completeExceptionally(new LockException(error.getMessage()));
+            }
+        }
+        completeAcquired(acquired);
+        completeReleased(released, result.getModifiedCount() + result.getUpserts().size() - acquired.size());
+    }
+
+    /**
+     * Read back all acquired locks with single query.
+     *
+     * @param acquired - successfully written acquisition requests
+     */
+    void completeAcquired(List<Request> acquired) {
+        if (acquired.isEmpty()) return;
+
+        List<String> lockedBy = acquired.stream().map(request -> request.lock.lockedBy).toList();
+        Query query = circuitBreaker.deadline(Query.query(Criteria.where("lockedBy").in(lockedBy)));
+        Map<String, Lock> locks = circuitBreaker.call(() -> mongoTemplate.find(query, Lock.class, lockCollectionName)).stream()
+                .collect(Collectors.toMap(Lock::getLockedBy, Function.identity()));
+        acquired.forEach(request -> {
+            Optional<Lock> maybeLock = Optional.ofNullable(locks.get(request.lock.lockedBy))
+                    .filter(lock -> Objects.equals(lock.owner, request.lock.owner));
+            maybeLock.ifPresent(lock -> events.publish(LockEvent.of(LockEvent.Type.ACQUIRED, lock)));
+            request.result.complete(maybeLock);
+        });
+    }
+
+    /**
+     * Complete release requests. If not every release was applied, released locks are read back to find out which of
+     * them are not held by their owners anymore.
+     *
+     * @param released      - successfully written release requests
+     * @param releasedCount - count of modified locks by release requests
+     */
+    void completeReleased(List<Request> released, long releasedCount) {
+        if (released.isEmpty()) return;
+
+        if (releasedCount == released.size()) {
+            released.forEach(request -> {
+                Lock lock = request.lock.withState(Lock.State.NONE).withOwner(null);
+                distributedLock.forget(lock);
+                events.publish(LockEvent.of(LockEvent.Type.RELEASED, lock));
+                request.result.complete(Optional.of(lock));
+            });
+            return;
+        }
+
+        List<String> ids = released.stream().map(request -> request.lock.id).toList();
+        Query query = circuitBreaker.deadline(Query.query(Criteria.where("id").in(ids)));
+        Map<String, Lock> locks = circuitBreaker.call(() -> mongoTemplate.find(query, Lock.class, lockCollectionName)).stream()
+                .collect(Collectors.toMap(Lock::getId, Function.identity()));
+        released.forEach(request -> {
+            Optional<Lock> maybeReleased = Optional.ofNullable(locks.get(request.lock.id))
+                    .filter(lock -> lock.state == Lock.State.NONE);
+            maybeReleased.ifPresent(distributedLock::forget);
+            request.result.complete(maybeReleased);
+        });
+    }
+
+    private Query acquireQuery(Lock lock, Instant now) {
+        Duration lockPeriod = Optional.ofNullable(lock.getLockPeriod()).orElse(defaultLockPeriod);
+        Criteria released = Criteria.where("state").is(Lock.State.NONE);
+        Criteria expired = Criteria.where("state").is(Lock.State.LOCKED).and("lastModifiedAt").lt(now.minus(lockPeriod));
+        return Query.query(Criteria.where("lockedBy").is(lock.lockedBy).orOperator(released, expired));
+    }
+
+    private Update acquireUpdate(Lock lock, Instant now) {
+        Duration lockPeriod = Optional.ofNullable(lock.getLockPeriod()).orElse(defaultLockPeriod);
+        return Update.update("state", Lock.State.LOCKED)
+                .set("owner", lock.owner)
+                .set("lockedAt", now)
+                .set("lastModifiedAt", now)
+                .set("lockPeriodDuration", lockPeriod.toString())
+                .setOnInsert("description", lock.description)
+                .inc("version", 1);
+    }
+
+    private Query releaseQuery(Lock lock) {
+        return Query.query(Criteria.where("id").is(lock.id).and("owner").is(lock.owner).and("state").is(Lock.State.LOCKED));
+    }
+
+    private Update releaseUpdate(Instant now) {
+        return Update.update("state", Lock.State.NONE).set("lastModifiedAt", now).unset("owner").inc("version", 1);
+    }
+
+    @RequiredArgsConstructor
+    static class Request {
+
+        final boolean acquire;
+        final Lock lock;
+        final CompletableFuture<Optional<Lock>> result = new CompletableFuture<>();
+        final AtomicBoolean claimed = new AtomicBoolean();
+
+        /**
+         * @return true if request is taken for execution by this call, so either flusher or submitter executes it
+         */
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import java.time.Instant;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Lock lifecycle event, published asynchronously to all registered {@link LockEventListener}s.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class LockEvent {
+
+    Type type;
+
+    /**
+     * Snapshot of a lock, which event is related to. For {@link Type#CONTENTION} or {@link Type#ERROR} events it
+     * could be lock configuration only, if lock wasn't persisted.
+     */
+    Lock lock;
+
+    Instant occurredAt;
+
+    /**
+     * Cause of {@link Type#ERROR} event, null otherwise.
+     */
+    Throwable error;
+
+    public static LockEvent of(Type type, Lock lock) {
+        return new LockEvent(type, lock, Instant.now(), null);
+    }
+
+    public static LockEvent error(Lock lock, Throwable error) {
+        return new LockEvent(Type.ERROR, lock, Instant.now(), error);
+    }
+
+    public enum Type {
+        /**
+         * Released or not existing lock was acquired.
+         */
+        ACQUIRED,
+        /**
+         * Acquired lock was released, lock snapshot keeps owner, which has released it.
+         */
+        RELEASED,
+        /**
+         * Acquired lock period was prolonged by its owner.
+         */
+        RENEWED,
+        /**
+         * Lock was acquired after its previous owner lock period has been expired.
+         */
+        EXPIRED_TAKEOVER,
+        /**
+         * Lock wasn't acquired, because it's held by someone else.
+         */
+        CONTENTION,
+        /**
+         * Lock store operation has been failed.
+         */
+        ERROR,
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+/**
+ * Lock lifecycle events listener SPI.
+ * <p>
+ * Listeners are invoked asynchronously from single {@link LockEvents} dispatcher thread, so they never add any latency
+ * to {@link DistributedLock} operations, but slow listener can cause dropping of events if events buffer is full.
+ *
+ * @see LockEvents
+ */
+@FunctionalInterface
+public interface LockEventListener {
+
+    void onLockEvent(LockEvent event);
+}
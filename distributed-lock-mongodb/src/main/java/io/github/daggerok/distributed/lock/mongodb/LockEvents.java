@@ -0,0 +1,111 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Asynchronous lock events dispatcher.
+ * <p>
+ * Published events are enqueued into bounded lock-free {@link RingBuffer} and delivered to listeners from single
+ * daemon dispatcher thread. Publishing never blocks: if buffer is full, event is dropped and counted instead.
+ * <p>
+ * Usage:
+ * <pre>
+ *     var events = new LockEvents(1024, List.of(event -> log.info("Lock event: {}", event)));
+ *     var distributedLock = new DistributedLock(collectionName, lockPeriod, mongoTemplate).withEvents(events);
+ * </pre>
+ */
+@Log4j2
+public class LockEvents implements AutoCloseable {
+
+    /**
+     * Events dispatcher without any listener, so nothing is going to be published.
+     */
+    public static final LockEvents NONE = new LockEvents();
+
+    private static final long IDLE_PARK_NANOS = Duration.ofMillis(1).toNanos();
+
+    private final List<LockEventListener> listeners;
+    private final RingBuffer<LockEvent> buffer;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread dispatcher;
+    private volatile boolean running;
+
+    /**
+     * @param bufferSize - events buffer capacity, rounded up to the next power of two
+     * @param listeners  - listeners to be notified
+     */
+    public LockEvents(int bufferSize, Collection<LockEventListener> listeners) {
+        this.listeners = List.copyOf(Objects.requireNonNull(listeners, "listeners may not be null"));
+        this.buffer = new RingBuffer<>(bufferSize);
+        this.running = !this.listeners.isEmpty();
+        this.dispatcher = new Thread(this::dispatch, "distributed-lock-events");
+        this.dispatcher.setDaemon(true);
+        if (running) dispatcher.start();
+    }
+
+    private LockEvents() {
+        this(2, List.of());
+    }
+
+    /**
+     * Enqueue event for asynchronous delivery, never blocks.
+     *
+     * @param event - {@link LockEvent} to be published
+     */
+    public void publish(LockEvent event) {
+        if (!running) return;
+        if (!buffer.offer(event)) dropped.incrementAndGet();
+    }
+
+    /**
+     * @return true if there is at least one listener, so events should be published
+     */
+    public boolean isEnabled() {
+        return running;
+    }
+
+    /**
+     * @return count of events which were dropped because of full buffer
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    @Override
+    public void close() {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(dispatcher);
+        try {
+            dispatcher.join(Duration.ofSeconds(1).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.debug("Lock events dispatcher closed, dropped events: {}", dropped::get);
+    }
+
+    private void dispatch() {
+        while (running) {
+            LockEvent event = buffer.poll();
+            if (Objects.isNull(event)) LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            else deliver(event);
+        }
+        for (LockEvent event = buffer.poll(); Objects.nonNull(event); event = buffer.poll()) deliver(event);
+    }
+
+    private void deliver(LockEvent event) {
+        for (LockEventListener listener : listeners) {
+            try {
+                listener.onLockEvent(event);
+            } catch (Throwable throwable) {
+                log.error("Lock event listener {} error: {}", listener, throwable.getMessage());
+            }
+        }
+    }
+}
@@ -24,4 +24,80 @@ public class LockException extends RuntimeException {
     public static LockException lockIdIsRequired() {
         return new LockException("lock ID is required");
     }
+
+    public static LockException lockOwnerIsRequired() {
+        return new LockException("lock owner is required");
+    }
+
+    public static LockException lockModeIsRequired() {
+        return new LockException("lock mode is required");
+    }
+
+    public static LockException lockPathIdentifierIsInvalid() {
+        return new LockException("lock path identifier may not be empty or contain '/' or '#'");
+    }
+
+    public static LockException resultTypeIsRequired() {
+        return new LockException("result type is required");
+    }
+
+    public static LockException permitsMustBePositive() {
+        return new LockException("permits must be positive");
+    }
+
+    public static LockException rateLimiterNameIsRequired() {
+        return new LockException("rate limiter name is required");
+    }
+
+    public static LockException waitTimeoutIsRequired() {
+        return new LockException("wait timeout is required");
+    }
+
+    public static LockException deadlockDetected() {
+        return new LockException("deadlock detected, lock wait was aborted");
+    }
+
+    public static LockException partitionGroupIsRequired() {
+        return new LockException("partition group is required");
+    }
+
+    public static LockException partitionsMustBePositive() {
+        return new LockException("partitions must be positive");
+    }
+
+    public static LockException heartbeatMustBeShorterThanLockPeriod() {
+        return new LockException("heartbeat must be shorter than lock period");
+    }
+
+    public static LockException documentTypeIsRequired() {
+        return new LockException("document type is required");
+    }
+
+    public static LockException documentVersionIsRequired() {
+        return new LockException("document must have @Version property");
+    }
+
+    public static LockException queryIsRequired() {
+        return new LockException("query is required");
+    }
+
+    public static LockException modificationIsRequired() {
+        return new LockException("modification is required");
+    }
+
+    public static LockException attemptsMustBePositive() {
+        return new LockException("attempts must be positive");
+    }
+
+    public static LockException quorumNodesAreRequired() {
+        return new LockException("quorum nodes are required");
+    }
+
+    public static LockStoreUnavailableException lockStoreUnavailable(Throwable cause) {
+        return new LockStoreUnavailableException("lock store is unavailable", cause);
+    }
+
+    public static LockStoreUnavailableException circuitIsOpen() {
+        return new LockStoreUnavailableException("lock store circuit is open");
+    }
 }
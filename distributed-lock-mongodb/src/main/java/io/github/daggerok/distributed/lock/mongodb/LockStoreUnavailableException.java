@@ -0,0 +1,10 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import lombok.experimental.StandardException;
+
+/**
+ * Lock store didn't answer, answered too slow, or its {@link CircuitBreaker} is open, so it's unknown if lock is held.
+ */
+@StandardException
+public class LockStoreUnavailableException extends LockException {
+}
@@ -0,0 +1,270 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import io.vavr.control.Try;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Lease based assignment of fixed count of partitions between live members of a group, so every partition is owned
+ * by one member only, and partitions are shared fairly without every member trying to acquire every partition.
+ * <p>
+ * Every partition is an ordinary lock of {@code group-partition} identifier in lock collection, so partitions are
+ * mutually exclusive with ordinary locks of the same identifiers and can be inspected as ordinary held locks. On every
+ * heartbeat member records itself into members collection, reads live members of its group, and calculates its fair
+ * share of partitions by its position among sorted members. Owned partitions are renewed with a single update. Only
+ * if member owns more than its share, excess is released with a single update, or if it owns less, free or expired
+ * partitions are claimed with a single update, so rebalancing on join or leave takes a few heartbeats, and steady
+ * lock store traffic is a few round trips per member and heartbeat, whatever count of partitions is. Left member
+ * partitions are claimed after their lease end, closed member releases its partitions immediately.
+ * <p>
+ * Heartbeat must be shorter than lock period, for example a third of it. Owned partitions must be checked before
+ * every unit of work, because they could be revoked on rebalancing. Owned partitions are considered lost as soon as
+ * heartbeat fails, or if their lease, started by last successful heartbeat, is about to end, so member never works on
+ * partitions, which may have been claimed by someone else meanwhile.
+ * <p>
+ * Usage:
+ * <pre>
+ *     try (var assignor = distributedLock.partitionAssignor("orders", 256, Duration.ofSeconds(5))) {
+ *         while (isRunning) {
+ *             assignor.owned().forEach(partition -> ordersService.process(partition));
+ *         }
+ *     }
+ * </pre>
+ */
+@Log4j2
+public class PartitionAssignor implements AutoCloseable {
+
+    /**
+     * Owned partitions are considered lost a tenth of lock period before their lease end, which covers clock drift
+     * between members and latency of heartbeat, which has started the lease.
+     */
+    private static final int LEASE_MARGIN_DIVISOR = 10;
+
+    private final String group;
+    private final int partitions;
+    @Getter
+    private final String memberId;
+    private final String lockCollectionName;
+    private final String membersCollectionName;
+    private final Duration lockPeriod;
+    private final MongoTemplate mongoTemplate;
+    private final CircuitBreaker circuitBreaker;
+    private final long heartbeatNanos;
+    private final long leaseNanos;
+    private final List<String> lockedBys;
+    private final Map<String, Integer> partitionsByLockedBy = new HashMap<>();
+    private final Thread assignor;
+    private volatile Set<Integer> owned = Set.of();
+    private volatile long leaseEndNanos = System.nanoTime();
+    private volatile boolean running = true;
+
+    PartitionAssignor(String group, int partitions, String memberId, String lockCollectionName,
+                      String membersCollectionName, Duration lockPeriod, MongoTemplate mongoTemplate,
+                      CircuitBreaker circuitBreaker, Duration heartbeat) {
+        this.group = group;
+        this.partitions = partitions;
+        this.memberId = memberId;
+        this.lockCollectionName = lockCollectionName;
+        this.membersCollectionName = membersCollectionName;
+        this.lockPeriod = lockPeriod;
+        this.mongoTemplate = mongoTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.heartbeatNanos = Objects.requireNonNull(heartbeat, "heartbeat may not be null").toNanos();
+        this.leaseNanos = lockPeriod.toNanos() - lockPeriod.toNanos() / LEASE_MARGIN_DIVISOR;
+        this.lockedBys = IntStream.range(0, partitions).mapToObj(partition -> lockedBy(group, partition)).toList();
+        IntStream.range(0, partitions).forEach(partition -> partitionsByLockedBy.put(lockedBys.get(partition), partition));
+        this.assignor = new Thread(this::assignPeriodically, "distributed-lock-partition-assignor-" + group);
+        this.assignor.setDaemon(true);
+        this.assignor.start();
+    }
+
+    /**
+     * @return snapshot of currently owned partitions, or empty set if they were lost because of heartbeat failure or
+     * lease end
+     */
+    public Set<Integer> owned() {
+        return System.nanoTime() - leaseEndNanos < 0 ? owned : Set.of();
+    }
+
+    public boolean isOwned(int partition) {
+        return owned().contains(partition);
+    }
+
+    /**
+     * Stop heartbeats, release owned partitions and leave group, so other members can claim them immediately.
+     */
+    @Override
+    public void close() {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(assignor);
+        try {
+            assignor.join(Duration.ofSeconds(1).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        Set<Integer> released = owned;
+        owned = Set.of();
+        Try.run(() -> release(released))
+                .andThenTry(() -> circuitBreaker.call(() ->
+                        mongoTemplate.remove(Query.query(Criteria.where("_id").is(memberId)), membersCollectionName)))
+                .onFailure(throwable -> log.error("Partition assignor {} leave error: {}", memberId, throwable.getMessage()));
+    }
+
+    private void assignPeriodically() {
+        while (running) {
+            Try.run(this::assign)
+                    .onFailure(throwable -> leaseEndNanos = System.nanoTime()) // renewal is unknown, stop working
+                    .onFailure(throwable -> log.error("Partition assignment error: {}", throwable::getMessage));
+            LockSupport.parkNanos(this, heartbeatNanos);
+        }
+    }
+
+    /**
+     * Heartbeat, renew owned partitions and release excess or claim missing ones up to fair share.
+     */
+    void assign() {
+        long leaseStartedAt = System.nanoTime();
+        Instant now = Instant.now();
+        heartbeat(now);
+        int share = fairShare(liveMembers(now), memberId, partitions);
+        Set<Integer> current = renew(owned, now);
+        owned = Set.copyOf(current);
+
+        if (current.size() > share) {
+            Set<Integer> excess = current.stream()
+                    .sorted(Comparator.reverseOrder())
+                    .limit(current.size() - share)
+                    .collect(Collectors.toSet());
+            Set<Integer> remaining = new TreeSet<>(current);
+            remaining.removeAll(excess);
+            owned = Set.copyOf(remaining); // stop working on excess before anyone else can claim it
+            release(excess);
+            log.debug("Member {} has released partitions {} of group {}", memberId, excess, group);
+        }
+        if (current.size() < share) {
+            owned = Set.copyOf(claim(current, share - current.size(), now));
+            log.debug("Member {} owns {} of {} partitions of group {}", memberId, owned.size(), share, group);
+        }
+        leaseEndNanos = leaseStartedAt + leaseNanos;
+    }
+
+    /**
+     * @param members    - live members
+     * @param memberId   - member to calculate share of
+     * @param partitions - count of partitions
+     * @return count of partitions given member should own
+     */
+    static int fairShare(Collection<String> members, String memberId, int partitions) {
+        TreeSet<String> sorted = new TreeSet<>(members);
+        sorted.add(memberId);
+        int index = sorted.headSet(memberId).size();
+        return partitions / sorted.size() + (index < partitions % sorted.size() ? 1 : 0);
+    }
+
+    static String lockedBy(String group, int partition) {
+        return Lock.of(group, partition).lockedBy;
+    }
+
+    private void heartbeat(Instant now) {
+        Query member = Query.query(Criteria.where("_id").is(memberId));
+        Update heartbeat = Update.update("group", group)
+                .set("heartbeatAt", Date.from(now))
+                .set("expireAt", Date.from(now.plus(lockPeriod)));
+        circuitBreaker.call(() -> mongoTemplate.upsert(member, heartbeat, membersCollectionName));
+    }
+
+    private List<String> liveMembers(Instant now) {
+        Query members = Query.query(Criteria.where("group").is(group).and("expireAt").gt(Date.from(now)));
+        members.fields().include("_id");
+        return circuitBreaker.call(() -> mongoTemplate.find(circuitBreaker.deadline(members), Document.class, membersCollectionName)).stream()
+                .map(document -> document.getString("_id"))
+                .toList();
+    }
+
+    private Set<Integer> renew(Set<Integer> current, Instant now) {
+        if (current.isEmpty()) return current;
+
+        Criteria held = Criteria.where("lockedBy").in(toLockedBys(current)).and("owner").is(memberId).and("state").is(Lock.State.LOCKED);
+        long renewed = circuitBreaker.call(() ->
+                mongoTemplate.updateMulti(Query.query(held), Update.update("lastModifiedAt", now), Lock.class, lockCollectionName)
+        ).getModifiedCount();
+        if (renewed == current.size()) return current;
+
+        Set<Integer> stillOwned = findOwned();
+        log.warn("Member {} has lost partitions of group {}: {} -> {}", memberId, group, current, stillOwned);
+        return stillOwned;
+    }
+
+    private Set<Integer> claim(Set<Integer> current, int count, Instant now) {
+        Criteria free = new Criteria().orOperator(
+                Criteria.where("state").is(Lock.State.NONE),
+                Criteria.where("state").is(Lock.State.LOCKED).and("lastModifiedAt").lt(now.minus(lockPeriod))
+        );
+        Query candidates = Query.query(new Criteria().andOperator(Criteria.where("lockedBy").in(lockedBys), free));
+        candidates.fields().include("lockedBy");
+        List<String> freeLockedBys = new ArrayList<>(circuitBreaker.call(() ->
+                        mongoTemplate.find(circuitBreaker.deadline(candidates), Lock.class, lockCollectionName)).stream()
+                .map(Lock::getLockedBy)
+                .toList());
+        if (freeLockedBys.isEmpty()) return current;
+
+        Collections.shuffle(freeLockedBys); // spread claims of concurrently joining members
+        List<String> toClaim = freeLockedBys.subList(0, Math.min(count, freeLockedBys.size()));
+        Query claimable = Query.query(new Criteria().andOperator(Criteria.where("lockedBy").in(toClaim), free));
+        Update claim = Update.update("state", Lock.State.LOCKED)
+                .set("owner", memberId)
+                .set("lockedAt", now)
+                .set("lastModifiedAt", now)
+                .set("lockPeriodDuration", lockPeriod.toString());
+        long claimed = circuitBreaker.call(() -> mongoTemplate.updateMulti(claimable, claim, Lock.class, lockCollectionName)).getModifiedCount();
+        if (claimed == toClaim.size()) {
+            Set<Integer> claimedPartitions = new TreeSet<>(current);
+            toClaim.forEach(lockedBy -> claimedPartitions.add(partitionsByLockedBy.get(lockedBy)));
+            return claimedPartitions;
+        }
+        return findOwned();
+    }
+
+    private void release(Set<Integer> toRelease) {
+        if (toRelease.isEmpty()) return;
+
+        Criteria held = Criteria.where("lockedBy").in(toLockedBys(toRelease)).and("owner").is(memberId).and("state").is(Lock.State.LOCKED);
+        Update release = Update.update("state", Lock.State.NONE).set("lastModifiedAt", Instant.now()).unset("owner");
+        circuitBreaker.call(() -> mongoTemplate.updateMulti(Query.query(held), release, Lock.class, lockCollectionName));
+    }
+
+    private Set<Integer> findOwned() {
+        Query held = Query.query(Criteria.where("lockedBy").in(lockedBys).and("owner").is(memberId).and("state").is(Lock.State.LOCKED));
+        held.fields().include("lockedBy");
+        return circuitBreaker.call(() -> mongoTemplate.find(circuitBreaker.deadline(held), Lock.class, lockCollectionName)).stream()
+                .map(lock -> partitionsByLockedBy.get(lock.lockedBy))
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private List<String> toLockedBys(Set<Integer> partitionSet) {
+        return partitionSet.stream().map(lockedBys::get).toList();
+    }
+}
@@ -0,0 +1,213 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Quorum lock over several independent lock stores, for example {@link DistributedLock} instances of different Mongo
+ * deployments, so losing a minority of deployments neither stops guarded jobs nor breaks mutual exclusion.
+ * <p>
+ * The same lock is acquired on every node in parallel using the same unique owner. As soon as a majority of nodes
+ * has acquired it, quorum lock is acquired, so acquisition latency is the one of the fastest majority, not of the
+ * slowest node. As soon as a majority can't be reached anymore, or node timeout has elapsed, acquisition fails and
+ * already acquired node locks are released. Quorum lock is valid for the shortest lock period of acquired node locks
+ * minus acquisition time and clock drift allowance, and it's not acquired if nothing is left. Node locks, which were acquired after the decision, and
+ * all node locks of released quorum lock are released asynchronously.
+ * <p>
+ * Node timeout only bounds how long acquirer waits, so every node should also use its own client with short
+ * connection, read and server selection timeouts, otherwise a stalled node occupies a worker thread longer.
+ * <p>
+ * Usage:
+ * <pre>
+ *     try (var quorumLock = new QuorumDistributedLock(List.of(lock1, lock2, lock3), Duration.ofSeconds(15),
+ *             Duration.ofMillis(500), 0.01)) {
+ *         quorumLock.acquire(Lock.of("billing")).ifPresent(acquired -> {
+ *             try {
+ *                 billingService.bill(acquired.getValidUntil());
+ *             } finally {
+ *                 quorumLock.release(acquired);
+ *             }
+ *         });
+ *     }
+ * </pre>
+ */
+@Log4j2
+public class QuorumDistributedLock implements AutoCloseable {
+
+    private static final Duration MIN_DRIFT = Duration.ofMillis(2);
+    private static final AtomicInteger threads = new AtomicInteger();
+
+    private final List<DistributedLock> nodes;
+    private final Duration defaultLockPeriod;
+    private final Duration nodeTimeout;
+    private final double clockDriftFactor;
+    private final int majority;
+    private final ExecutorService executor;
+
+    /**
+     * @param nodes             - lock stores, majority of which has to acquire lock
+     * @param defaultLockPeriod - lock period of locks without explicit period
+     * @param nodeTimeout       - how long to wait for a majority of nodes
+     * @param clockDriftFactor  - clock drift allowance of lock period, for example 0.01
+     */
+    public QuorumDistributedLock(List<DistributedLock> nodes, Duration defaultLockPeriod, Duration nodeTimeout,
+                                 double clockDriftFactor) {
+        this.nodes = List.copyOf(Optional.ofNullable(nodes).filter(list -> !list.isEmpty())
+                .orElseThrow(LockException::quorumNodesAreRequired));
+        this.defaultLockPeriod = Objects.requireNonNull(defaultLockPeriod, "defaultLockPeriod may not be null");
+        this.nodeTimeout = Optional.ofNullable(nodeTimeout).orElseThrow(LockException::waitTimeoutIsRequired);
+        this.clockDriftFactor = Math.max(0, clockDriftFactor);
+        this.majority = this.nodes.size() / 2 + 1;
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "distributed-lock-quorum-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Try to acquire a lock according to given config on a majority of nodes.
+     *
+     * @param lockConfig - {@link Lock} configuration to be acquired
+     * @return {@link Optional} of acquired {@link QuorumLock} or empty if a majority of nodes hasn't acquired it in time
+     */
+    public Optional<QuorumLock> acquire(Lock lockConfig) {
+        Lock config = Optional.ofNullable(lockConfig).orElseThrow(LockException::lockIsRequired);
+        Duration lockPeriod = Optional.ofNullable(config.getLockPeriod()).orElse(defaultLockPeriod);
+        String owner = Optional.ofNullable(config.owner).orElseGet(() ->
+                String.format("%s#%s", ManagementFactory.getRuntimeMXBean().getName(), UUID.randomUUID()));
+        Lock lock = config.withOwner(owner).withLockPeriodDuration(lockPeriod.toString());
+
+        long startedAt = System.nanoTime();
+        Votes votes = new Votes();
+        for (int index = 0; index < nodes.size(); index++) {
+            int node = index;
+            CompletableFuture.supplyAsync(() -> nodes.get(node).acquire(lock), executor)
+                    .whenComplete((maybeAcquired, error) -> {
+                        if (Objects.nonNull(error)) log.debug("Quorum node {} acquisition error: {}", node, error.getMessage());
+                        Lock acquired = Objects.isNull(error) ? maybeAcquired.orElse(null) : null;
+                        if (!votes.vote(node, acquired)) releaseAsync(Map.of(node, acquired));
+                    });
+        }
+
+        Map<Integer, Lock> acquired = votes.await(startedAt + nodeTimeout.toNanos());
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+        Duration nodeLockPeriod = acquired.values().stream()
+                .map(Lock::getLockPeriod)
+                .filter(Objects::nonNull)
+                .min(Comparator.naturalOrder())
+                .orElse(lockPeriod);
+        Duration drift = Duration.ofNanos((long) (nodeLockPeriod.toNanos() * clockDriftFactor)).plus(MIN_DRIFT);
+        Duration validity = nodeLockPeriod.minus(elapsed).minus(drift);
+        if (acquired.size() < majority || validity.isNegative() || validity.isZero()) {
+            log.debug("Quorum lock {} wasn't acquired by {}/{} nodes in {}", lock.lockedBy, acquired.size(), nodes.size(), elapsed);
+            releaseAsync(acquired);
+            return Optional.empty();
+        }
+
+        log.debug("Quorum lock {} was acquired by {}/{} nodes in {}", lock.lockedBy, acquired.size(), nodes.size(), elapsed);
+        return Optional.of(new QuorumLock(lock.lockedBy, owner, Instant.now().plus(validity), Map.copyOf(acquired)));
+    }
+
+    /**
+     * Release quorum lock on every node, where it was acquired, asynchronously.
+     *
+     * @param quorumLock - acquired {@link QuorumLock}
+     * @return future count of nodes, where lock was still held by its owner and has been released
+     */
+    public CompletableFuture<Integer> release(QuorumLock quorumLock) {
+        QuorumLock aQuorumLock = Optional.ofNullable(quorumLock).orElseThrow(LockException::lockIsRequired);
+        return releaseAsync(aQuorumLock.locks);
+    }
+
+    /**
+     * @return count of nodes, which have to acquire lock
+     */
+    public int majority() {
+        return majority;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private CompletableFuture<Integer> releaseAsync(Map<Integer, Lock> locks) {
+        List<CompletableFuture<Boolean>> releases = locks.entrySet().stream()
+                .map(entry -> CompletableFuture
+                        .supplyAsync(() -> nodes.get(entry.getKey()).release(entry.getValue().id, entry.getValue().owner).isPresent(), executor)
+                        .exceptionally(error -> {
+                            log.warn("Quorum node {} release error: {}", entry.getKey(), error.getMessage());
+                            return false;
+                        }))
+                .toList();
+        return CompletableFuture.allOf(releases.toArray(CompletableFuture[]::new))
+                .thenApply(unused -> (int) releases.stream().filter(CompletableFuture::join).count());
+    }
+
+    @Value
+    public static class QuorumLock {
+
+        String lockedBy;
+        String owner;
+
+        /**
+         * Until when quorum lock is guaranteed to be held, work must be finished or lock must be renewed before.
+         */
+        Instant validUntil;
+
+        /**
+         * Acquired node locks by node index.
+         */
+        Map<Integer, Lock> locks;
+    }
+
+    /**
+     * Node votes of a single acquisition, decided once a majority is acquired or can't be acquired anymore.
+     */
+    private class Votes {
+
+        private final Map<Integer, Lock> acquired = new HashMap<>();
+        private int rejected;
+        private boolean decided;
+
+        /**
+         * @return false if acquisition was already decided, so acquired node lock must be released
+         */
+        synchronized boolean vote(int node, Lock lock) {
+            if (decided) return Objects.isNull(lock);
+
+            if (Objects.nonNull(lock)) acquired.put(node, lock);
+            else rejected++;
+            if (acquired.size() >= majority || rejected > nodes.size() - majority) notifyAll();
+            return true;
+        }
+
+        synchronized Map<Integer, Lock> await(long deadlineNanos) {
+            try {
+                for (long remaining = deadlineNanos - System.nanoTime(); remaining > 0; remaining = deadlineNanos - System.nanoTime()) {
+                    if (acquired.size() >= majority || rejected > nodes.size() - majority) break;
+                    wait(remaining / 1_000_000, (int) (remaining % 1_000_000));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            decided = true;
+            return new HashMap<>(acquired);
+        }
+    }
+}
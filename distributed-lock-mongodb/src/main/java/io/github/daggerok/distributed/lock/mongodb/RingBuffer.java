@@ -0,0 +1,73 @@
+package io.github.daggerok.distributed.lock.mongodb;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free multi-producer ring buffer (Dmitry Vyukov's bounded MPMC queue).
+ * <p>
+ * Each slot has its own sequence, so producers and consumers only contend on position counters CAS and never block.
+ *
+ * @param <E> - type of elements
+ */
+class RingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong enqueuePosition = new AtomicLong();
+    private final AtomicLong dequeuePosition = new AtomicLong();
+
+    /**
+     * @param capacity - minimal capacity, rounded up to the next power of two
+     */
+    RingBuffer(int capacity) {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) sequences.set(i, i);
+    }
+
+    /**
+     * @param element - element to be enqueued
+     * @return true if element was enqueued or false if buffer is full
+     */
+    boolean offer(E element) {
+        long position = enqueuePosition.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0 && enqueuePosition.compareAndSet(position, position + 1)) {
+                elements.set(index, element);
+                sequences.set(index, position + 1);
+                return true;
+            }
+            if (difference < 0) return false;
+            position = enqueuePosition.get();
+        }
+    }
+
+    /**
+     * @return dequeued element or null if buffer is empty
+     */
+    E poll() {
+        long position = dequeuePosition.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0 && dequeuePosition.compareAndSet(position, position + 1)) {
+                E element = elements.getAndSet(index, null);
+                sequences.set(index, position + mask + 1);
+                return element;
+            }
+            if (difference < 0) return null;
+            position = dequeuePosition.get();
+        }
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
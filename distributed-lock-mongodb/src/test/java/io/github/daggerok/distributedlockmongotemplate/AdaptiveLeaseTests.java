@@ -0,0 +1,81 @@
+package io.github.daggerok.distributedlockmongotemplate;
+
+import io.github.daggerok.distributed.lock.mongodb.AdaptiveLease;
+import java.time.Duration;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("AdaptiveLease tests")
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class AdaptiveLeaseTests {
+
+    @Test
+    void should_lease_p99_execution_times_safety_factor() {
+        // given
+        AdaptiveLease adaptiveLease = new AdaptiveLease(10, 3, Duration.ofMillis(100), Duration.ofMinutes(1));
+
+        // when
+        IntStream.rangeClosed(1, 9).forEach(i -> adaptiveLease.record("report", Duration.ofMillis(i * 100)));
+
+        // then
+        assertThat(adaptiveLease.period("report")).isNull();
+
+        // when
+        IntStream.rangeClosed(10, 100).forEach(i -> adaptiveLease.record("report", Duration.ofMillis(i * 100)));
+
+        // then
+        assertThat(adaptiveLease.period("report")).isBetween(Duration.ofMillis(29_700), Duration.ofSeconds(30));
+        assertThat(adaptiveLease.period("unknown")).isNull();
+    }
+
+    @Test
+    void should_clamp_lease_by_min_and_max_period() {
+        // given
+        AdaptiveLease adaptiveLease = new AdaptiveLease(10, 3, Duration.ofSeconds(1), Duration.ofMinutes(1));
+
+        // when
+        IntStream.range(0, 100).forEach(i -> {
+            adaptiveLease.record("fast", Duration.ofMillis(5));
+            adaptiveLease.record("slow", Duration.ofMinutes(10));
+        });
+
+        // then
+        assertThat(adaptiveLease.period("fast")).isEqualTo(Duration.ofSeconds(1));
+        assertThat(adaptiveLease.period("slow")).isEqualTo(Duration.ofMinutes(1));
+    }
+
+    @Test
+    void should_follow_changed_execution_times() {
+        // given
+        AdaptiveLease adaptiveLease = new AdaptiveLease(10, 2, Duration.ofMillis(1), Duration.ofMinutes(1));
+        IntStream.range(0, 1_000).forEach(i -> adaptiveLease.record("sync", Duration.ofSeconds(10)));
+        assertThat(adaptiveLease.period("sync")).isBetween(Duration.ofSeconds(20), Duration.ofSeconds(22));
+
+        // when
+        IntStream.range(0, 10_000).forEach(i -> adaptiveLease.record("sync", Duration.ofMillis(100)));
+
+        // then
+        assertThat(adaptiveLease.period("sync")).isBetween(Duration.ofMillis(200), Duration.ofMillis(220));
+    }
+
+    @Test
+    void should_forget_least_recently_used_keys() {
+        // given
+        AdaptiveLease adaptiveLease = new AdaptiveLease(2, 2, Duration.ofMillis(1), Duration.ofMinutes(1));
+        IntStream.range(0, 10).forEach(i -> adaptiveLease.record("first", Duration.ofSeconds(1)));
+        IntStream.range(0, 10).forEach(i -> adaptiveLease.record("second", Duration.ofSeconds(1)));
+
+        // when
+        IntStream.range(0, 10).forEach(i -> adaptiveLease.record("third", Duration.ofSeconds(1)));
+
+        // then
+        assertThat(adaptiveLease.period("first")).isNull();
+        assertThat(adaptiveLease.period("second")).isNotNull();
+        assertThat(adaptiveLease.period("third")).isNotNull();
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.daggerok.distributedlockmongotemplate;
+
+import io.github.daggerok.distributed.lock.mongodb.CircuitBreaker;
+import io.github.daggerok.distributed.lock.mongodb.LockException;
+import io.github.daggerok.distributed.lock.mongodb.LockStoreUnavailableException;
+import com.mongodb.MongoExecutionTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("CircuitBreaker tests")
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class CircuitBreakerTests {
+
+    @Test
+    void should_open_after_consecutive_failures_and_fail_fast_without_calls() {
+        // given
+        CircuitBreaker circuitBreaker = new CircuitBreaker(3, Duration.ofMinutes(1), Duration.ZERO);
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        IntStream.range(0, 3).forEach(i -> assertThatThrownBy(() -> circuitBreaker.call(() -> {
+            calls.incrementAndGet();
+            throw new DataAccessResourceFailureException("timeout");
+        })).isInstanceOf(DataAccessResourceFailureException.class));
+
+        // then
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> circuitBreaker.call(calls::incrementAndGet))
+                .isInstanceOf(LockStoreUnavailableException.class)
+                .hasMessage("lock store circuit is open");
+        assertThat(calls).hasValue(3);
+        assertThat(circuitBreaker.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void should_not_count_answered_errors_as_failures() {
+        // given
+        CircuitBreaker circuitBreaker = new CircuitBreaker(2, Duration.ofMinutes(1), Duration.ZERO);
+
+        // when
+        IntStream.range(0, 5).forEach(i -> assertThatThrownBy(() -> circuitBreaker.call(() -> {
+            throw new DuplicateKeyException("duplicate key");
+        })).isInstanceOf(DuplicateKeyException.class));
+
+        // then
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void should_close_after_successful_probe() throws InterruptedException {
+        // given
+        CircuitBreaker circuitBreaker = new CircuitBreaker(1, Duration.ofMillis(50), Duration.ZERO);
+        assertThatThrownBy(() -> circuitBreaker.call(() -> {
+            throw new DataAccessResourceFailureException("timeout");
+        })).isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        // when
+        Thread.sleep(100);
+        String result = circuitBreaker.call(() -> "probe");
+
+        // then
+        assertThat(result).isEqualTo("probe");
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void should_reopen_after_failed_or_slow_probe() throws InterruptedException {
+        // given
+        CircuitBreaker circuitBreaker = new CircuitBreaker(1, Duration.ofMillis(50), Duration.ofMillis(10));
+        assertThatThrownBy(() -> circuitBreaker.call(() -> {
+            throw new DataAccessResourceFailureException("timeout");
+        })).isInstanceOf(DataAccessResourceFailureException.class);
+
+        // when
+        Thread.sleep(100);
+        circuitBreaker.call(() -> {
+            long slowUntil = System.nanoTime() + Duration.ofMillis(30).toNanos();
+            while (System.nanoTime() < slowUntil) Thread.onSpinWait();
+            return "slow";
+        });
+
+        // then
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> circuitBreaker.call(() -> "rejected")).isInstanceOf(LockStoreUnavailableException.class);
+    }
+
+    @Test
+    void should_classify_wrapped_lock_store_failures() {
+        // given
+        DataAccessResourceFailureException timeout = new DataAccessResourceFailureException("timeout");
+
+        // then
+        assertThat(CircuitBreaker.isLockStoreFailure(timeout)).isTrue();
+        assertThat(CircuitBreaker.isLockStoreFailure(new LockException(timeout))).isTrue();
+        assertThat(CircuitBreaker.isLockStoreFailure(LockException.circuitIsOpen())).isTrue();
+        assertThat(CircuitBreaker.isLockStoreFailure(new DuplicateKeyException("duplicate key"))).isFalse();
+        assertThat(CircuitBreaker.isLockStoreFailure(LockException.lockIsRequired())).isFalse();
+        assertThat(CircuitBreaker.isLockStoreFailure(new LockException(new MongoExecutionTimeoutException(50, "max time expired")))).isTrue();
+    }
+
+    @Test
+    void should_bound_queries_by_slow_call_duration() {
+        // given
+        CircuitBreaker circuitBreaker = new CircuitBreaker(3, Duration.ofMinutes(1), Duration.ofMillis(250));
+
+        // when
+        Query query = circuitBreaker.deadline(new Query());
+
+        // then
+        assertThat(query.getMeta().getMaxTimeMsec()).isEqualTo(250);
+        assertThat(CircuitBreaker.NONE.deadline(new Query()).getMeta().getMaxTimeMsec()).isNull();
+        assertThat(new CircuitBreaker(3, Duration.ofMinutes(1), Duration.ZERO).deadline(new Query()).getMeta().getMaxTimeMsec()).isNull();
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.daggerok.distributedlockmongotemplate;
+
+import io.github.daggerok.distributed.lock.mongodb.DistributedLockRuntimeHints;
+import io.github.daggerok.distributed.lock.mongodb.Lock;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.core.io.support.SpringFactoriesLoader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("DistributedLockRuntimeHints tests")
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class DistributedLockRuntimeHintsTests {
+
+    @Test
+    void should_register_lock_for_reflective_mapping_and_binding() throws NoSuchMethodException {
+        // given
+        RuntimeHints hints = new RuntimeHints();
+
+        // when
+        new DistributedLockRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        // then
+        assertThat(RuntimeHintsPredicates.reflection().onType(Lock.class)
+                .withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(Lock.class.getMethod("getLockedBy"))).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(Lock.State.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(Lock.Mode.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(Lock.FailurePolicy.class)).accepts(hints);
+    }
+
+    @Test
+    void should_be_registered_in_aot_factories() {
+        // when
+        List<RuntimeHintsRegistrar> registrars = SpringFactoriesLoader.forResourceLocation("META-INF/spring/aot.factories")
+                .load(RuntimeHintsRegistrar.class);
+
+        // then
+        assertThat(registrars).hasAtLeastOneElementOfType(DistributedLockRuntimeHints.class);
+    }
+}
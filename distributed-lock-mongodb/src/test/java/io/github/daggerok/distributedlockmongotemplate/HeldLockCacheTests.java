@@ -0,0 +1,92 @@
+package io.github.daggerok.distributedlockmongotemplate;
+
+import io.github.daggerok.distributed.lock.mongodb.HeldLockCache;
+import io.github.daggerok.distributed.lock.mongodb.Lock;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("HeldLockCache tests")
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class HeldLockCacheTests {
+
+    Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    void should_cache_held_lock_until_its_lease_end() {
+        // given
+        HeldLockCache cache = new HeldLockCache(10, Duration.ofMinutes(1));
+
+        // when
+        cache.held(held("a", "1", now.minusSeconds(5), Duration.ofSeconds(15)), now);
+
+        // then
+        assertThat(cache.isHeld("a", now.plusSeconds(9))).isTrue();
+        assertThat(cache.isHeld("a", now.plusSeconds(10))).isFalse();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void should_not_cache_held_lock_longer_than_max_ttl() {
+        // given
+        HeldLockCache cache = new HeldLockCache(10, Duration.ofSeconds(1));
+
+        // when
+        cache.held(held("a", "1", now, Duration.ofSeconds(15)), now);
+
+        // then
+        assertThat(cache.isHeld("a", now.plusMillis(999))).isTrue();
+        assertThat(cache.isHeld("a", now.plusSeconds(1))).isFalse();
+    }
+
+    @Test
+    void should_invalidate_cached_lock_by_id_or_lockedBy() {
+        // given
+        HeldLockCache cache = new HeldLockCache(10, Duration.ofMinutes(1));
+        cache.held(held("a", "1", now, Duration.ofSeconds(15)), now);
+        cache.held(held("b", "2", now, Duration.ofSeconds(15)), now);
+
+        // when
+        cache.invalidateId("1");
+        cache.invalidate("b");
+
+        // then
+        assertThat(cache.isHeld("a", now)).isFalse();
+        assertThat(cache.isHeld("b", now)).isFalse();
+    }
+
+    @Test
+    void should_be_bounded() {
+        // given
+        HeldLockCache cache = new HeldLockCache(3, Duration.ofMinutes(1));
+
+        // when
+        for (int i = 0; i < 10; i++) cache.held(held("lock-" + i, String.valueOf(i), now, Duration.ofSeconds(15)), now);
+
+        // then
+        assertThat(cache.size()).isLessThanOrEqualTo(3);
+        assertThat(cache.isHeld("lock-9", now)).isTrue();
+    }
+
+    @Test
+    void should_not_cache_anything_when_disabled() {
+        // when
+        HeldLockCache.NONE.held(held("a", "1", now, Duration.ofSeconds(15)), now);
+
+        // then
+        assertThat(HeldLockCache.NONE.isHeld("a", now)).isFalse();
+    }
+
+    private static Lock held(String lockedBy, String id, Instant lastModifiedAt, Duration lockPeriod) {
+        return Lock.of(lockPeriod, lockedBy)
+                .withId(id)
+                .withState(Lock.State.LOCKED)
+                .withLockedAt(lastModifiedAt)
+                .withLastModifiedAt(lastModifiedAt);
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.daggerok.distributedlockmongotemplate;
+
+import io.github.daggerok.distributed.lock.mongodb.HotLocks;
+import io.github.daggerok.distributed.lock.mongodb.HotLocks.HotLock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("HotLocks tests")
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class HotLocksTests {
+
+    @Test
+    void should_find_heavy_hitters_within_bounded_capacity() {
+        // given
+        HotLocks hotLocks = new HotLocks(10);
+        Random random = new Random(42);
+
+        // when
+        IntStream.range(0, 100_000).forEach(i -> {
+            String lockedBy = i % 5 == 0 ? "hot-1" : i % 5 == 1 ? "hot-2" : "cold-" + random.nextInt(10_000);
+            hotLocks.record(lockedBy, Duration.ofMillis(1), true);
+        });
+
+        // then
+        List<HotLock> top = hotLocks.top(2);
+        assertThat(top).extracting(HotLock::getLockedBy).containsExactlyInAnyOrder("hot-1", "hot-2");
+        assertThat(top).allSatisfy(hotLock -> assertThat(hotLock.getContended() - hotLock.getError()).isLessThanOrEqualTo(20_000));
+        assertThat(top).allSatisfy(hotLock -> assertThat(hotLock.getContended()).isGreaterThanOrEqualTo(20_000));
+        assertThat(hotLocks.top(100)).hasSize(10);
+        assertThat(hotLocks.total()).isEqualTo(100_000);
+    }
+
+    @Test
+    void should_record_wait_times_and_failures_of_tracked_keys() {
+        // given
+        HotLocks hotLocks = new HotLocks(10);
+
+        // when
+        IntStream.rangeClosed(1, 100).forEach(i -> hotLocks.record("orders", Duration.ofMillis(i), i <= 90));
+
+        // then
+        HotLock hotLock = hotLocks.top(1).get(0);
+        assertThat(hotLock.getLockedBy()).isEqualTo("orders");
+        assertThat(hotLock.getContended()).isEqualTo(100);
+        assertThat(hotLock.getError()).isZero();
+        assertThat(hotLock.getFailed()).isEqualTo(10);
+        assertThat(hotLock.getP50()).isBetween(Duration.ofMillis(50), Duration.ofMillis(57));
+        assertThat(hotLock.getP99()).isBetween(Duration.ofMillis(99), Duration.ofMillis(100));
+        assertThat(hotLock.getMax()).isEqualTo(Duration.ofMillis(100));
+    }
+
+    @Test
+    void should_replace_least_contended_key_when_full() {
+        // given
+        HotLocks hotLocks = new HotLocks(2);
+        List.of("orders", "orders", "orders", "payments", "payments").forEach(lockedBy -> hotLocks.record(lockedBy, Duration.ofMillis(1), true));
+
+        // when
+        hotLocks.record("refunds", Duration.ofMillis(1), false);
+
+        // then
+        assertThat(hotLocks.top(2)).extracting(HotLock::getLockedBy).containsExactlyInAnyOrder("orders", "refunds");
+        HotLock replaced = hotLocks.top(2).stream().filter(hotLock -> hotLock.getLockedBy().equals("refunds")).findFirst().orElseThrow();
+        assertThat(replaced.getContended()).isEqualTo(3);
+        assertThat(replaced.getError()).isEqualTo(2);
+        assertThat(replaced.getFailed()).isEqualTo(1);
+
+        // and when
+        hotLocks.record("refunds", Duration.ofMillis(1), true);
+
+        // then
+        assertThat(hotLocks.top(1)).extracting(HotLock::getLockedBy).containsExactly("refunds");
+        assertThat(hotLocks.top(2)).extracting(HotLock::getContended).containsExactly(4L, 3L);
+    }
+
+    @Test
+    void should_not_record_anything_if_disabled() {
+        // when
+        HotLocks.NONE.record("orders", Duration.ofMillis(1), false);
+
+        // then
+        assertThat(HotLocks.NONE.top(10)).isEmpty();
+        assertThat(HotLocks.NONE.total()).isZero();
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.daggerok.distributedlockmongotemplate;
+
+import io.github.daggerok.distributed.lock.mongodb.Lock;
+import io.github.daggerok.distributed.lock.mongodb.LockEvent;
+import io.github.daggerok.distributed.lock.mongodb.LockEvents;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import lombok.SneakyThrows;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Log4j2
+@DisplayName("LockEvents tests")
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class LockEventsTests {
+
+    @Test
+    @SneakyThrows
+    void should_deliver_events_published_concurrently() {
+        // given
+        int producers = 4, eventsPerProducer = 1000;
+        CountDownLatch delivered = new CountDownLatch(producers * eventsPerProducer);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+
+        try (LockEvents events = new LockEvents(producers * eventsPerProducer, List.of(event -> delivered.countDown()))) {
+            // when
+            IntStream.range(0, producers).forEach(producer -> executor.submit(() ->
+                    IntStream.range(0, eventsPerProducer).forEach(i ->
+                            events.publish(LockEvent.of(LockEvent.Type.ACQUIRED, Lock.of(producer, i)))
+                    )
+            ));
+
+            // then
+            assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(events.getDropped()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void should_drop_events_instead_of_blocking_when_buffer_is_full() {
+        // given
+        CountDownLatch listenerBlocked = new CountDownLatch(1);
+        CountDownLatch unblockListener = new CountDownLatch(1);
+        AtomicInteger delivered = new AtomicInteger();
+
+        try (LockEvents events = new LockEvents(4, List.of(event -> {
+            listenerBlocked.countDown();
+            await(unblockListener);
+            delivered.incrementAndGet();
+        }))) {
+            events.publish(LockEvent.of(LockEvent.Type.ACQUIRED, Lock.of("first")));
+            assertThat(listenerBlocked.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // when
+            IntStream.range(0, 10).forEach(i -> events.publish(LockEvent.of(LockEvent.Type.CONTENTION, Lock.of(i))));
+
+            // then
+            assertThat(events.getDropped()).isEqualTo(6);
+            unblockListener.countDown();
+        }
+
+        // and all buffered events were delivered on close
+        assertThat(delivered.get()).isEqualTo(5);
+    }
+
+    @Test
+    void should_not_publish_without_listeners() {
+        // when
+        LockEvents.NONE.publish(LockEvent.of(LockEvent.Type.ACQUIRED, Lock.of("none")));
+
+        // then
+        assertThat(LockEvents.NONE.isEnabled()).isFalse();
+        assertThat(LockEvents.NONE.getDropped()).isZero();
+    }
+
+    @SneakyThrows
+    private static void await(CountDownLatch latch) {
+        latch.await(5, TimeUnit.SECONDS);
+    }
+}
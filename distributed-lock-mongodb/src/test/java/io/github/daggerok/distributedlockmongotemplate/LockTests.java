@@ -112,4 +112,46 @@ class LockTests {
         assertThat(lockConfig.getDescription()).isEqualTo("a description");
         assertThat(lockConfig.getLockedBy()).isEqualTo("1-23-4.56-7890");
     }
+
+    @Test
+    void should_create_hierarchical_lock_config_by_path_identifiers() {
+        // when
+        Lock lockConfig = Lock.path(Lock.Mode.IX, "tenant-1", "account-2", 3L);
+        log.info("lockConfig: {}", lockConfig);
+
+        // then
+        assertThat(lockConfig.getMode()).isEqualTo(Lock.Mode.IX);
+        assertThat(lockConfig.getLockedBy()).isEqualTo("tenant-1/account-2/3");
+    }
+
+    @Test
+    void should_not_create_hierarchical_lock_config_with_invalid_path() {
+        // when mode is missing
+        assertThatThrownBy(() -> Lock.path(null, "tenant-1"))
+                // then
+                .isInstanceOf(LockException.class)
+                .hasMessage("lock mode is required");
+
+        // and when identifier contains path separator
+        assertThatThrownBy(() -> Lock.path(Lock.Mode.X, "tenant/1"))
+                // then
+                .isInstanceOf(LockException.class)
+                .hasMessage("lock path identifier may not be empty or contain '/' or '#'");
+    }
+
+    @Test
+    void should_follow_lock_modes_compatibility_matrix() {
+        // then
+        assertThat(Lock.Mode.IS.isCompatibleWith(Lock.Mode.IX)).isTrue();
+        assertThat(Lock.Mode.IS.isCompatibleWith(Lock.Mode.S)).isTrue();
+        assertThat(Lock.Mode.IX.isCompatibleWith(Lock.Mode.IX)).isTrue();
+        assertThat(Lock.Mode.IX.isCompatibleWith(Lock.Mode.S)).isFalse();
+        assertThat(Lock.Mode.S.isCompatibleWith(Lock.Mode.S)).isTrue();
+        assertThat(Lock.Mode.X.isCompatibleWith(Lock.Mode.IS)).isFalse();
+        assertThat(Lock.Mode.IS.isCompatibleWith(null)).isFalse();
+
+        // and intents
+        assertThat(Lock.Mode.S.intent()).isEqualTo(Lock.Mode.IS);
+        assertThat(Lock.Mode.X.intent()).isEqualTo(Lock.Mode.IX);
+    }
 }